@@ -0,0 +1,156 @@
+package net.aiden.aircraftmod.benchmark;
+
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.aiden.aircraftmod.block.custom.AirPumpResolution;
+import net.aiden.aircraftmod.block.custom.AirPumpStructureResolver;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static net.aiden.aircraftmod.block.custom.AirPumpBaseBlock.EXTENDED;
+import static net.aiden.aircraftmod.block.custom.AirPumpBaseBlock.FACING;
+
+/**
+ * Benchmarks for the air pump hot paths, run against a {@link FlatPumpWorld}. Run them with
+ * {@code ./gradlew jmh}; the GC profiler is enabled in the build so every result also reports the
+ * allocation rate.
+ * <p>
+ * Vanilla pistons stand in for pump bases, since they have the same FACING and EXTENDED properties
+ * and the mod's own blocks cannot be registered outside a running game.
+ *
+ * @author Aiden Black
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AirPumpBenchmark {
+    private static final int MAX_PUSH_LENGTH = 64;
+
+    /**
+     * A single row of upward-facing pumps in one of four arrangements.
+     */
+    @State(Scope.Thread)
+    public static class PumpRow {
+        /**
+         * idle: extended and unopposed; opposed: retracted under a powered piston;
+         * obstructed: retracted under obsidian; grid: a dense 32x32 floor of pumps with mixed surroundings
+         */
+        @Param({"idle", "opposed", "obstructed", "grid"})
+        public String scenario;
+
+        FlatPumpWorld world;
+        BlockPos[] pumps;
+        BlockState[] pumpStates;
+        final AirPumpResolution resolution = new AirPumpResolution();
+
+        @Setup
+        public void setUp() {
+            int side = scenario.equals("grid") ? 32 : 16;
+            world = new FlatPumpWorld(side, 8, side);
+            pumps = new BlockPos[side * side];
+            pumpStates = new BlockState[side * side];
+
+            int i = 0;
+            for (int x = 0; x < side; x++) {
+                for (int z = 0; z < side; z++) {
+                    BlockPos basePos = new BlockPos(x, 1, z);
+                    String arrangement = scenario.equals("grid") ? GRID_ARRANGEMENTS[(x + z) % GRID_ARRANGEMENTS.length] : scenario;
+                    pumps[i] = basePos;
+                    pumpStates[i++] = build(world, basePos, arrangement);
+                }
+            }
+        }
+    }
+
+    private static final String[] GRID_ARRANGEMENTS = {"idle", "opposed", "obstructed", "free"};
+
+    /**
+     * A retracted pump in front of a line of stone, followed by air.
+     */
+    @State(Scope.Thread)
+    public static class PushLine {
+        @Param({"1", "12", "64"})
+        public int lineLength;
+
+        FlatPumpWorld world;
+        BlockPos basePos;
+        final AirPumpResolution resolution = new AirPumpResolution();
+
+        @Setup
+        public void setUp() {
+            world = new FlatPumpWorld(1, lineLength + 4, 1);
+            basePos = BlockPos.ZERO;
+            world.set(basePos, pumpBase(false));
+            for (int i = 1; i <= lineLength; i++) {
+                world.set(basePos.above(i), Blocks.STONE.defaultBlockState());
+            }
+        }
+    }
+
+    @Benchmark
+    public void evaluatePumps(PumpRow row, Blackhole blackhole) {
+        for (int i = 0; i < row.pumps.length; i++) {
+            BlockPos basePos = row.pumps[i];
+            BlockState baseState = row.pumpStates[i];
+            BlockPos potentialPistonPos = basePos.above(2);
+            boolean isOpposed = AirPumpBaseBlock.isOpposedBy(row.world, potentialPistonPos, row.world.getBlockState(potentialPistonPos), Direction.UP);
+            blackhole.consume(AirPumpBaseBlock.evaluate(row.world, basePos, baseState, isOpposed, row.resolution, MAX_PUSH_LENGTH));
+        }
+    }
+
+    @Benchmark
+    public void isOpposed(PumpRow row, Blackhole blackhole) {
+        for (BlockPos basePos : row.pumps) {
+            BlockPos potentialPistonPos = basePos.above(2);
+            blackhole.consume(AirPumpBaseBlock.isOpposedBy(row.world, potentialPistonPos, row.world.getBlockState(potentialPistonPos), Direction.UP));
+        }
+    }
+
+    @Benchmark
+    public void isNotPushable(PumpRow row, Blackhole blackhole) {
+        for (BlockPos basePos : row.pumps) {
+            BlockPos headPos = basePos.above();
+            blackhole.consume(AirPumpBaseBlock.isNotPushable(row.world.getBlockState(headPos), row.world, headPos, Direction.UP, false));
+        }
+    }
+
+    @Benchmark
+    public boolean resolvePushLine(PushLine line) {
+        return AirPumpStructureResolver.get().resolve(line.world, line.basePos, Direction.UP, line.resolution, MAX_PUSH_LENGTH);
+    }
+
+    /**
+     * Builds one pump and its surroundings.
+     *
+     * @return the pump base's BlockState
+     */
+    private static BlockState build(FlatPumpWorld world, BlockPos basePos, String arrangement) {
+        BlockState baseState;
+        switch (arrangement) {
+            case "idle" -> baseState = pumpBase(true);
+            case "opposed" -> {
+                baseState = pumpBase(false);
+                world.set(basePos.above(2), Blocks.PISTON.defaultBlockState().setValue(FACING, Direction.DOWN));
+                world.set(basePos.above(3), Blocks.REDSTONE_BLOCK.defaultBlockState());
+            }
+            case "obstructed" -> {
+                baseState = pumpBase(false);
+                world.set(basePos.above(), Blocks.OBSIDIAN.defaultBlockState());
+            }
+            default -> baseState = pumpBase(false);
+        }
+        world.set(basePos, baseState);
+        return baseState;
+    }
+
+    private static BlockState pumpBase(boolean extended) {
+        return Blocks.PISTON.defaultBlockState().setValue(FACING, Direction.UP).setValue(EXTENDED, extended);
+    }
+}
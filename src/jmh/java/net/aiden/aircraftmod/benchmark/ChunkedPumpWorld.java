@@ -0,0 +1,114 @@
+package net.aiden.aircraftmod.benchmark;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.aiden.aircraftmod.block.pump.PumpSignalAccess;
+import net.aiden.aircraftmod.block.pump.SectionPinnedBlockAccess;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.data.BuiltinRegistries;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.material.FluidState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A headless stand-in world stored the way a level stores it: real chunk sections, found through a
+ * hash map keyed by chunk position. Every trip through that map is counted, so benchmarks can show
+ * how many chunk lookups an evaluation makes with and without a pinned chunk.
+ *
+ * @author Aiden Black
+ */
+public class ChunkedPumpWorld extends SectionPinnedBlockAccess implements PumpSignalAccess {
+    private final int sectionCount;
+    private final Long2ObjectOpenHashMap<LevelChunkSection[]> chunks = new Long2ObjectOpenHashMap<>();
+    private long chunkLookups;
+
+    /**
+     * Constructs an empty world, starting at y = 0, that is the given number of sections tall.
+     *
+     * @param sectionCount height of the world in sections
+     */
+    public ChunkedPumpWorld(int sectionCount) {
+        FlatPumpWorld.bootstrap();
+        this.sectionCount = sectionCount;
+    }
+
+    /**
+     * Places a block state, creating its chunk if needed.
+     *
+     * @param pos   location to place at
+     * @param state state to place
+     */
+    public void set(BlockPos pos, BlockState state) {
+        long chunk = ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        LevelChunkSection[] sections = chunks.computeIfAbsent(chunk, key -> {
+            LevelChunkSection[] created = new LevelChunkSection[sectionCount];
+            for (int i = 0; i < sectionCount; i++) created[i] = new LevelChunkSection(i, BuiltinRegistries.BIOME);
+            return created;
+        });
+        sections[SectionPos.blockToSectionCoord(pos.getY())].setBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15, state);
+    }
+
+    /**
+     * @return number of times the chunk map has been consulted
+     */
+    public long getChunkLookups() {
+        return chunkLookups;
+    }
+
+    @Nullable
+    @Override
+    protected LevelChunkSection[] lookupSections(int chunkX, int chunkZ) {
+        chunkLookups++;
+        return chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
+    @Override
+    protected BlockState getUnpinnedBlockState(BlockPos pos) {
+        int sectionIndex = SectionPos.blockToSectionCoord(pos.getY());
+        LevelChunkSection[] sections = lookupSections(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        if (sections == null || sectionIndex < 0 || sectionIndex >= sectionCount) return Blocks.AIR.defaultBlockState();
+        return sections[sectionIndex].getBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+    }
+
+    @Override
+    public boolean hasSignal(BlockPos pos, Direction side) {
+        return getBlockState(pos).getSignal(this, pos, side) > 0;
+    }
+
+    @Override
+    public boolean isWithinWorldBorder(BlockPos pos) {
+        return true;
+    }
+
+    @Override
+    public long getGameTime() {
+        return 0;
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(@NotNull BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public @NotNull FluidState getFluidState(@NotNull BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public int getHeight() {
+        return sectionCount * 16;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return 0;
+    }
+}
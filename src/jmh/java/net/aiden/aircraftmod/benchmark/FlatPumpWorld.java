@@ -0,0 +1,131 @@
+package net.aiden.aircraftmod.benchmark;
+
+import net.aiden.aircraftmod.block.pump.PumpPushability;
+import net.aiden.aircraftmod.block.pump.PumpSignalAccess;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A headless stand-in world for benchmarks: a box of block states in a flat array, starting at the
+ * origin. Everything outside the box is air and outside the world border. Signals are read
+ * straight from the block's own {@code getSignal}, which is enough for redstone blocks and
+ * levers but does not model power conducted through solid blocks.
+ *
+ * @author Aiden Black
+ */
+public class FlatPumpWorld implements PumpSignalAccess {
+    private static boolean bootstrapped;
+
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final BlockState[] states;
+    private long gameTime;
+
+    /**
+     * Constructs an empty world of the given size.
+     *
+     * @param sizeX width of the world along x
+     * @param sizeY height of the world
+     * @param sizeZ width of the world along z
+     */
+    public FlatPumpWorld(int sizeX, int sizeY, int sizeZ) {
+        bootstrap();
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.states = new BlockState[sizeX * sizeY * sizeZ];
+        Arrays.fill(states, Blocks.AIR.defaultBlockState());
+    }
+
+    /**
+     * Loads the vanilla registries so block states can be created outside a running game, and
+     * builds the pushability table from them.
+     */
+    public static synchronized void bootstrap() {
+        if (!bootstrapped) {
+            SharedConstants.tryDetectVersion();
+            Bootstrap.bootStrap();
+            PumpPushability.rebuild();
+            bootstrapped = true;
+        }
+    }
+
+    /**
+     * Places a block state in the world.
+     *
+     * @param pos   location inside the box
+     * @param state state to place
+     */
+    public void set(BlockPos pos, BlockState state) {
+        states[index(pos.getX(), pos.getY(), pos.getZ())] = state;
+    }
+
+    /**
+     * Advances the game time, which expires resolutions computed before.
+     */
+    public void tick() {
+        gameTime++;
+    }
+
+    @Override
+    public boolean hasSignal(BlockPos pos, Direction side) {
+        return getBlockState(pos).getSignal(this, pos, side) > 0;
+    }
+
+    @Override
+    public boolean isWithinWorldBorder(BlockPos pos) {
+        return pos.getX() >= 0 && pos.getX() < sizeX && pos.getZ() >= 0 && pos.getZ() < sizeZ;
+    }
+
+    @Override
+    public long getGameTime() {
+        return gameTime;
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(@NotNull BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public @NotNull BlockState getBlockState(BlockPos pos) {
+        int x = pos.getX();
+        int y = pos.getY();
+        int z = pos.getZ();
+        if (x < 0 || x >= sizeX || y < 0 || y >= sizeY || z < 0 || z >= sizeZ) {
+            return Blocks.AIR.defaultBlockState();
+        }
+        return states[index(x, y, z)];
+    }
+
+    @Override
+    public @NotNull FluidState getFluidState(@NotNull BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public int getHeight() {
+        return sizeY;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return 0;
+    }
+
+    private int index(int x, int y, int z) {
+        return (y * sizeZ + z) * sizeX + x;
+    }
+}
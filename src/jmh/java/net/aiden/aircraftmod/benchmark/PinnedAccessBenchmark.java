@@ -0,0 +1,111 @@
+package net.aiden.aircraftmod.benchmark;
+
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.aiden.aircraftmod.block.custom.AirPumpResolution;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static net.aiden.aircraftmod.block.custom.AirPumpBaseBlock.EXTENDED;
+import static net.aiden.aircraftmod.block.custom.AirPumpBaseBlock.FACING;
+
+/**
+ * Compares evaluating pumps while reading every block through the chunk map with pinning each
+ * pump's chunk first. The {@code lookups} counter, divided by the {@code evaluations} counter,
+ * gives the number of chunk map lookups per pump evaluation.
+ * <p>
+ * The farm is a 32x32 floor of upward-facing pumps spread over four chunks. Every other pump is
+ * opposed by a powered piston, whose power check reads across chunk borders at the edges; the
+ * rest have a line of stone in front of them.
+ *
+ * @author Aiden Black
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PinnedAccessBenchmark {
+    private static final int SIDE = 32;
+    private static final int MAX_PUSH_LENGTH = 64;
+
+    @State(Scope.Thread)
+    public static class Farm {
+        @Param({"1", "12"})
+        public int lineLength;
+
+        ChunkedPumpWorld world;
+        final BlockPos[] pumps = new BlockPos[SIDE * SIDE];
+        final BlockState[] pumpStates = new BlockState[SIDE * SIDE];
+        final AirPumpResolution resolution = new AirPumpResolution();
+
+        @Setup
+        public void setUp() {
+            world = new ChunkedPumpWorld(2);
+            BlockState base = Blocks.PISTON.defaultBlockState().setValue(FACING, Direction.UP).setValue(EXTENDED, false);
+            int i = 0;
+            for (int x = 0; x < SIDE; x++) {
+                for (int z = 0; z < SIDE; z++) {
+                    BlockPos basePos = new BlockPos(x, 1, z);
+                    world.set(basePos, base);
+                    if ((x + z) % 2 == 0) {
+                        world.set(basePos.above(2), Blocks.PISTON.defaultBlockState().setValue(FACING, Direction.DOWN));
+                        world.set(basePos.above(3), Blocks.REDSTONE_BLOCK.defaultBlockState());
+                    } else {
+                        for (int y = 1; y <= lineLength; y++) world.set(basePos.above(y), Blocks.STONE.defaultBlockState());
+                    }
+                    pumps[i] = basePos;
+                    pumpStates[i++] = base;
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Lookups {
+        public long lookups;
+        public long evaluations;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            lookups = 0;
+            evaluations = 0;
+        }
+    }
+
+    @Benchmark
+    public void unpinned(Farm farm, Lookups counters, Blackhole blackhole) {
+        evaluateAll(farm, counters, blackhole, false);
+    }
+
+    @Benchmark
+    public void pinned(Farm farm, Lookups counters, Blackhole blackhole) {
+        evaluateAll(farm, counters, blackhole, true);
+    }
+
+    private static void evaluateAll(Farm farm, Lookups counters, Blackhole blackhole, boolean pin) {
+        ChunkedPumpWorld world = farm.world;
+        long lookupsBefore = world.getChunkLookups();
+        for (int i = 0; i < farm.pumps.length; i++) {
+            BlockPos basePos = farm.pumps[i];
+            if (pin) {
+                world.unpin();
+                world.pin(basePos);
+            }
+            BlockPos potentialPistonPos = basePos.above(2);
+            boolean isOpposed = AirPumpBaseBlock.isOpposedBy(world, potentialPistonPos, world.getBlockState(potentialPistonPos), Direction.UP);
+            blackhole.consume(AirPumpBaseBlock.evaluate(world, basePos, farm.pumpStates[i], isOpposed, farm.resolution, MAX_PUSH_LENGTH));
+        }
+        world.unpin();
+        counters.lookups += world.getChunkLookups() - lookupsBefore;
+        counters.evaluations += farm.pumps.length;
+    }
+}
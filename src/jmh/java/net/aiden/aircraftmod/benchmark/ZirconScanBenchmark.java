@@ -0,0 +1,153 @@
+package net.aiden.aircraftmod.benchmark;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.aiden.aircraftmod.item.scanner.OreSectionScanner;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.data.BuiltinRegistries;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Compares ways of counting the ores within 128 blocks of a point, as the zircon scanner does, over
+ * the 17x17 chunks such a scan touches:
+ * <ul>
+ *     <li>{@code perBlock} reads every block of the scan's bounds through the chunk map, the way
+ *     scanning with {@code level.getBlockState} would;</li>
+ *     <li>{@code palette} scans every chunk with {@link OreSectionScanner}, as on a first scan;</li>
+ *     <li>{@code cached} only filters the ores of chunks scanned before, as on a repeated scan.</li>
+ * </ul>
+ * The world is 24 sections tall: 16 of stone with a few small veins in one section out of ten, then
+ * 8 of air. One section out of ten more had its ore mined out, so its palette still lists the ore.
+ * Mod blocks are not registered outside the game, so diamond ore stands in for zircon.
+ *
+ * @author Aiden Black
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ZirconScanBenchmark {
+    private static final int RADIUS = 128;
+    private static final int CHUNKS = 2 * RADIUS / 16 + 1;
+    private static final int MIN_SECTION_Y = -4;
+    private static final int SECTIONS = 24;
+    private static final int STONE_SECTIONS = 16;
+    private static final int VEIN_BLOCKS = 8;
+    private static final BlockPos CENTRE = new BlockPos(CHUNKS * 8, 0, CHUNKS * 8);
+
+    @State(Scope.Benchmark)
+    public static class World {
+        final Long2ObjectOpenHashMap<LevelChunkSection[]> chunks = new Long2ObjectOpenHashMap<>();
+        final Long2ObjectOpenHashMap<long[]> scanned = new Long2ObjectOpenHashMap<>();
+        Predicate<BlockState> isOre;
+
+        @Setup
+        public void setUp() {
+            FlatPumpWorld.bootstrap();
+            BlockState stone = Blocks.STONE.defaultBlockState();
+            BlockState ore = Blocks.DIAMOND_ORE.defaultBlockState();
+            isOre = state -> state.is(Blocks.DIAMOND_ORE);
+            Random random = new Random(42);
+
+            for (int chunkX = 0; chunkX < CHUNKS; chunkX++) {
+                for (int chunkZ = 0; chunkZ < CHUNKS; chunkZ++) {
+                    LevelChunkSection[] sections = new LevelChunkSection[SECTIONS];
+                    for (int i = 0; i < SECTIONS; i++) {
+                        LevelChunkSection section = new LevelChunkSection(MIN_SECTION_Y + i, BuiltinRegistries.BIOME);
+                        if (i < STONE_SECTIONS) {
+                            for (int y = 0; y < 16; y++) {
+                                for (int z = 0; z < 16; z++) {
+                                    for (int x = 0; x < 16; x++) section.setBlockState(x, y, z, stone, false);
+                                }
+                            }
+                            int roll = random.nextInt(10);
+                            if (roll <= 1) {
+                                int veinX = random.nextInt(14);
+                                int veinY = random.nextInt(14);
+                                int veinZ = random.nextInt(14);
+                                for (int block = 0; block < VEIN_BLOCKS; block++) {
+                                    section.setBlockState(veinX + (block & 1), veinY + (block >> 1 & 1), veinZ + (block >> 2 & 1), ore, false);
+                                }
+                                // Mined out: the palette keeps the ore, the blocks are stone again
+                                if (roll == 1) {
+                                    for (int block = 0; block < VEIN_BLOCKS; block++) {
+                                        section.setBlockState(veinX + (block & 1), veinY + (block >> 1 & 1), veinZ + (block >> 2 & 1), stone, false);
+                                    }
+                                }
+                            }
+                        }
+                        sections[i] = section;
+                    }
+                    chunks.put(ChunkPos.asLong(chunkX, chunkZ), sections);
+                }
+            }
+            for (Long2ObjectOpenHashMap.Entry<LevelChunkSection[]> chunk : chunks.long2ObjectEntrySet()) {
+                ChunkPos chunkPos = new ChunkPos(chunk.getLongKey());
+                scanned.put(chunk.getLongKey(), OreSectionScanner.scanChunk(chunk.getValue(), chunkPos.x, chunkPos.z, MIN_SECTION_Y, isOre));
+            }
+        }
+
+        BlockState getBlockState(int x, int y, int z) {
+            LevelChunkSection[] sections = chunks.get(ChunkPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z)));
+            if (sections == null) return Blocks.AIR.defaultBlockState();
+            return sections[SectionPos.blockToSectionCoord(y) - MIN_SECTION_Y].getBlockState(x & 15, y & 15, z & 15);
+        }
+    }
+
+    @Benchmark
+    public int perBlock(World world) {
+        int found = 0;
+        int minY = SectionPos.sectionToBlockCoord(MIN_SECTION_Y);
+        int maxY = minY + SECTIONS * 16 - 1;
+        for (int x = CENTRE.getX() - RADIUS; x <= CENTRE.getX() + RADIUS; x++) {
+            for (int z = CENTRE.getZ() - RADIUS; z <= CENTRE.getZ() + RADIUS; z++) {
+                for (int y = Math.max(minY, CENTRE.getY() - RADIUS); y <= Math.min(maxY, CENTRE.getY() + RADIUS); y++) {
+                    if (world.isOre.test(world.getBlockState(x, y, z)) && inRange(BlockPos.asLong(x, y, z))) found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int palette(World world) {
+        int found = 0;
+        for (Long2ObjectOpenHashMap.Entry<LevelChunkSection[]> chunk : world.chunks.long2ObjectEntrySet()) {
+            ChunkPos chunkPos = new ChunkPos(chunk.getLongKey());
+            for (long ore : OreSectionScanner.scanChunk(chunk.getValue(), chunkPos.x, chunkPos.z, MIN_SECTION_Y, world.isOre)) {
+                if (inRange(ore)) found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int cached(World world) {
+        int found = 0;
+        for (long[] ores : world.scanned.values()) {
+            for (long ore : ores) {
+                if (inRange(ore)) found++;
+            }
+        }
+        return found;
+    }
+
+    private static boolean inRange(long pos) {
+        long dx = BlockPos.getX(pos) - CENTRE.getX();
+        long dy = BlockPos.getY(pos) - CENTRE.getY();
+        long dz = BlockPos.getZ(pos) - CENTRE.getZ();
+        return dx * dx + dy * dy + dz * dz <= (long) RADIUS * RADIUS;
+    }
+}
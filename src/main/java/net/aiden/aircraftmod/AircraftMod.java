@@ -3,11 +3,23 @@ package net.aiden.aircraftmod;
 import com.mojang.logging.LogUtils;
 import net.aiden.aircraftmod.block.ModBlocks;
 import net.aiden.aircraftmod.block.entity.ModBlockEntities;
+import net.aiden.aircraftmod.block.entity.client.AirPumpMovingHeadRenderer;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.entity.ModEntityTypes;
+import net.aiden.aircraftmod.entity.client.AirshipRenderer;
 import net.aiden.aircraftmod.item.ModItems;
+import net.aiden.aircraftmod.network.AircraftModNetwork;
+import net.aiden.aircraftmod.world.feature.ModConfiguredFeatures;
+import net.aiden.aircraftmod.world.feature.ModFeatures;
+import net.aiden.aircraftmod.world.feature.ModPlacedFeatures;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.EntityRenderersEvent;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
@@ -28,19 +40,26 @@ public class AircraftMod
         ModBlocks.register(modEventBus);
 
         ModBlockEntities.register(modEventBus);
+        ModEntityTypes.register(modEventBus);
+
+        ModFeatures.register(modEventBus);
+        ModConfiguredFeatures.register(modEventBus);
+        ModPlacedFeatures.register(modEventBus);
 
         modEventBus.addListener(this::commonSetup);
 
+        ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, AircraftModCommonConfigs.SPEC, "aircraftmod-common.toml");
+
         MinecraftForge.EVENT_BUS.register(this);
     }
 
     private void commonSetup(final FMLCommonSetupEvent event)
     {
-
+        event.enqueueWork(AircraftModNetwork::register);
     }
 
     // You can use EventBusSubscriber to automatically register all static methods in the class annotated with @SubscribeEvent
-    @Mod.EventBusSubscriber(modid = MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
+    @Mod.EventBusSubscriber(modid = MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD, value = Dist.CLIENT)
     public static class ClientModEvents
     {
         @SubscribeEvent
@@ -48,5 +67,12 @@ public class AircraftMod
         {
 
         }
+
+        @SubscribeEvent
+        public static void onRegisterRenderers(EntityRenderersEvent.RegisterRenderers event)
+        {
+            event.registerBlockEntityRenderer(ModBlockEntities.AIR_PUMP_MOVING_HEAD.get(), AirPumpMovingHeadRenderer::new);
+            event.registerEntityRenderer(ModEntityTypes.AIRSHIP.get(), AirshipRenderer::new);
+        }
     }
 }
@@ -3,6 +3,7 @@ package net.aiden.aircraftmod.block;
 import net.aiden.aircraftmod.AircraftMod;
 import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
 import net.aiden.aircraftmod.block.custom.AirPumpHeadBlock;
+import net.aiden.aircraftmod.block.custom.AirPumpMovingHeadBlock;
 import net.aiden.aircraftmod.block.custom.JumpyBlock;
 import net.aiden.aircraftmod.item.ModCreativeModeTab;
 import net.aiden.aircraftmod.item.ModItems;
@@ -50,6 +51,12 @@ public class ModBlocks {
     public static final RegistryObject<Block> AIR_PUMP_HEAD = registerBlock("air_pump_head",
             () -> new AirPumpHeadBlock(BlockBehaviour.Properties.of(Material.PISTON)
                     .strength(1.5f).noLootTable()), ModCreativeModeTab.AIRCRAFT_TAB);
+    public static final RegistryObject<Block> AIR_PUMP_MOVING_HEAD = BLOCKS.register("air_pump_moving_head",
+            () -> new AirPumpMovingHeadBlock(BlockBehaviour.Properties.of(Material.PISTON)
+                    .strength(-1f).dynamicShape().noLootTable().noOcclusion()
+                    .isRedstoneConductor((state, getter, pos) -> false)
+                    .isSuffocating((state, getter, pos) -> false)
+                    .isViewBlocking((state, getter, pos) -> false)));
 
     private static <T extends Block> RegistryObject<T> registerBlock(String name, Supplier<T> block, CreativeModeTab tab)
     {
@@ -2,13 +2,37 @@ package net.aiden.aircraftmod.block.custom;
 
 import com.google.common.collect.Maps;
 
-import java.util.List;
 import java.util.Map;
 
 import net.aiden.aircraftmod.block.entity.ModBlockEntities;
 import net.aiden.aircraftmod.block.entity.AirPumpBaseBlockEntity;
+import net.aiden.aircraftmod.block.entity.AirPumpMovingBlockEntity;
+import net.aiden.aircraftmod.block.pump.AirPumpUpdateQueue;
+import net.aiden.aircraftmod.block.pump.DestroyEffectLimiter;
+import net.aiden.aircraftmod.block.pump.LevelPumpBlockAccess;
+import net.aiden.aircraftmod.block.pump.AirPumpWakeTracker;
+import net.aiden.aircraftmod.block.pump.PistonPowerLookup;
+import net.aiden.aircraftmod.block.pump.PumpBlockAccess;
+import net.aiden.aircraftmod.block.pump.PumpChunkState;
+import net.aiden.aircraftmod.block.pump.PumpChunkStates;
+import net.aiden.aircraftmod.block.pump.PumpLightBatcher;
+import net.aiden.aircraftmod.block.pump.PumpNeighborNotifier;
+import net.aiden.aircraftmod.block.pump.PumpPressureNetworks;
+import net.aiden.aircraftmod.block.pump.PumpPushability;
+import net.aiden.aircraftmod.block.pump.PumpSignalAccess;
+import net.aiden.aircraftmod.block.pump.PumpSoundCoalescer;
+import net.aiden.aircraftmod.block.pump.PumpStateStorage;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.entity.airship.AirshipAssembler;
+import net.aiden.aircraftmod.metrics.PumpChunkProfiler;
+import net.aiden.aircraftmod.metrics.PumpCounter;
+import net.aiden.aircraftmod.metrics.PumpHook;
+import net.aiden.aircraftmod.metrics.PumpMetrics;
+import net.aiden.aircraftmod.network.PumpTriggerBatcher;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.sounds.SoundEvent;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.tags.BlockTags;
@@ -40,6 +64,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import static net.aiden.aircraftmod.block.ModBlocks.AIR_PUMP_HEAD;
+import static net.aiden.aircraftmod.block.ModBlocks.AIR_PUMP_MOVING_HEAD;
 import static net.minecraft.world.level.block.piston.PistonBaseBlock.TRIGGER_EXTEND;
 import static net.minecraft.world.level.block.piston.PistonBaseBlock.TRIGGER_CONTRACT;
 
@@ -57,6 +82,19 @@ public class AirPumpBaseBlock extends BaseEntityBlock {
      * used to check which direction the pump is facing
      */
     public static final DirectionProperty FACING = BlockStateProperties.FACING;
+    /**
+     * returned by {@link #evaluate} when the pump should neither extend nor contract
+     */
+    public static final int TRIGGER_NONE = -1;
+    /**
+     * returned by {@link #evaluate} when the line in front of the pump is too long to push, so the
+     * pump should launch it as an airship and then extend
+     */
+    public static final int TRIGGER_ASSEMBLE = 2;
+    /**
+     * neighbour notifications sent by {@link Level#updateNeighborsAt}, one per side
+     */
+    private static final int NOTIFICATIONS_PER_UPDATE = 6;
     /**
      * collision box for the pump base when it is extended eastward
      */
@@ -131,6 +169,83 @@ public class AirPumpBaseBlock extends BaseEntityBlock {
         if (!level.isClientSide) this.checkIfExtend(level, pos, state);
     }
 
+    /**
+     * Joins a newly placed pump to the pressure networks it touches, or records its extension when
+     * the state changes in place or the pump lands back where a moving block lifted it. Also stores
+     * a pump placed without a block entity in its chunk's {@link PumpChunkState}, and keeps the
+     * watched opponent slot of a stored pump in line with its facing when the state changes in
+     * place. Runs before the block entity of the new state would be created.
+     *
+     * @param baseState pump base's new BlockState
+     * @param level     spatial and network context
+     * @param basePos   pump base's location
+     * @param oldState  BlockState that was there before
+     * @param isMoving  whether the block was placed by a piston
+     */
+    @Override
+    public void onPlace(@NotNull BlockState baseState, @NotNull Level level, @NotNull BlockPos basePos, @NotNull BlockState oldState, boolean isMoving) {
+        super.onPlace(baseState, level, basePos, oldState, isMoving);
+        if (!(level instanceof ServerLevel serverLevel)) return;
+        if (isMovingBlock(oldState)) {
+            PumpPressureNetworks.get(serverLevel).land(basePos, baseState.getValue(EXTENDED));
+        } else if (!oldState.is(this)) {
+            PumpPressureNetworks.get(serverLevel).add(basePos, baseState.getValue(EXTENDED));
+        } else if (oldState.getValue(EXTENDED) != baseState.getValue(EXTENDED)) {
+            PumpPressureNetworks.get(serverLevel).setExtended(basePos, baseState.getValue(EXTENDED));
+        }
+        if (level.getBlockEntity(basePos) instanceof AirPumpBaseBlockEntity) return;
+
+        PumpChunkState chunkState = PumpChunkStates.get(serverLevel).at(basePos);
+        if (chunkState == null) return;
+        if (!oldState.is(this)) {
+            if (AircraftModCommonConfigs.PUMP_STATE_STORAGE.get() != PumpStateStorage.CHUNK) return;
+            chunkState.add(basePos);
+            AirPumpWakeTracker.get(serverLevel).watch(basePos, baseState.getValue(FACING));
+            AirPumpUpdateQueue.get(serverLevel).enqueue(basePos);
+        } else if (chunkState.contains(basePos)) {
+            if (AircraftModCommonConfigs.PUMP_STATE_STORAGE.get() == PumpStateStorage.CHUNK) {
+                AirPumpWakeTracker.get(serverLevel).watch(basePos, baseState.getValue(FACING));
+            } else {
+                // The block entity created for the new state takes over
+                chunkState.remove(basePos);
+            }
+        }
+    }
+
+    /**
+     * Takes a broken pump out of its pressure network, or only lifts it from the network when a
+     * moving block replaces it, since a retracting pump comes back in place. Also stops storing and watching it if it has no
+     * block entity.
+     *
+     * @param baseState pump base's old BlockState
+     * @param level     spatial and network context
+     * @param basePos   pump base's location
+     * @param newState  BlockState replacing the pump base
+     * @param isMoving  whether the block was moved by a piston
+     */
+    @Override
+    public void onRemove(@NotNull BlockState baseState, @NotNull Level level, @NotNull BlockPos basePos, @NotNull BlockState newState, boolean isMoving) {
+        if (!newState.is(this) && level instanceof ServerLevel serverLevel) {
+            PumpPressureNetworks networks = PumpPressureNetworks.get(serverLevel);
+            if (isMovingBlock(newState)) {
+                networks.lift(basePos);
+            } else {
+                networks.remove(basePos);
+            }
+            PumpChunkState chunkState = PumpChunkStates.get(serverLevel).at(basePos);
+            if (chunkState != null && chunkState.remove(basePos)) AirPumpWakeTracker.get(serverLevel).unwatch(basePos);
+        }
+        super.onRemove(baseState, level, basePos, newState, isMoving);
+    }
+
+    /**
+     * @param state BlockState to test
+     * @return true if the state is a vanilla moving piston or a moving pump head
+     */
+    private static boolean isMovingBlock(BlockState state) {
+        return state.is(Blocks.MOVING_PISTON) || state.is(AIR_PUMP_MOVING_HEAD.get());
+    }
+
     /**
      * Returns the state of the pump base upon placement.
      *
@@ -143,19 +258,30 @@ public class AirPumpBaseBlock extends BaseEntityBlock {
     }
 
     /**
-     * If a neighboring block is changed on the server, check if we need to change the extension value.
+     * If a neighboring block is changed on the server, queue the pump to check whether it needs to change
+     * its extension value at the end of the tick. Several changes in one tick lead to a single check.
      *
      * @param state       pump base's BlockState
      * @param level       spatial and network context
      * @param basePos     location of the pump base
      * @param block       unused parameter from overridden method
-     * @param neighborPos unused parameter from overridden method
+     * @param neighborPos location of the block that changed
      * @param b           unused parameter from overridden method
      */
     @Override
     public void neighborChanged(@NotNull BlockState state, Level level, @NotNull BlockPos basePos, @NotNull Block block, @NotNull BlockPos neighborPos, boolean b) {
         if (!level.isClientSide) {
-            this.checkIfExtend(level, basePos, state);
+            if (level.getBlockEntity(basePos) instanceof AirPumpBaseBlockEntity baseEntity) {
+                baseEntity.onNeighborChanged(neighborPos);
+            } else if (level instanceof ServerLevel serverLevel) {
+                PumpChunkState chunkState = PumpChunkStates.get(serverLevel).at(basePos);
+                if (chunkState != null) chunkState.onNeighborChanged(basePos, neighborPos);
+            }
+            if (level instanceof ServerLevel serverLevel) {
+                AirPumpUpdateQueue.get(serverLevel).enqueue(basePos);
+            } else {
+                this.checkIfExtend(level, basePos, state);
+            }
         }
     }
 
@@ -167,49 +293,155 @@ public class AirPumpBaseBlock extends BaseEntityBlock {
      * @param baseState pump base's BlockState
      */
     public void checkIfExtend(Level level, BlockPos basePos, BlockState baseState) {
-        Direction pumpDirection = baseState.getValue(FACING); //set "direction" to the direction the block is facing
-        boolean isOpposed = this.isOpposed(level, basePos);
+        this.checkIfExtend(level, basePos, baseState, level.getBlockEntity(basePos) instanceof AirPumpBaseBlockEntity entity ? entity : null);
+    }
 
-        // If the pump needs to extend
-        if (!isOpposed && !baseState.getValue(EXTENDED)) {
-            if ((new AirPumpStructureResolver(level, basePos, pumpDirection)).isCanPush()) {// and if its structure resolves
-                level.blockEvent(basePos, this, TRIGGER_EXTEND, pumpDirection.get3DDataValue());//make a block event for this block position, this block,
-            }
-        } else if (isOpposed && baseState.getValue(EXTENDED)) {
-            level.blockEvent(basePos, this, TRIGGER_CONTRACT, pumpDirection.get3DDataValue());
+    /**
+     * Create an event for this block if its extension should be changed, reading opposition from the
+     * block entity's cache when one is available.
+     *
+     * @param level      spatial and network context
+     * @param basePos    pump base's location
+     * @param baseState  pump base's BlockState
+     * @param baseEntity pump base's block entity, or null if it has none
+     */
+    public void checkIfExtend(Level level, BlockPos basePos, BlockState baseState, @Nullable AirPumpBaseBlockEntity baseEntity) {
+        if (PumpChunkProfiler.active) PumpChunkProfiler.recordEvaluation(level, basePos);
+        if (PumpMetrics.enabled) {
+            long start = System.nanoTime();
+            int resolvesBefore = AirPumpStructureResolver.get().getResolveCount();
+            this.queueTrigger(level, basePos, baseState, baseEntity);
+            PumpMetrics.count(level, basePos, PumpCounter.EVALUATIONS, 1);
+            PumpMetrics.count(level, basePos, PumpCounter.RESOLVER_CALLS, AirPumpStructureResolver.get().getResolveCount() - resolvesBefore);
+            PumpMetrics.time(level, basePos, PumpHook.CHECK_IF_EXTEND, start);
+        } else {
+            this.queueTrigger(level, basePos, baseState, baseEntity);
         }
     }
 
     /**
-     * Determines whether a piston is powered.
+     * Evaluates the pump and queues a block event if its extension should be changed.
      *
-     * @param level     spatial and network context
-     * @param pistonPos location of piston tested for signal
-     * @return true if piston is powered, false if it is not powered
+     * @param level      spatial and network context
+     * @param basePos    pump base's location
+     * @param baseState  pump base's BlockState
+     * @param baseEntity pump base's block entity, or null if it has none
      */
-    private boolean isPistonPowered(Level level, BlockPos pistonPos) {
-        Direction pistonDirection = level.getBlockState(pistonPos).getValue(FACING);
+    private void queueTrigger(Level level, BlockPos basePos, BlockState baseState, @Nullable AirPumpBaseBlockEntity baseEntity) {
+        Direction pumpDirection = baseState.getValue(FACING); //set "direction" to the direction the block is facing
+        boolean isOpposed = this.isOpposed(level, basePos, pumpDirection, baseEntity);
+
+        // Resolve into the block entity so the queued block event can reuse the result
+        AirPumpResolution resolution = baseEntity != null ? baseEntity.getResolution() : AirPumpStructureResolver.get().getScratchResolution();
+        int trigger = evaluate(LevelPumpBlockAccess.pinned(level, basePos), basePos, baseState, isOpposed, resolution,
+                AircraftModCommonConfigs.MAX_PUSH_LENGTH.get(), AircraftModCommonConfigs.AIRSHIPS_ENABLED.get());
+        // evaluate only resolves the line of an unopposed, retracted pump
+        watchLine(level, basePos, !isOpposed && !baseState.getValue(EXTENDED) ? resolution : null);
+        this.scheduleTrigger(level, basePos, pumpDirection, trigger);
+    }
 
-        // Piston is powered if any of the neighbors it isn't facing are powered.
-        for (Direction testedSignalDirection : Direction.values()) {
-            if (testedSignalDirection != pistonDirection && level.hasSignal(pistonPos.relative(testedSignalDirection), testedSignalDirection)) {
-                return true;
-            }
+    /**
+     * Has the {@link AirPumpWakeTracker} watch the line a pump could not push, so that a change
+     * anywhere along it wakes the pump, or stop watching it once the line no longer matters.
+     * Polled pumps are evaluated every tick anyway and watch nothing.
+     *
+     * @param level      spatial and network context
+     * @param basePos    pump base's location
+     * @param resolution resolution of the pump's line if it was just resolved, or null if it was not
+     */
+    public static void watchLine(Level level, BlockPos basePos, @Nullable AirPumpResolution resolution) {
+        if (!(level instanceof ServerLevel serverLevel) || !AircraftModCommonConfigs.EVENT_DRIVEN_PUMPS.get()) return;
+
+        AirPumpWakeTracker tracker = AirPumpWakeTracker.get(serverLevel);
+        if (resolution != null && !resolution.canPush()) {
+            tracker.watchLine(basePos, resolution);
+        } else {
+            tracker.unwatchLine(basePos);
         }
+    }
 
-        if (level.hasSignal(pistonPos, Direction.DOWN)) {
-            return true;
+    /**
+     * Queues the block event for a trigger decided by {@link #evaluate}. On a server with batching
+     * enabled, the event is queued with the {@link PumpTriggerBatcher} instead of the level.
+     *
+     * @param level         spatial and network context
+     * @param basePos       pump base's location
+     * @param pumpDirection direction in which the pump faces
+     * @param trigger       trigger to queue; {@link #TRIGGER_NONE} queues nothing
+     */
+    public void scheduleTrigger(Level level, BlockPos basePos, Direction pumpDirection, int trigger) {
+        if (trigger == TRIGGER_NONE) return;
+
+        if (level instanceof ServerLevel serverLevel && AircraftModCommonConfigs.BATCH_PUMP_EVENTS.get()) {
+            PumpTriggerBatcher.get(serverLevel).schedule(basePos, trigger, pumpDirection.get3DDataValue());
         } else {
-            BlockPos blockpos = pistonPos.above();
+            level.blockEvent(basePos, this, trigger, pumpDirection.get3DDataValue());//make a block event for this block position, this block,
+        }
+    }
 
-            for (Direction direction1 : Direction.values()) {
-                if (direction1 != Direction.DOWN && level.hasSignal(blockpos.relative(direction1), direction1)) {
-                    return true;
-                }
-            }
+    /**
+     * Decides whether a pump should extend, contract or stay as it is, without touching the level.
+     *
+     * @param access        world to read from
+     * @param basePos       pump base's location
+     * @param baseState     pump base's BlockState
+     * @param isOpposed     whether the pump is opposed by a powered piston
+     * @param resolution    resolution to fill if the pump tries to extend
+     * @param maxPushLength largest number of blocks the pump may push
+     * @return TRIGGER_EXTEND, TRIGGER_CONTRACT or {@link #TRIGGER_NONE}
+     */
+    public static int evaluate(PumpBlockAccess access, BlockPos basePos, BlockState baseState, boolean isOpposed, AirPumpResolution resolution, int maxPushLength) {
+        return evaluate(access, basePos, baseState, isOpposed, resolution, maxPushLength, false);
+    }
 
-            return false;
+    /**
+     * Decides whether a pump should extend, contract, launch an airship or stay as it is, without
+     * touching the level.
+     *
+     * @param access           world to read from
+     * @param basePos          pump base's location
+     * @param baseState        pump base's BlockState
+     * @param isOpposed        whether the pump is opposed by a powered piston
+     * @param resolution       resolution to fill if the pump tries to extend
+     * @param maxPushLength    largest number of blocks the pump may push
+     * @param assembleAirships whether a line too long to push should be launched as an airship
+     * @return TRIGGER_EXTEND, TRIGGER_CONTRACT, {@link #TRIGGER_ASSEMBLE} or {@link #TRIGGER_NONE}
+     */
+    public static int evaluate(PumpBlockAccess access, BlockPos basePos, BlockState baseState, boolean isOpposed, AirPumpResolution resolution, int maxPushLength, boolean assembleAirships) {
+        // If the pump needs to extend
+        if (!isOpposed && !baseState.getValue(EXTENDED)) {
+            AirPumpStructureResolver.get().resolve(access, basePos, baseState.getValue(FACING), resolution, maxPushLength);
+            return triggerFor(resolution, assembleAirships);
+        } else if (isOpposed && baseState.getValue(EXTENDED)) {
+            return TRIGGER_CONTRACT;
         }
+        return TRIGGER_NONE;
+    }
+
+    /**
+     * Turns a finished resolution of an unopposed, retracted pump into the trigger it calls for.
+     *
+     * @param resolution       resolution of the structure in front of the pump
+     * @param assembleAirships whether a line too long to push should be launched as an airship
+     * @return TRIGGER_EXTEND, {@link #TRIGGER_ASSEMBLE} or {@link #TRIGGER_NONE}
+     */
+    public static int triggerFor(AirPumpResolution resolution, boolean assembleAirships) {
+        if (resolution.canPush()) return TRIGGER_EXTEND; // the structure resolves
+        return assembleAirships && resolution.isTooLong() ? TRIGGER_ASSEMBLE : TRIGGER_NONE;
+    }
+
+    /**
+     * Determines whether the pump's extension is opposed by a powered piston, reading the block
+     * entity's cache when one is available.
+     *
+     * @param level         spatial and network context
+     * @param basePos       pump base's location
+     * @param pumpDirection direction in which the pump faces
+     * @param baseEntity    pump base's block entity, or null if it has none
+     * @return true if the pump's extension is opposed by a powered piston head, false otherwise
+     */
+    public boolean isOpposed(Level level, BlockPos basePos, Direction pumpDirection, @Nullable AirPumpBaseBlockEntity baseEntity) {
+        return baseEntity != null ? baseEntity.isOpposed(level, pumpDirection) : this.isOpposed(level, basePos);
     }
 
     /**
@@ -222,9 +454,41 @@ public class AirPumpBaseBlock extends BaseEntityBlock {
     public boolean isOpposed(Level level, BlockPos basePos) {
         BlockState baseState = level.getBlockState(basePos);
         Direction pumpDirection = baseState.getValue(FACING);
+        if (level.getBlockEntity(basePos) instanceof AirPumpBaseBlockEntity baseEntity) {
+            return baseEntity.isOpposed(level, pumpDirection);
+        }
+        if (level instanceof ServerLevel serverLevel) {
+            PumpChunkState chunkState = PumpChunkStates.get(serverLevel).at(basePos);
+            if (chunkState != null && chunkState.contains(basePos)) return chunkState.isOpposed(level, basePos, pumpDirection);
+        }
+
         BlockPos potentialPistonPos = basePos.relative(pumpDirection, 2);
-        BlockState potentialPistonState = level.getBlockState(potentialPistonPos);
-        return (potentialPistonState.is(Blocks.PISTON) || potentialPistonState.is(Blocks.STICKY_PISTON)) && isPistonPowered(level, potentialPistonPos) && potentialPistonState.getValue(FACING) == pumpDirection.getOpposite();
+        LevelPumpBlockAccess access = LevelPumpBlockAccess.pinned(level, potentialPistonPos);
+        return isOpposedBy(access, potentialPistonPos, access.getBlockState(potentialPistonPos), pumpDirection);
+    }
+
+    /**
+     * Determines whether the block in a pump's opponent slot is a powered piston facing the pump.
+     *
+     * @param access               world to read signals from
+     * @param potentialPistonPos   location of the opponent slot
+     * @param potentialPistonState BlockState found in the opponent slot
+     * @param pumpDirection        direction in which the pump faces
+     * @return true if the opponent slot holds a powered piston facing the pump, false otherwise
+     */
+    public static boolean isOpposedBy(PumpSignalAccess access, BlockPos potentialPistonPos, BlockState potentialPistonState, Direction pumpDirection) {
+        if (!isPiston(potentialPistonState)) return false;
+
+        Direction pistonFacing = potentialPistonState.getValue(FACING);
+        return pistonFacing == pumpDirection.getOpposite() && PistonPowerLookup.isPowered(access, potentialPistonPos, pistonFacing);
+    }
+
+    /**
+     * @param state BlockState to test
+     * @return true if the state is a regular or sticky piston base
+     */
+    public static boolean isPiston(BlockState state) {
+        return state.is(Blocks.PISTON) || state.is(Blocks.STICKY_PISTON);
     }
 
     /**
@@ -239,122 +503,205 @@ public class AirPumpBaseBlock extends BaseEntityBlock {
      */
     @Override
     public boolean triggerEvent(BlockState baseState, Level level, @NotNull BlockPos basePos, int extensionFlag, int direction) {
+        if (PumpChunkProfiler.active) PumpChunkProfiler.recordMove(level, basePos);
+        if (PumpMetrics.enabled) {
+            long start = System.nanoTime();
+            boolean triggered = this.performTrigger(baseState, level, basePos, extensionFlag, direction);
+            if (triggered) PumpMetrics.count(level, basePos, extensionFlag == TRIGGER_CONTRACT ? PumpCounter.CONTRACTS : PumpCounter.EXTENDS, 1);
+            PumpMetrics.time(level, basePos, PumpHook.TRIGGER_EVENT, start);
+            return triggered;
+        }
+        return this.performTrigger(baseState, level, basePos, extensionFlag, direction);
+    }
+
+    /**
+     * Extends or contracts the pump.
+     *
+     * @param baseState     pump base's BlockState
+     * @param level         spatial and network context
+     * @param basePos       pump base's location
+     * @param extensionFlag TRIGGER_EXTEND, TRIGGER_CONTRACT or {@link #TRIGGER_ASSEMBLE}
+     * @param direction     3D data value of the direction the pump faces
+     * @return true if the pump moved, false otherwise
+     */
+    private boolean performTrigger(BlockState baseState, Level level, BlockPos basePos, int extensionFlag, int direction) {
         Direction pumpDirection = baseState.getValue(FACING);
 
         // pump is not opposed by a powered piston
-        if (extensionFlag == TRIGGER_EXTEND) {
+        if (extensionFlag != TRIGGER_CONTRACT) {
             // trigger no event if pump is already extending
             if (net.minecraftforge.event.ForgeEventFactory.onPistonMovePre(level, basePos, pumpDirection, true)) {
                 return false;
             }
+            // launch the line in front of the pump so the pump has room to extend; clients just extend
+            if (extensionFlag == TRIGGER_ASSEMBLE && level instanceof ServerLevel serverLevel
+                    && !AirshipAssembler.get(serverLevel).tryAssemble(basePos, pumpDirection)) {
+                return false;
+            }
             // trigger no event if pump cannot push the blocks in front of it
-            if (!this.moveBlock(level, basePos, pumpDirection)) {
+            if (!this.moveBlock(level, basePos, pumpDirection, level.getBlockEntity(basePos) instanceof AirPumpBaseBlockEntity entity ? entity : null)) {
                 return false;
             }
 
-            level.setBlock(basePos, baseState.setValue(EXTENDED, true), 67);//replace the base with an extended version of itself
-            level.playSound(null, basePos, SoundEvents.PISTON_EXTEND, SoundSource.BLOCKS, 0.5F, level.random.nextFloat() * 0.25F + 0.6F);
+            if (isPreciseNotification(level)) {
+                PumpLightBatcher.setBlock(level, basePos, baseState.setValue(EXTENDED, true), 67 & ~Block.UPDATE_NEIGHBORS);
+                countNotifications(level, basePos, PumpNeighborNotifier.notifyStroke(level, basePos, pumpDirection, 0, 0, 2));
+            } else {
+                PumpLightBatcher.setBlock(level, basePos, baseState.setValue(EXTENDED, true), 67);//replace the base with an extended version of itself
+                countNotifications(level, basePos, NOTIFICATIONS_PER_UPDATE);
+            }
+            playSound(level, basePos, SoundEvents.PISTON_EXTEND, level.random.nextFloat() * 0.25F + 0.6F);
             level.gameEvent(null, GameEvent.PISTON_EXTEND, basePos);
         } else {
             // pump is contracting
             if (net.minecraftforge.event.ForgeEventFactory.onPistonMovePre(level, basePos, pumpDirection, false))
                 return false;//trigger no event if piston is already contracting
             BlockEntity headEntity = level.getBlockEntity(basePos.relative(pumpDirection));
-            // if the block entity at the head's position is a PistonMovingBlockEntity,
+            // finish the head's extension first if it is still moving
             if (headEntity instanceof PistonMovingBlockEntity) ((PistonMovingBlockEntity) headEntity).finalTick();
+            else if (headEntity instanceof AirPumpMovingBlockEntity movingHead) movingHead.finish();
+
+            BlockState retractedState = this.defaultBlockState().setValue(FACING, Direction.from3DDataValue(direction & 7));
+            BlockState blockstate = placeMovingHead(level, basePos, retractedState, pumpDirection, false, 20);
+            BlockPos headPos = basePos.relative(pumpDirection);
+            if (isPreciseNotification(level)) {
+                blockstate.updateNeighbourShapes(level, basePos, 2);
+                PumpLightBatcher.setBlock(level, headPos, level.getFluidState(headPos).createLegacyBlock(), Block.UPDATE_CLIENTS);
+                countNotifications(level, basePos, PumpNeighborNotifier.notifyStroke(level, basePos, pumpDirection, 0, 1, 2));
+            } else {
+                level.blockUpdated(basePos, blockstate.getBlock());// tell the level that a moving piston got updated at the position of the piston's base
+                blockstate.updateNeighbourShapes(level, basePos, 2);
+                PumpLightBatcher.setBlock(level, headPos, level.getFluidState(headPos).createLegacyBlock(), Block.UPDATE_ALL);// remove the piston head
+                countNotifications(level, basePos, 2 * NOTIFICATIONS_PER_UPDATE);
+            }
 
-            BlockState blockstate = Blocks.MOVING_PISTON.defaultBlockState().setValue(MovingPistonBlock.FACING, pumpDirection).setValue(MovingPistonBlock.TYPE, PistonType.DEFAULT);
-            level.setBlock(basePos, blockstate, 20);
-            level.setBlockEntity(MovingPistonBlock.newMovingBlockEntity(basePos, blockstate, this.defaultBlockState().setValue
-                    (FACING, Direction.from3DDataValue(direction & 7)), pumpDirection, false, true));
-            level.blockUpdated(basePos, blockstate.getBlock());// tell the level that a moving piston got updated at the position of the piston's base
-            blockstate.updateNeighbourShapes(level, basePos, 2);
-            level.removeBlock(basePos.relative(pumpDirection), false);// remove the piston head
-
-            level.playSound(null, basePos, SoundEvents.PISTON_CONTRACT, SoundSource.BLOCKS, 0.5F, level.random.nextFloat() * 0.15F + 0.6F);
+            playSound(level, basePos, SoundEvents.PISTON_CONTRACT, level.random.nextFloat() * 0.15F + 0.6F);
             level.gameEvent(null, GameEvent.PISTON_CONTRACT, basePos);
         }
 
-        net.minecraftforge.event.ForgeEventFactory.onPistonMovePost(level, basePos, pumpDirection, (extensionFlag == TRIGGER_EXTEND));
+        net.minecraftforge.event.ForgeEventFactory.onPistonMovePost(level, basePos, pumpDirection, (extensionFlag != TRIGGER_CONTRACT));
         return true;
     }
 
     /**
-     * Checks whether the block in front of the pump base is pushable.
+     * @param level spatial context
+     * @return true if pump strokes in this level notify their neighbours through {@link PumpNeighborNotifier}
+     */
+    private static boolean isPreciseNotification(Level level) {
+        return !level.isClientSide && AircraftModCommonConfigs.PRECISE_NEIGHBOR_UPDATES.get();
+    }
+
+    /**
+     * Records the neighbour notifications a stroke sent, if metrics are enabled.
+     *
+     * @param level         spatial context
+     * @param basePos       pump base's location
+     * @param notifications number of notifications sent
+     */
+    private static void countNotifications(Level level, BlockPos basePos, int notifications) {
+        if (PumpMetrics.enabled) PumpMetrics.count(level, basePos, PumpCounter.NEIGHBOR_NOTIFICATIONS, notifications);
+    }
+
+    /**
+     * Plays a pump sound for everyone nearby. On the server, the sound is merged with the same sound
+     * from nearby pumps by the {@link PumpSoundCoalescer}.
+     *
+     * @param level   spatial and network context
+     * @param basePos pump base's location
+     * @param sound   sound to play
+     * @param pitch   pitch of the sound
+     */
+    private static void playSound(Level level, BlockPos basePos, SoundEvent sound, float pitch) {
+        if (level instanceof ServerLevel serverLevel) {
+            PumpSoundCoalescer.get(serverLevel).play(basePos, sound, SoundSource.BLOCKS, 0.5F, pitch);
+        } else {
+            level.playSound(null, basePos, sound, SoundSource.BLOCKS, 0.5F, pitch);
+        }
+    }
+
+    /**
+     * Checks whether the block in front of the pump base is pushable. Everything that only depends
+     * on the BlockState is looked up in {@link PumpPushability}; only the build height and world
+     * border are checked here.
      *
      * @param pushCandidateState push candidate's BlockState
-     * @param level              spatial and network context
+     * @param level              world the candidate is read from
      * @param pushCandidatePos   push candidate's location
      * @param pushDirection      direction in which the pump will attempt to push
      * @param isCanDestroy       decides whether blocks that are destroyed by motion should be considered pushable
      * @return true if block in front of pump should not be pushed, false if it should be pushed
      */
-    public static boolean isNotPushable(BlockState pushCandidateState, Level level, BlockPos pushCandidatePos, Direction pushDirection, boolean isCanDestroy) {
-        if (pushCandidatePos.getY() >= level.getMinBuildHeight() && pushCandidatePos.getY() < level.getMaxBuildHeight() && level.getWorldBorder().isWithinBounds(pushCandidatePos)) {
-            if (pushCandidateState.isAir()) {
-                return false;
-            } else if (!pushCandidateState.is(Blocks.OBSIDIAN) && !pushCandidateState.is(Blocks.CRYING_OBSIDIAN) && !pushCandidateState.is(Blocks.RESPAWN_ANCHOR) && !pushCandidateState.is(Blocks.REINFORCED_DEEPSLATE)) {
-                if (pushDirection == Direction.DOWN && pushCandidatePos.getY() == level.getMinBuildHeight()) {
-                    return true;
-                } else if (pushDirection == Direction.UP && pushCandidatePos.getY() == level.getMaxBuildHeight() - 1) {
-                    return true;
-                } else {
-                    if (!pushCandidateState.is(Blocks.PISTON) && !pushCandidateState.is(Blocks.STICKY_PISTON)) {
-                        if (pushCandidateState.getDestroySpeed(level, pushCandidatePos) == -1.0F) {
-                            return true;
-                        }
-
-                        switch (pushCandidateState.getPistonPushReaction()) {
-                            case BLOCK -> {
-                                return true;
-                            }
-                            case DESTROY -> {
-                                return !isCanDestroy;
-                            }
-                            case PUSH_ONLY -> {
-                                return false;
-                            }
-                        }
-                    } else if (pushCandidateState.getValue(EXTENDED)) {
-                        return true;
-                    }
-
-                    return pushCandidateState.hasBlockEntity();
-                }
-            } else {
-                return true;
-            }
-        } else {
+    public static boolean isNotPushable(BlockState pushCandidateState, PumpBlockAccess level, BlockPos pushCandidatePos, Direction pushDirection, boolean isCanDestroy) {
+        int y = pushCandidatePos.getY();
+        if (y < level.getMinBuildHeight() || y >= level.getMaxBuildHeight() || !level.isWithinWorldBorder(pushCandidatePos)) {
+            return true;
+        }
+
+        byte pushability = PumpPushability.get(pushCandidateState);
+        if (pushability == PumpPushability.AIR) {
+            return false;
+        } else if (pushability == PumpPushability.IMMOVABLE) {
             return true;
+        } else if (pushDirection == Direction.DOWN && y == level.getMinBuildHeight() || pushDirection == Direction.UP && y == level.getMaxBuildHeight() - 1) {
+            return true; // would be pushed out of the world
+        }
+        return pushability == PumpPushability.DESTROY && !isCanDestroy;
+    }
+
+    /**
+     * Pushes the line of blocks in front of the pump head if it can. The resolution computed by
+     * {@link #checkIfExtend} is reused when it is still valid, otherwise the structure is resolved again.
+     *
+     * @param level         spatial and network context
+     * @param basePos       pump base's location
+     * @param pumpDirection direction in which the pump faces
+     * @param baseEntity    pump base's block entity, or null if it has none
+     * @return true if the blocks were pushed, false otherwise
+     */
+    private boolean moveBlock(Level level, BlockPos basePos, Direction pumpDirection, @Nullable AirPumpBaseBlockEntity baseEntity) {
+        if (PumpMetrics.enabled) {
+            long start = System.nanoTime();
+            int resolvesBefore = AirPumpStructureResolver.get().getResolveCount();
+            int destroyed = this.pushBlocks(level, basePos, pumpDirection, baseEntity);
+            PumpMetrics.count(level, basePos, PumpCounter.RESOLVER_CALLS, AirPumpStructureResolver.get().getResolveCount() - resolvesBefore);
+            if (destroyed > 0) PumpMetrics.count(level, basePos, PumpCounter.DESTROYED_BLOCKS, destroyed);
+            PumpMetrics.time(level, basePos, PumpHook.MOVE_BLOCK, start);
+            return destroyed >= 0;
         }
+        return this.pushBlocks(level, basePos, pumpDirection, baseEntity) >= 0;
     }
 
     /**
-     * Pushes the block in front of the pump head if it can.
+     * Does the work of {@link #moveBlock}.
      *
      * @param level         spatial and network context
      * @param basePos       pump base's location
      * @param pumpDirection direction in which the pump faces
-     * @return true if the block was pushed, false otherwise
+     * @param baseEntity    pump base's block entity, or null if it has none
+     * @return number of blocks destroyed if the blocks were pushed, -1 otherwise
      */
-    private boolean moveBlock(Level level, BlockPos basePos, Direction pumpDirection) {
+    private int pushBlocks(Level level, BlockPos basePos, Direction pumpDirection, @Nullable AirPumpBaseBlockEntity baseEntity) {
         BlockPos headPos = basePos.relative(pumpDirection);
 
-        AirPumpStructureResolver airPumpStructureResolver = new AirPumpStructureResolver(level, basePos, pumpDirection);
-        if (!airPumpStructureResolver.isCanPush()) {
-            return false;
+        AirPumpResolution resolution = baseEntity != null ? baseEntity.getResolution() : AirPumpStructureResolver.get().getScratchResolution();
+        if (!resolution.isValid(LevelPumpBlockAccess.pinned(level, basePos), basePos, pumpDirection) && !AirPumpStructureResolver.get().resolve(level, basePos, pumpDirection, resolution)) {
+            // The line changed since the pump was evaluated and now blocks it
+            watchLine(level, basePos, resolution);
+            return -1;
         } else {
-            List<BlockPos> locationsToDestroy = airPumpStructureResolver.getToDestroy();
+            // The blocks are about to change, so this resolution must not be applied twice
+            resolution.invalidate();
 
-            for (int i = locationsToDestroy.size() - 1; i >= 0; --i) {
-                BlockPos locationToDestroy = locationsToDestroy.get(i);
+            for (int i = resolution.getToDestroyCount() - 1; i >= 0; --i) {
+                BlockPos locationToDestroy = BlockPos.of(resolution.getToDestroy(i));
                 BlockState blockStateToDestroy = level.getBlockState(locationToDestroy);
                 BlockEntity blockEntityToDestroy = blockStateToDestroy.hasBlockEntity() ? level.getBlockEntity(locationToDestroy) : null;
 
                 dropResources(blockStateToDestroy, level, locationToDestroy, blockEntityToDestroy);
-                level.setBlock(locationToDestroy, Blocks.AIR.defaultBlockState(), 18);
+                PumpLightBatcher.setBlock(level, locationToDestroy, Blocks.AIR.defaultBlockState(), 18);
                 level.gameEvent(GameEvent.BLOCK_DESTROY, locationToDestroy, GameEvent.Context.of(blockStateToDestroy));
-                if (!blockStateToDestroy.is(BlockTags.FIRE)) {
+                // Only the client shows destroy effects, so only the client caps them
+                if (!blockStateToDestroy.is(BlockTags.FIRE) && (!level.isClientSide || DestroyEffectLimiter.tryAdd(level, locationToDestroy))) {
                     level.addDestroyBlockEffect(locationToDestroy, blockStateToDestroy);
                 }
             }
@@ -363,13 +710,60 @@ public class AirPumpBaseBlock extends BaseEntityBlock {
             BlockState pumpHeadState = AIR_PUMP_HEAD.get().defaultBlockState().setValue(AirPumpHeadBlock.FACING, pumpDirection).setValue(AirPumpHeadBlock.TYPE, pistonType);
             BlockState movingPistonBlockState = Blocks.MOVING_PISTON.defaultBlockState().setValue(MovingPistonBlock.FACING, pumpDirection).setValue(MovingPistonBlock.TYPE, PistonType.DEFAULT);
 
-            level.setBlock(headPos, movingPistonBlockState, 68);
-            level.setBlockEntity(MovingPistonBlock.newMovingBlockEntity(headPos, movingPistonBlockState, pumpHeadState, pumpDirection, true, true));
+            // Move the pushed line one step forward, starting with the block farthest from the pump
+            int pushCount = resolution.getToPushCount();
+            for (int i = pushCount - 1; i >= 0; --i) {
+                BlockPos destination = BlockPos.of(resolution.getToPush(i)).relative(pumpDirection);
+                PumpLightBatcher.setBlock(level, destination, movingPistonBlockState, 68);
+                level.setBlockEntity(MovingPistonBlock.newMovingBlockEntity(destination, movingPistonBlockState, resolution.getToPushState(i), pumpDirection, true, false));
+            }
 
-            level.updateNeighborsAt(headPos, AIR_PUMP_HEAD.get());
+            placeMovingHead(level, headPos, pumpHeadState, pumpDirection, true, 68);
 
-            return true;
+            // Neighbour updates can re-enter checkIfExtend and refill the resolution, so only use
+            // positions derived from the head from here on. The pushed line starts at the head.
+            int destroyed = resolution.getToDestroyCount();
+            if (isPreciseNotification(level)) {
+                // The stroke's span runs from the base through the head to the pushed line's last
+                // destination; the head and every destination after it are sources
+                countNotifications(level, basePos, PumpNeighborNotifier.notifyStroke(level, basePos, pumpDirection, 1, pushCount + 1, pushCount + 2));
+            } else {
+                // Every pushed block's destination, like vanilla pistons, then the head
+                for (int i = pushCount; i > 0; --i) {
+                    level.updateNeighborsAt(headPos.relative(pumpDirection, i), Blocks.MOVING_PISTON);
+                }
+                level.updateNeighborsAt(headPos, AIR_PUMP_HEAD.get());
+                countNotifications(level, basePos, (pushCount + 1) * NOTIFICATIONS_PER_UPDATE);
+            }
+
+            return destroyed;
+        }
+    }
+
+    /**
+     * Places the block that animates the pump head, either an {@link AirPumpMovingBlockEntity} or a
+     * vanilla moving piston depending on the config.
+     *
+     * @param level         spatial and network context
+     * @param pos           location of the moving block: the head's destination when extending, the base when contracting
+     * @param movedState    state placed once the move is over
+     * @param pumpDirection direction in which the pump faces
+     * @param extending     true if the head is moving out of the base
+     * @param flags         block update flags to place the moving block with
+     * @return BlockState of the moving block
+     */
+    private static BlockState placeMovingHead(Level level, BlockPos pos, BlockState movedState, Direction pumpDirection, boolean extending, int flags) {
+        if (AircraftModCommonConfigs.LIGHTWEIGHT_MOVING_HEADS.get()) {
+            BlockState movingState = AIR_PUMP_MOVING_HEAD.get().defaultBlockState().setValue(AirPumpMovingHeadBlock.FACING, pumpDirection);
+            PumpLightBatcher.setBlock(level, pos, movingState, flags);
+            level.setBlockEntity(new AirPumpMovingBlockEntity(pos, movingState, movedState, pumpDirection, extending));
+            return movingState;
         }
+
+        BlockState movingState = Blocks.MOVING_PISTON.defaultBlockState().setValue(MovingPistonBlock.FACING, pumpDirection).setValue(MovingPistonBlock.TYPE, PistonType.DEFAULT);
+        PumpLightBatcher.setBlock(level, pos, movingState, flags);
+        level.setBlockEntity(MovingPistonBlock.newMovingBlockEntity(pos, movingState, movedState, pumpDirection, extending, true));
+        return movingState;
     }
 
     public @NotNull BlockState rotate(BlockState p_60215_, Rotation p_60216_) {
@@ -410,12 +804,24 @@ public class AirPumpBaseBlock extends BaseEntityBlock {
     @Nullable
     @Override
     public BlockEntity newBlockEntity(@NotNull BlockPos pos, @NotNull BlockState state) {
+        // Pumps keep their state in their chunk instead, see onPlace
+        if (AircraftModCommonConfigs.PUMP_STATE_STORAGE.get() == PumpStateStorage.CHUNK) return null;
         return new AirPumpBaseBlockEntity(pos, state);
     }
 
+    /**
+     * Pumps are only ticked every tick when event-driven pumps are disabled. Otherwise they stay
+     * dormant and are woken by {@link net.aiden.aircraftmod.block.pump.AirPumpWakeTracker}.
+     *
+     * @param level spatial and network context
+     * @param state pump base's BlockState
+     * @param type  type of the block entity being ticked
+     * @return the polling ticker, or null if the pump should not tick
+     */
     @Nullable
     @Override
     public <T extends BlockEntity> BlockEntityTicker<T> getTicker(@NotNull Level level, @NotNull BlockState state, @NotNull BlockEntityType<T> type) {
+        if (level.isClientSide || AircraftModCommonConfigs.EVENT_DRIVEN_PUMPS.get()) return null;
         return createTickerHelper(type, ModBlockEntities.AIR_PUMP_BASE.get(), AirPumpBaseBlockEntity::tick);
     }
 }
@@ -2,6 +2,11 @@ package net.aiden.aircraftmod.block.custom;
 
 import java.util.Arrays;
 
+import net.aiden.aircraftmod.block.pump.AirPumpWakeTracker;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.metrics.PumpCounter;
+import net.aiden.aircraftmod.metrics.PumpHook;
+import net.aiden.aircraftmod.metrics.PumpMetrics;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.entity.player.Player;
@@ -21,6 +26,7 @@ import net.minecraft.world.phys.shapes.Shapes;
 import net.minecraft.world.phys.shapes.VoxelShape;
 
 import static net.aiden.aircraftmod.block.ModBlocks.AIR_PUMP_BASE;
+import static net.aiden.aircraftmod.block.ModBlocks.AIR_PUMP_MOVING_HEAD;
 
 public class AirPumpHeadBlock extends DirectionalBlock {
     public static final DirectionProperty FACING = BlockStateProperties.FACING;
@@ -111,14 +117,44 @@ public class AirPumpHeadBlock extends DirectionalBlock {
     public boolean canSurvive(BlockState headState, LevelReader levelReader, BlockPos headPos) {
         BlockState baseState = levelReader.getBlockState(headPos.relative(headState.getValue(FACING).getOpposite()));
         boolean isFittingBase = this.isFittingBase(headState, baseState);
-        return  isFittingBase || baseState.is(Blocks.MOVING_PISTON) && baseState.getValue(FACING) == headState.getValue(FACING);
+        boolean isRetractingBase = baseState.is(Blocks.MOVING_PISTON) || baseState.is(AIR_PUMP_MOVING_HEAD.get());
+        return  isFittingBase || isRetractingBase && baseState.getValue(FACING) == headState.getValue(FACING);
     }
 
     public void neighborChanged(BlockState headState, Level level, BlockPos headPos, Block headType, BlockPos p_60279_, boolean p_60280_) {
-        if (headState.canSurvive(level, headPos)) {
-            level.neighborChanged(headPos.relative(headState.getValue(FACING).getOpposite()), headType, p_60279_);
+        if (PumpMetrics.enabled) {
+            long start = System.nanoTime();
+            this.forwardToBase(headState, level, headPos, headType, p_60279_);
+            PumpMetrics.time(level, headPos, PumpHook.HEAD_NEIGHBOR_CHANGED, start);
+        } else {
+            this.forwardToBase(headState, level, headPos, headType, p_60279_);
         }
+    }
+
+    private void forwardToBase(BlockState headState, Level level, BlockPos headPos, Block headType, BlockPos neighborPos) {
+        if (headState.canSurvive(level, headPos) && this.shouldForward(headState, level, headPos, neighborPos)) {
+            level.neighborChanged(headPos.relative(headState.getValue(FACING).getOpposite()), headType, neighborPos);
+            if (PumpMetrics.enabled) PumpMetrics.count(level, headPos, PumpCounter.NEIGHBOR_NOTIFICATIONS, 1);
+        }
+    }
 
+    /**
+     * Decides whether the base needs to hear of a change next to its head. With
+     * {@code pumps.preciseNeighborUpdates} on, event-driven pumps hear nothing from their head, since
+     * the {@link AirPumpWakeTracker} already wakes them for every change that could oppose them.
+     * Polled pumps still hear every change around the head except the echo of their own stroke,
+     * which reaches the head from the base behind it.
+     *
+     * @param headState   pump head's BlockState
+     * @param level       spatial context
+     * @param headPos     pump head's location
+     * @param neighborPos location of the block that changed
+     * @return true if the change should be passed on to the base
+     */
+    private boolean shouldForward(BlockState headState, Level level, BlockPos headPos, BlockPos neighborPos) {
+        if (level.isClientSide || !AircraftModCommonConfigs.PRECISE_NEIGHBOR_UPDATES.get()) return true;
+        if (AircraftModCommonConfigs.EVENT_DRIVEN_PUMPS.get()) return false;
+        return !neighborPos.equals(headPos.relative(headState.getValue(FACING).getOpposite()));
     }
 
     public ItemStack getCloneItemStack(BlockGetter p_60261_, BlockPos p_60262_, BlockState p_60263_) {
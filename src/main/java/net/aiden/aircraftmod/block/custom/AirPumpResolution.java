@@ -0,0 +1,263 @@
+package net.aiden.aircraftmod.block.custom;
+
+import net.aiden.aircraftmod.block.pump.PumpBlockAccess;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of resolving the structure in front of an air pump. Positions are stored as packed
+ * longs in arrays that are reused between resolutions, so filling one allocates nothing once the
+ * arrays have grown to fit.
+ * <p>
+ * A resolution remembers every BlockState it looked at, so one computed in
+ * {@link AirPumpBaseBlock#checkIfExtend} can be reused by the block event it queues, as long as the
+ * event runs no later than the following tick and none of those states have changed.
+ *
+ * @author Aiden Black
+ */
+public class AirPumpResolution {
+    private static final int INITIAL_CAPACITY = 4;
+    /**
+     * number of ticks a resolution may be reused after the tick it was computed in
+     */
+    private static final long MAX_AGE = 1;
+
+    private long gameTime;
+    private long basePos;
+    private Direction pushDirection = Direction.NORTH;
+    private boolean canPush;
+    /** whether the resolution may still be applied by {@link #isValid} */
+    private boolean reusable;
+    /** whether the pump could not push because the line was longer than it may push */
+    private boolean tooLong;
+
+    private long[] examinedPositions = new long[INITIAL_CAPACITY];
+    private BlockState[] examinedStates = new BlockState[INITIAL_CAPACITY];
+    private int examinedCount;
+
+    private long[] toDestroy = new long[INITIAL_CAPACITY];
+    private int toDestroyCount;
+
+    private long[] toPush = new long[INITIAL_CAPACITY];
+    private BlockState[] toPushStates = new BlockState[INITIAL_CAPACITY];
+    private int toPushCount;
+
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+    /**
+     * Clears the resolution before the resolver fills it.
+     *
+     * @param gameTime      game time of the level being resolved
+     * @param basePos       pump base's location
+     * @param pushDirection direction in which the pump will attempt to push
+     */
+    void begin(long gameTime, BlockPos basePos, Direction pushDirection) {
+        this.gameTime = gameTime;
+        this.basePos = basePos.asLong();
+        this.pushDirection = pushDirection;
+        this.canPush = false;
+        this.reusable = false;
+        this.tooLong = false;
+        Arrays.fill(examinedStates, 0, examinedCount, null);
+        Arrays.fill(toPushStates, 0, toPushCount, null);
+        this.examinedCount = 0;
+        this.toDestroyCount = 0;
+        this.toPushCount = 0;
+    }
+
+    /**
+     * Grows the arrays up front so that a walk over a line of the given length never has to.
+     *
+     * @param maxPushLength largest number of blocks the resolver may push
+     */
+    void ensureCapacity(int maxPushLength) {
+        int capacity = maxPushLength + 1;
+        if (examinedPositions.length < capacity) {
+            examinedPositions = Arrays.copyOf(examinedPositions, capacity);
+            examinedStates = Arrays.copyOf(examinedStates, capacity);
+        }
+        if (toPush.length < maxPushLength) {
+            toPush = Arrays.copyOf(toPush, maxPushLength);
+            toPushStates = Arrays.copyOf(toPushStates, maxPushLength);
+        }
+    }
+
+    /**
+     * Records a state the resolver based its decision on.
+     *
+     * @param pos   packed location of the examined block
+     * @param state examined BlockState
+     */
+    void examine(long pos, BlockState state) {
+        if (examinedCount == examinedPositions.length) {
+            examinedPositions = Arrays.copyOf(examinedPositions, examinedCount * 2);
+            examinedStates = Arrays.copyOf(examinedStates, examinedCount * 2);
+        }
+        examinedPositions[examinedCount] = pos;
+        examinedStates[examinedCount++] = state;
+    }
+
+    /**
+     * Records a block that will be destroyed when the pump extends.
+     *
+     * @param pos packed location of the block
+     */
+    void destroy(long pos) {
+        if (toDestroyCount == toDestroy.length) toDestroy = Arrays.copyOf(toDestroy, toDestroyCount * 2);
+        toDestroy[toDestroyCount++] = pos;
+    }
+
+    /**
+     * Records a block that will be moved one step in the push direction when the pump extends.
+     *
+     * @param pos   packed location of the block
+     * @param state BlockState of the block
+     */
+    void push(long pos, BlockState state) {
+        if (toPushCount == toPush.length) {
+            toPush = Arrays.copyOf(toPush, toPushCount * 2);
+            toPushStates = Arrays.copyOf(toPushStates, toPushCount * 2);
+        }
+        toPush[toPushCount] = pos;
+        toPushStates[toPushCount++] = state;
+    }
+
+    /**
+     * Records that the line in front of the pump is longer than the pump may push.
+     */
+    void markTooLong() {
+        this.tooLong = true;
+    }
+
+    /**
+     * Marks the resolution as complete.
+     *
+     * @param canPush whether the pump can push the structure in front of it
+     * @return canPush, for convenience
+     */
+    boolean finish(boolean canPush) {
+        this.canPush = canPush;
+        this.reusable = canPush;
+        return canPush;
+    }
+
+    /**
+     * Checks whether this resolution still describes the structure in front of a pump. It only stays
+     * valid until the end of the tick after the one it was computed in, since pumps evaluated at the
+     * end of a tick run their block events in the next one, and only while every examined block is unchanged.
+     *
+     * @param level         world to read from
+     * @param basePos       pump base's location
+     * @param pushDirection direction in which the pump will attempt to push
+     * @return true if the pump can push and the resolution can be applied as-is, false otherwise
+     */
+    public boolean isValid(PumpBlockAccess level, BlockPos basePos, Direction pushDirection) {
+        return reusable && isCurrent(level, basePos, pushDirection);
+    }
+
+    /**
+     * Checks whether the world still looks the way it did when this resolution was computed, whatever
+     * the outcome was. Only the examined positions are read, so this is much cheaper than resolving
+     * again.
+     *
+     * @param level         world to read from
+     * @param basePos       pump base's location
+     * @param pushDirection direction in which the pump will attempt to push
+     * @return true if resolving again would give the same outcome, false otherwise
+     */
+    public boolean isCurrent(PumpBlockAccess level, BlockPos basePos, Direction pushDirection) {
+        long age = level.getGameTime() - gameTime;
+        if (age < 0 || age > MAX_AGE || this.basePos != basePos.asLong() || this.pushDirection != pushDirection) {
+            return false;
+        }
+
+        for (int i = 0; i < examinedCount; i++) {
+            if (level.getBlockState(cursor.set(examinedPositions[i])) != examinedStates[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Prevents this resolution from being reused.
+     */
+    public void invalidate() {
+        reusable = false;
+    }
+
+    /**
+     * @return true if the pump can push the structure in front of it
+     */
+    public boolean canPush() {
+        return canPush;
+    }
+
+    /**
+     * @return true if the pump could not push only because the line in front of it was too long
+     */
+    public boolean isTooLong() {
+        return tooLong;
+    }
+
+    /**
+     * @return number of blocks that will be destroyed when the pump extends
+     */
+    public int getToDestroyCount() {
+        return toDestroyCount;
+    }
+
+    /**
+     * @param index index of the block, in the order the resolver found them
+     * @return packed location of a block that will be destroyed when the pump extends
+     */
+    public long getToDestroy(int index) {
+        return toDestroy[index];
+    }
+
+    /**
+     * @return number of blocks that will be pushed when the pump extends
+     */
+    public int getToPushCount() {
+        return toPushCount;
+    }
+
+    /**
+     * @param index index of the block, counting away from the pump head
+     * @return packed location of a block that will be pushed when the pump extends
+     */
+    public long getToPush(int index) {
+        return toPush[index];
+    }
+
+    /**
+     * @param index index of the block, counting away from the pump head
+     * @return BlockState of a block that will be pushed when the pump extends
+     */
+    public BlockState getToPushState(int index) {
+        return toPushStates[index];
+    }
+
+    /**
+     * @param index index of the position, in the order the resolver looked at them
+     * @return packed location of a position the resolver looked at
+     */
+    public long getExaminedPosition(int index) {
+        return examinedPositions[index];
+    }
+
+    /**
+     * @return direction in which the pump attempted to push
+     */
+    public Direction getPushDirection() {
+        return pushDirection;
+    }
+
+    /**
+     * @return number of positions the resolver had to look at
+     */
+    public int getExaminedCount() {
+        return examinedCount;
+    }
+}
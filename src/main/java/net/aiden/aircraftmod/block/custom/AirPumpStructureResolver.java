@@ -1,76 +1,173 @@
 package net.aiden.aircraftmod.block.custom;
 
-import com.google.common.collect.Lists;
-import java.util.List;
+import net.aiden.aircraftmod.block.pump.LevelPumpBlockAccess;
+import net.aiden.aircraftmod.block.pump.PumpBlockAccess;
+import net.aiden.aircraftmod.block.pump.PumpPushability;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.util.Mth;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.piston.PistonBaseBlock;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.material.PushReaction;
 
+/**
+ * Works out what happens to the blocks in front of an air pump when it extends. Like a vanilla
+ * piston, a pump pushes the straight line of blocks in front of its head, up to a configurable length.
+ * <p>
+ * A resolver holds no per-pump state: each call to {@link #resolve} writes its outcome into an
+ * {@link AirPumpResolution}, and the resolver itself only keeps a mutable cursor. Use {@link #get()}
+ * to borrow the resolver belonging to the current thread instead of constructing a new one.
+ *
+ * @author Aiden Black
+ */
 public class AirPumpStructureResolver {
-    /** spatial and network context of the air pump */
-    private final Level level;
-    private final BlockPos headPos;
-    private final BlockPos basePos;
-    private final Direction pushDirection;
-    private final List<BlockPos> toDestroy = Lists.newArrayList();
-
-    public AirPumpStructureResolver(Level level, BlockPos basePos, Direction pushDirection) {
+    /**
+     * most blocks any pump may push, whatever the configuration says
+     */
+    public static final int HARD_PUSH_LIMIT = 1024;
+
+    private static final ThreadLocal<AirPumpStructureResolver> RESOLVERS = ThreadLocal.withInitial(AirPumpStructureResolver::new);
+
+    /** world the air pump is being resolved in */
+    private PumpBlockAccess level;
+    private Direction pushDirection;
+    private AirPumpResolution resolution;
+    private int maxPushLength;
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    /** used when the caller has nowhere to keep the resolution */
+    private final AirPumpResolution scratchResolution = new AirPumpResolution();
+    /** number of structures resolved on this thread, wrapping on overflow */
+    private int resolveCount;
+
+    private AirPumpStructureResolver() {
+    }
+
+    /**
+     * @return the resolver belonging to the current thread
+     */
+    public static AirPumpStructureResolver get() {
+        return RESOLVERS.get();
+    }
+
+    /**
+     * Resolves the structure in front of a pump into the resolver's own scratch resolution, which is
+     * overwritten by the next call on this thread.
+     *
+     * @param level         spatial and network context
+     * @param basePos       pump base's location
+     * @param pushDirection direction in which the pump will attempt to push
+     * @return true if the pump can push the blocks in front of its base, false otherwise
+     */
+    public boolean resolve(Level level, BlockPos basePos, Direction pushDirection) {
+        return resolve(level, basePos, pushDirection, scratchResolution);
+    }
+
+    /**
+     * Checks whether the pump can push the blocks in front of its base, using the configured push limit.
+     *
+     * @param level         spatial and network context
+     * @param basePos       pump base's location
+     * @param pushDirection direction in which the pump will attempt to push
+     * @param into          resolution to fill with the outcome
+     * @return true if the pump can push the blocks in front of its base, false otherwise
+     */
+    public boolean resolve(Level level, BlockPos basePos, Direction pushDirection, AirPumpResolution into) {
+        return resolve(LevelPumpBlockAccess.pinned(level, basePos), basePos, pushDirection, into, AircraftModCommonConfigs.MAX_PUSH_LENGTH.get());
+    }
+
+    /**
+     * Checks whether the pump can push the line of blocks in front of its base.
+     * Also records the blocks that will be moved or destroyed as a consequence.
+     * <p>
+     * The walk looks at no more than maxPushLength + 1 positions and stops at the first air block,
+     * immovable block or block that breaks when pushed.
+     *
+     * @param level         world to read from
+     * @param basePos       pump base's location
+     * @param pushDirection direction in which the pump will attempt to push
+     * @param into          resolution to fill with the outcome
+     * @param maxPushLength largest number of blocks the pump may push, capped at {@value #HARD_PUSH_LIMIT}
+     * @return true if the pump can push the blocks in front of its base, false otherwise
+     */
+    public boolean resolve(PumpBlockAccess level, BlockPos basePos, Direction pushDirection, AirPumpResolution into, int maxPushLength) {
         this.level = level;
-        this.basePos = basePos;
         this.pushDirection = pushDirection;
-        this.headPos = basePos.relative(pushDirection);
+        this.resolution = into;
+        this.maxPushLength = Mth.clamp(maxPushLength, 1, HARD_PUSH_LIMIT);
+        this.cursor.setWithOffset(basePos, pushDirection);
+        this.resolveCount++;
+
+        try {
+            into.begin(level.getGameTime(), basePos, pushDirection);
+            into.ensureCapacity(this.maxPushLength);
+            return into.finish(isCanPush());
+        } finally {
+            this.level = null;
+            this.resolution = null;
+        }
+    }
+
+    /**
+     * @return the scratch resolution filled by {@link #resolve(Level, BlockPos, Direction)}
+     */
+    public AirPumpResolution getScratchResolution() {
+        return scratchResolution;
     }
 
     /**
-     * Checks whether the pump can push the block in front of its base.
-     * Also handles destruction of a block that will be destroyed as a consequence.
+     * Returns how many structures this resolver has resolved. Subtract two readings to count the
+     * resolutions made in between.
      *
-     * @return true if the pump can push the blocks in front of its base, false otherwise
+     * @return number of structures resolved on this thread, wrapping on overflow
      */
-    public boolean isCanPush() {
-        BlockState pushCandidateState = level.getBlockState(headPos);
+    public int getResolveCount() {
+        return resolveCount;
+    }
 
-        // Clear the destroy array
-        toDestroy.clear();
+    private boolean isCanPush() {
+        BlockState pushCandidateState = level.getBlockState(cursor);
+        resolution.examine(cursor.asLong(), pushCandidateState);
 
         // Check if the block in front of the pump base will be destroyed by motion
-        if (AirPumpBaseBlock.isNotPushable(pushCandidateState, level, headPos, pushDirection, false)) {
-            if (pushCandidateState.getPistonPushReaction() == PushReaction.DESTROY) {
-                toDestroy.add(headPos); // If so, add it to the list for destruction
+        if (AirPumpBaseBlock.isNotPushable(pushCandidateState, level, cursor, pushDirection, false)) {
+            if (PumpPushability.get(pushCandidateState) == PumpPushability.DESTROY) {
+                resolution.destroy(cursor.asLong()); // If so, add it to the list for destruction
                 return true; // The structure resolves
             } else {
                 return false;
             }
-        } else return addBlockLine(headPos, pushDirection);
+        } else if (pushCandidateState.isAir()) {
+            return true; // Nothing in front of the pump
+        }
+
+        resolution.push(cursor.asLong(), pushCandidateState);
+        return addBlockLine();
     }
 
-    private boolean addBlockLine(BlockPos movingBlockPos, Direction pushDirection) {
-        BlockState movingBlockState = level.getBlockState(movingBlockPos);
-
-        if (level.isEmptyBlock(movingBlockPos)) {
-            return true; //if the block is air
-        } else if (AirPumpBaseBlock.isNotPushable(movingBlockState, level, movingBlockPos, pushDirection, false)) {
-            return true; //if the block should break?
-        } else if (movingBlockPos.equals(basePos)) {
-            return true; //if the pump is extending
-        } else {
-            if (!PistonBaseBlock.isPushable(movingBlockState, level, movingBlockPos, pushDirection, true, pushDirection) || movingBlockPos.equals(basePos)) {
-                return false;
-            }
+    /**
+     * Walks the line of blocks behind the pushed head block, starting one step past the cursor.
+     *
+     * @return true if the line ends in air or a block that breaks when pushed, false otherwise
+     */
+    private boolean addBlockLine() {
+        while (true) {
+            cursor.move(pushDirection);
+            BlockState movingBlockState = level.getBlockState(cursor);
+            resolution.examine(cursor.asLong(), movingBlockState);
 
-            if (movingBlockState.getPistonPushReaction() == PushReaction.DESTROY) {
-                toDestroy.add(movingBlockPos);
-                return true;
+            if (movingBlockState.isAir()) {
+                return true; //if the line ends in air
+            } else if (AirPumpBaseBlock.isNotPushable(movingBlockState, level, cursor, pushDirection, true)) {
+                return false; //if the line is blocked
+            } else if (PumpPushability.get(movingBlockState) == PumpPushability.DESTROY) {
+                resolution.destroy(cursor.asLong());
+                return true; //if the line ends in a block that breaks
+            } else if (resolution.getToPushCount() >= maxPushLength) {
+                resolution.markTooLong();
+                return false; //if the line is too long
             }
 
-            return false;
+            resolution.push(cursor.asLong(), movingBlockState);
         }
     }
-
-    public List<BlockPos> getToDestroy() {
-        return toDestroy;
-    }
 }
@@ -0,0 +1,104 @@
+package net.aiden.aircraftmod.block.custom;
+
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.effect.MobEffects;
+import net.minecraft.world.entity.LivingEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decides when an entity standing on a {@link JumpyBlock} needs its jump boost applied again. Each
+ * application creates an effect instance and sends an effect packet to every client tracking the
+ * entity, so instead of applying it every tick the throttle remembers the tick it last applied the
+ * effect to each entity, and applies it again only once fewer than {@code jumpyRefreshTicks} of it
+ * are left, or once the entity lost the effect some other way.
+ *
+ * @author Aiden Black
+ */
+public class JumpEffectThrottle {
+    private static final Map<ServerLevel, JumpEffectThrottle> THROTTLES = new HashMap<>();
+
+    /**
+     * ticks of jump boost given by each application
+     */
+    public static final int EFFECT_DURATION = 200;
+
+    private final ServerLevel level;
+    /** game tick each entity last had the effect applied at, by entity id */
+    private final Int2LongOpenHashMap lastApplied = new Int2LongOpenHashMap();
+    /** game tick after which entries that have run out are dropped */
+    private long nextPruneTick;
+
+    private long applied;
+    private long skipped;
+
+    private JumpEffectThrottle(ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Returns the throttle for a level, creating it on first use.
+     *
+     * @param level server level the entities are in
+     * @return the level's throttle
+     */
+    public static JumpEffectThrottle get(ServerLevel level) {
+        return THROTTLES.computeIfAbsent(level, JumpEffectThrottle::new);
+    }
+
+    /**
+     * Drops the throttle of a level that is being unloaded.
+     *
+     * @param level level being unloaded
+     */
+    public static void remove(ServerLevel level) {
+        THROTTLES.remove(level);
+    }
+
+    /**
+     * Gives an entity jump boost if what it got last time is about to run out.
+     *
+     * @param entity entity standing on the block
+     */
+    public void refresh(LivingEntity entity) {
+        long now = level.getGameTime();
+        long last = lastApplied.getOrDefault(entity.getId(), Long.MIN_VALUE);
+        int refreshTicks = AircraftModCommonConfigs.JUMPY_REFRESH_TICKS.get();
+        if (last != Long.MIN_VALUE && now - last < EFFECT_DURATION - refreshTicks && entity.hasEffect(MobEffects.JUMP)) {
+            skipped++;
+            return;
+        }
+
+        entity.addEffect(new MobEffectInstance(MobEffects.JUMP, EFFECT_DURATION));
+        lastApplied.put(entity.getId(), now);
+        applied++;
+        if (now >= nextPruneTick) prune(now);
+    }
+
+    /**
+     * Forgets entities whose effect has run out, so entities that died or walked off do not pile up.
+     */
+    private void prune(long now) {
+        lastApplied.int2LongEntrySet().removeIf((Int2LongMap.Entry entry) -> now - entry.getLongValue() >= EFFECT_DURATION);
+        nextPruneTick = now + EFFECT_DURATION;
+    }
+
+    /**
+     * @return number of times the effect was applied
+     */
+    public long getApplied() {
+        return applied;
+    }
+
+    /**
+     * @return number of steps on the block that did not need the effect applied again
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+}
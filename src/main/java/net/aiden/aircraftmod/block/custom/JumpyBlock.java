@@ -2,6 +2,7 @@ package net.aiden.aircraftmod.block.custom;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.effect.MobEffectInstance;
@@ -29,8 +30,13 @@ public class JumpyBlock extends Block {
 
     @Override
     public void stepOn(Level level, BlockPos pos, BlockState state, Entity entity) {
-        if(entity instanceof LivingEntity livingEntity){
-            livingEntity.addEffect(new MobEffectInstance(MobEffects.JUMP, 200));
+        if (entity instanceof LivingEntity livingEntity) {
+            if (level instanceof ServerLevel serverLevel) {
+                JumpEffectThrottle.get(serverLevel).refresh(livingEntity);
+            } else if (!livingEntity.hasEffect(MobEffects.JUMP)) {
+                // The server keeps the effect topped up; the client only predicts the first step
+                livingEntity.addEffect(new MobEffectInstance(MobEffects.JUMP, JumpEffectThrottle.EFFECT_DURATION));
+            }
         }
 
         super.stepOn(level, pos, state, entity);
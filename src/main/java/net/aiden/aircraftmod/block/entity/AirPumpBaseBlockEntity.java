@@ -1,21 +1,61 @@
 package net.aiden.aircraftmod.block.entity;
 
 import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.aiden.aircraftmod.block.custom.AirPumpResolution;
+import net.aiden.aircraftmod.block.pump.AirPumpUpdateQueue;
+import net.aiden.aircraftmod.block.pump.LevelPumpBlockAccess;
+import net.aiden.aircraftmod.block.pump.AirPumpWakeTracker;
+import net.aiden.aircraftmod.block.pump.PumpPressureNetworks;
+import net.aiden.aircraftmod.metrics.PumpHook;
+import net.aiden.aircraftmod.metrics.PumpMetrics;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import static net.aiden.aircraftmod.block.custom.AirPumpBaseBlock.*;
 import static net.minecraft.world.level.block.piston.PistonBaseBlock.TRIGGER_CONTRACT;
 
 /**
- * Block entity associated with air pump base. Allows the level
- * to check for an opponent piston every tick
+ * Block entity associated with air pump base. Registers the pump with the level's
+ * {@link AirPumpWakeTracker} so it is woken when its opponent slot changes, and
+ * allows the level to check for an opponent piston every tick when polling is enabled.
  *
  * @author Aiden Black
  */
 public class AirPumpBaseBlockEntity extends BlockEntity {
+    /**
+     * whether {@link #opposed} still describes the opponent slot
+     */
+    private boolean opponentCached;
+    /**
+     * cached result of the last opposition check
+     */
+    private boolean opposed;
+    /**
+     * direction the pump faced when the cache was filled, so a rotated pump never reads a stale slot
+     */
+    private Direction cachedPumpDirection = Direction.NORTH;
+    /**
+     * location of the opponent slot when the cache was filled
+     */
+    private BlockPos opponentPos = BlockPos.ZERO;
+    /**
+     * facing of the piston found in the opponent slot, or null if there was no piston
+     */
+    @Nullable
+    private Direction opponentFacing;
+    /**
+     * structure resolved by the last extension check, reused by the block event it queues
+     */
+    private final AirPumpResolution resolution = new AirPumpResolution();
+
     /**
      * Constructs an AirPumpBaseBlockEntity object.
      * @param basePos pump base's location
@@ -26,12 +66,167 @@ public class AirPumpBaseBlockEntity extends BlockEntity {
     }
 
     /**
-     * Checks if the pump should be extended every tick.
+     * Starts watching the opponent slot once the pump is added to a loaded chunk, and asks for an
+     * evaluation since its surroundings may have changed while it was unloaded.
+     */
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level instanceof ServerLevel serverLevel) {
+            Direction pumpDirection = getBlockState().getValue(FACING);
+            // A watched position in another chunk may have changed while this one was unloaded
+            if (!isWatchRegionInOwnChunk(pumpDirection)) opponentCached = false;
+
+            AirPumpWakeTracker.get(serverLevel).watch(worldPosition, pumpDirection);
+            AirPumpUpdateQueue.get(serverLevel).enqueue(worldPosition);
+            // Pumps saved before pressure networks existed join them when they first load
+            PumpPressureNetworks networks = PumpPressureNetworks.get(serverLevel);
+            if (!networks.contains(worldPosition)) networks.add(worldPosition, getBlockState().getValue(EXTENDED));
+        }
+    }
+
+    /**
+     * Stops watching the opponent slot when the pump is broken or its chunk is unloaded.
+     */
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        if (level instanceof ServerLevel serverLevel) {
+            AirPumpWakeTracker.get(serverLevel).unwatch(worldPosition);
+        }
+    }
+
+    /**
+     * Keeps the watched opponent slot in line with the pump's facing when the state changes in place.
+     *
+     * @param baseState pump base's new BlockState
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setBlockState(BlockState baseState) {
+        super.setBlockState(baseState);
+        if (level instanceof ServerLevel serverLevel && !isRemoved()) {
+            AirPumpWakeTracker.get(serverLevel).watch(worldPosition, baseState.getValue(FACING));
+        }
+    }
+
+    /**
+     * Returns whether the pump is opposed by a powered piston, only checking the level when the
+     * cached result has been invalidated. The chunk is only marked for saving when the check finds
+     * something other than what was cached before.
+     *
+     * @param level         spatial and network context
+     * @param pumpDirection direction in which the pump faces
+     * @return true if the pump's extension is opposed by a powered piston, false otherwise
+     */
+    public boolean isOpposed(Level level, Direction pumpDirection) {
+        if (!opponentCached || cachedPumpDirection != pumpDirection) {
+            BlockPos potentialPistonPos = worldPosition.relative(pumpDirection, 2);
+            LevelPumpBlockAccess access = LevelPumpBlockAccess.pinned(level, potentialPistonPos);
+            BlockState potentialPistonState = access.getBlockState(potentialPistonPos);
+
+            Direction facing = AirPumpBaseBlock.isPiston(potentialPistonState) ? potentialPistonState.getValue(FACING) : null;
+            boolean nowOpposed = AirPumpBaseBlock.isOpposedBy(access, potentialPistonPos, potentialPistonState, pumpDirection);
+            // Refilling with what was already cached leaves the saved data as it was
+            boolean changed = nowOpposed != opposed || facing != opponentFacing
+                    || pumpDirection != cachedPumpDirection || !potentialPistonPos.equals(opponentPos);
+
+            opponentPos = potentialPistonPos;
+            opponentFacing = facing;
+            opposed = nowOpposed;
+            cachedPumpDirection = pumpDirection;
+            opponentCached = true;
+            if (changed) setChanged();
+        }
+        return opposed;
+    }
+
+    /**
+     * Forgets the cached opposition result so that the next check reads the level again.
+     */
+    public void invalidateOpponent() {
+        opponentCached = false;
+    }
+
+    /**
+     * Invalidates the cached opposition result if a neighbour change happened close enough to the
+     * opponent slot to affect the opponent piston's power.
+     *
+     * @param neighborPos location of the block that changed
+     */
+    public void onNeighborChanged(BlockPos neighborPos) {
+        if (opponentCached && neighborPos.distManhattan(opponentPos) <= AirPumpWakeTracker.WATCH_RADIUS) {
+            opponentCached = false;
+        }
+    }
+
+    /**
+     * @return location of the opponent slot the cache was last filled from
+     */
+    public BlockPos getOpponentPos() {
+        return opponentPos;
+    }
+
+    /**
+     * @return facing of the piston last seen in the opponent slot, or null if there was none
+     */
+    @Nullable
+    public Direction getOpponentFacing() {
+        return opponentFacing;
+    }
+
+    /**
+     * @return the resolution this pump's extension checks are written into
+     */
+    public AirPumpResolution getResolution() {
+        return resolution;
+    }
+
+    @Override
+    protected void saveAdditional(@NotNull CompoundTag tag) {
+        super.saveAdditional(tag);
+        if (opponentCached) {
+            CompoundTag opponentTag = new CompoundTag();
+            opponentTag.putBoolean("Opposed", opposed);
+            opponentTag.putInt("PumpFacing", cachedPumpDirection.get3DDataValue());
+            opponentTag.putLong("Pos", opponentPos.asLong());
+            opponentTag.putInt("Facing", opponentFacing == null ? -1 : opponentFacing.get3DDataValue());
+            tag.put("Opponent", opponentTag);
+        }
+    }
+
+    @Override
+    public void load(@NotNull CompoundTag tag) {
+        super.load(tag);
+        opponentCached = tag.contains("Opponent");
+        if (opponentCached) {
+            CompoundTag opponentTag = tag.getCompound("Opponent");
+            opposed = opponentTag.getBoolean("Opposed");
+            cachedPumpDirection = Direction.from3DDataValue(opponentTag.getInt("PumpFacing"));
+            opponentPos = BlockPos.of(opponentTag.getLong("Pos"));
+            int facing = opponentTag.getInt("Facing");
+            opponentFacing = facing < 0 ? null : Direction.from3DDataValue(facing);
+        }
+    }
+
+    private boolean isWatchRegionInOwnChunk(Direction pumpDirection) {
+        BlockPos opponent = worldPosition.relative(pumpDirection, 2);
+        int radius = AirPumpWakeTracker.WATCH_RADIUS;
+        int chunkX = SectionPos.blockToSectionCoord(worldPosition.getX());
+        int chunkZ = SectionPos.blockToSectionCoord(worldPosition.getZ());
+        return SectionPos.blockToSectionCoord(opponent.getX() - radius) == chunkX
+                && SectionPos.blockToSectionCoord(opponent.getX() + radius) == chunkX
+                && SectionPos.blockToSectionCoord(opponent.getZ() - radius) == chunkZ
+                && SectionPos.blockToSectionCoord(opponent.getZ() + radius) == chunkZ;
+    }
+
+    /**
+     * Checks if the pump should be extended every tick. Only used when event-driven pumps are disabled.
      *
      * @param level spatial and network context
      * @param basePos pump base's location
      * @param baseState pump base's BlockState
-     * @param pEntity unused parameter
+     * @param pEntity pump base's block entity
      */
     public static void tick(Level level, BlockPos basePos, BlockState baseState, AirPumpBaseBlockEntity pEntity) {
         if(level.isClientSide()) {
@@ -50,6 +245,12 @@ public class AirPumpBaseBlockEntity extends BlockEntity {
             case EAST -> 5;
         };
 
-        base.checkIfExtend(level, basePos, baseState);
+        if (PumpMetrics.enabled) {
+            long start = System.nanoTime();
+            base.checkIfExtend(level, basePos, baseState, pEntity);
+            PumpMetrics.time(level, basePos, PumpHook.BLOCK_ENTITY_TICK, start);
+        } else {
+            base.checkIfExtend(level, basePos, baseState, pEntity);
+        }
     }
 }
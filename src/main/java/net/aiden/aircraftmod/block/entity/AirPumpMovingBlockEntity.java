@@ -0,0 +1,260 @@
+package net.aiden.aircraftmod.block.entity;
+
+import net.aiden.aircraftmod.block.ModBlocks;
+import net.aiden.aircraftmod.block.pump.PumpLightBatcher;
+import net.aiden.aircraftmod.metrics.PumpHook;
+import net.aiden.aircraftmod.metrics.PumpMetrics;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.MoverType;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import net.minecraft.world.level.material.PushReaction;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraft.world.phys.shapes.Shapes;
+import net.minecraft.world.phys.shapes.VoxelShape;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A pump head in motion, standing in for vanilla's PistonMovingBlockEntity for the one block a
+ * pump moves itself. Extending, it sits where the head is going and slides the head out of the
+ * base; contracting, it sits in the base and slides the head back in.
+ * <p>
+ * The head moves in {@value #STEPS} fixed steps, one per tick, and is placed on the tick after the
+ * last step, on the same schedule as vanilla pistons. The box the head sweeps on each step is
+ * computed once, and the level's section-indexed entity lookup only visits the chunk sections that
+ * hold entities.
+ *
+ * @author Aiden Black
+ */
+public class AirPumpMovingBlockEntity extends BlockEntity {
+    /**
+     * ticks the head takes to move one block
+     */
+    public static final int STEPS = 2;
+    private static final double STEP_LENGTH = 1.0 / STEPS;
+    /**
+     * collision shapes of an extending head after each step, by direction, relative to the block it is moving into
+     */
+    private static final VoxelShape[][] EXTENDING_SHAPES = new VoxelShape[6][STEPS + 1];
+
+    static {
+        for (Direction direction : Direction.values()) {
+            for (int step = 0; step <= STEPS; step++) {
+                double offset = step * STEP_LENGTH - 1.0;
+                EXTENDING_SHAPES[direction.get3DDataValue()][step] = Shapes.block().move(direction.getStepX() * offset, direction.getStepY() * offset, direction.getStepZ() * offset);
+            }
+        }
+    }
+
+    /**
+     * state placed once the move is over: the pump head when extending, the retracted base when contracting
+     */
+    private BlockState movedState = Blocks.AIR.defaultBlockState();
+    private Direction direction = Direction.NORTH;
+    private boolean extending;
+    /**
+     * steps taken so far
+     */
+    private int step;
+    /**
+     * box the head sweeps on each step, computed on the first step that needs it
+     */
+    private AABB[] sweeps;
+
+    /**
+     * Constructs an AirPumpMovingBlockEntity as the level loads it.
+     *
+     * @param pos   location of the moving block
+     * @param state BlockState of the moving block
+     */
+    public AirPumpMovingBlockEntity(BlockPos pos, BlockState state) {
+        super(ModBlockEntities.AIR_PUMP_MOVING_HEAD.get(), pos, state);
+    }
+
+    /**
+     * Constructs an AirPumpMovingBlockEntity for a pump that has just started moving.
+     *
+     * @param pos        location of the moving block
+     * @param state      BlockState of the moving block
+     * @param movedState state placed once the move is over
+     * @param direction  direction the pump faces
+     * @param extending  true if the head is moving out of the base, false if it is moving back in
+     */
+    public AirPumpMovingBlockEntity(BlockPos pos, BlockState state, BlockState movedState, Direction direction, boolean extending) {
+        this(pos, state);
+        this.movedState = movedState;
+        this.direction = direction;
+        this.extending = extending;
+    }
+
+    /**
+     * Moves the head one step, pushing entities out of its way, or places the moved state once all
+     * steps are taken.
+     *
+     * @param level  spatial context
+     * @param pos    location of the moving block
+     * @param state  BlockState of the moving block
+     * @param entity moving block entity to tick
+     */
+    public static void tick(Level level, BlockPos pos, BlockState state, AirPumpMovingBlockEntity entity) {
+        if (PumpMetrics.enabled) {
+            long start = System.nanoTime();
+            entity.advance(level);
+            PumpMetrics.time(level, pos, PumpHook.MOVING_HEAD_TICK, start);
+        } else {
+            entity.advance(level);
+        }
+    }
+
+    private void advance(Level level) {
+        if (step >= STEPS) {
+            finish();
+            return;
+        }
+        if (extending) pushEntities(level);
+        step++;
+    }
+
+    /**
+     * Ends the move right away and places the moved state, if the moving block is still there.
+     */
+    public void finish() {
+        if (level == null || isRemoved()) return;
+
+        step = STEPS;
+        level.removeBlockEntity(worldPosition);
+        setRemoved();
+        if (!level.getBlockState(worldPosition).is(ModBlocks.AIR_PUMP_MOVING_HEAD.get())) return;
+
+        BlockState updatedState = Block.updateFromNeighbourShapes(movedState, level, worldPosition);
+        if (updatedState.isAir()) {
+            PumpLightBatcher.setBlock(level, worldPosition, movedState, Block.UPDATE_MOVE_BY_PISTON | Block.UPDATE_KNOWN_SHAPE | Block.UPDATE_INVISIBLE);
+            Block.updateOrDestroy(movedState, updatedState, level, worldPosition, Block.UPDATE_ALL);
+        } else {
+            if (updatedState.hasProperty(BlockStateProperties.WATERLOGGED)) {
+                updatedState = updatedState.setValue(BlockStateProperties.WATERLOGGED, false);
+            }
+            PumpLightBatcher.setBlock(level, worldPosition, updatedState, Block.UPDATE_MOVE_BY_PISTON | Block.UPDATE_ALL);
+            level.neighborChanged(worldPosition, updatedState.getBlock(), worldPosition);
+        }
+    }
+
+    /**
+     * @param partialTick fraction of the current tick that has passed
+     * @return how far the head has moved, from 0 to 1
+     */
+    public float getProgress(float partialTick) {
+        return Math.max(0.0F, Math.min(STEPS, step - 1 + Math.min(partialTick, 1.0F))) / STEPS;
+    }
+
+    /**
+     * @return collision shape of the moving block at its current step
+     */
+    public VoxelShape getCollisionShape() {
+        return extending ? EXTENDING_SHAPES[direction.get3DDataValue()][step] : Shapes.block();
+    }
+
+    /**
+     * @return state placed once the move is over
+     */
+    public BlockState getMovedState() {
+        return movedState;
+    }
+
+    /**
+     * @return direction the pump faces
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return true if the head is moving out of the base, false if it is moving back in
+     */
+    public boolean isExtending() {
+        return extending;
+    }
+
+    /**
+     * Pushes entities in the way of the head's next step forward, by as far as the head overlaps them.
+     */
+    private void pushEntities(Level level) {
+        AABB sweep = getSweep(step);
+        List<Entity> entities = level.getEntities((Entity) null, sweep);
+        if (entities.isEmpty()) return;
+
+        // the head's face once this step is over
+        double face = switch (direction.getAxisDirection()) {
+            case POSITIVE -> sweep.max(direction.getAxis());
+            case NEGATIVE -> sweep.min(direction.getAxis());
+        };
+        for (Entity entity : entities) {
+            if (entity.getPistonPushReaction() == PushReaction.IGNORE) continue;
+
+            AABB box = entity.getBoundingBox();
+            double overlap = direction.getAxisDirection() == Direction.AxisDirection.POSITIVE ? face - box.min(direction.getAxis()) : box.max(direction.getAxis()) - face;
+            if (overlap <= 0) continue;
+
+            double distance = Math.min(overlap, STEP_LENGTH) + 0.01;
+            entity.move(MoverType.PISTON, new Vec3(direction.getStepX() * distance, direction.getStepY() * distance, direction.getStepZ() * distance));
+        }
+    }
+
+    private AABB getSweep(int fromStep) {
+        if (sweeps == null) {
+            sweeps = new AABB[STEPS];
+            for (int i = 0; i < STEPS; i++) {
+                double end = (i + 1) * STEP_LENGTH - 1.0;
+                sweeps[i] = new AABB(worldPosition)
+                        .move(direction.getStepX() * end, direction.getStepY() * end, direction.getStepZ() * end)
+                        .expandTowards(-direction.getStepX() * STEP_LENGTH, -direction.getStepY() * STEP_LENGTH, -direction.getStepZ() * STEP_LENGTH);
+            }
+        }
+        return sweeps[fromStep];
+    }
+
+    @Override
+    public AABB getRenderBoundingBox() {
+        // An extending head is drawn partly in the base, a contracting one partly in front of it
+        int reach = extending ? -1 : 1;
+        return new AABB(worldPosition).expandTowards(direction.getStepX() * reach, direction.getStepY() * reach, direction.getStepZ() * reach);
+    }
+
+    @Override
+    public void load(@NotNull CompoundTag tag) {
+        super.load(tag);
+        movedState = NbtUtils.readBlockState(tag.getCompound("blockState"));
+        direction = Direction.from3DDataValue(tag.getInt("facing"));
+        extending = tag.getBoolean("extending");
+        step = Math.min(STEPS, tag.getInt("step"));
+        sweeps = null;
+    }
+
+    @Override
+    protected void saveAdditional(@NotNull CompoundTag tag) {
+        super.saveAdditional(tag);
+        tag.put("blockState", NbtUtils.writeBlockState(movedState));
+        tag.putInt("facing", direction.get3DDataValue());
+        tag.putBoolean("extending", extending);
+        tag.putInt("step", step);
+    }
+
+    /**
+     * Sends the move along with the chunk, so players who load it mid-move see the head.
+     */
+    @Override
+    public @NotNull CompoundTag getUpdateTag() {
+        return saveWithoutMetadata();
+    }
+}
@@ -17,6 +17,11 @@ public class ModBlockEntities {
                     BlockEntityType.Builder.of(AirPumpBaseBlockEntity::new,
                             ModBlocks.AIR_PUMP_BASE.get()).build(null));
 
+    public static final RegistryObject<BlockEntityType<AirPumpMovingBlockEntity>> AIR_PUMP_MOVING_HEAD =
+            BLOCK_ENTITIES.register("air_pump_moving_head", () ->
+                    BlockEntityType.Builder.of(AirPumpMovingBlockEntity::new,
+                            ModBlocks.AIR_PUMP_MOVING_HEAD.get()).build(null));
+
 
     public static void register(IEventBus eventBus) {
         BLOCK_ENTITIES.register(eventBus);
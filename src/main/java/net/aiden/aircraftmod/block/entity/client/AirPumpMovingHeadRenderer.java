@@ -0,0 +1,53 @@
+package net.aiden.aircraftmod.block.entity.client;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import net.aiden.aircraftmod.block.ModBlocks;
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.aiden.aircraftmod.block.custom.AirPumpHeadBlock;
+import net.aiden.aircraftmod.block.entity.AirPumpMovingBlockEntity;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.block.BlockRenderDispatcher;
+import net.minecraft.client.renderer.blockentity.BlockEntityRenderer;
+import net.minecraft.client.renderer.blockentity.BlockEntityRendererProvider;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Draws a pump head in motion. An extending head is drawn sliding out of the base; a contracting
+ * one is drawn sliding back into an extended base.
+ *
+ * @author Aiden Black
+ */
+public class AirPumpMovingHeadRenderer implements BlockEntityRenderer<AirPumpMovingBlockEntity> {
+    private final BlockRenderDispatcher blockRenderer;
+
+    public AirPumpMovingHeadRenderer(BlockEntityRendererProvider.Context context) {
+        this.blockRenderer = context.getBlockRenderDispatcher();
+    }
+
+    @Override
+    public void render(@NotNull AirPumpMovingBlockEntity entity, float partialTick, @NotNull PoseStack poseStack, @NotNull MultiBufferSource buffers, int packedLight, int packedOverlay) {
+        float progress = entity.getProgress(partialTick);
+        Direction direction = entity.getDirection();
+        BlockState movedState = entity.getMovedState();
+
+        if (entity.isExtending()) {
+            BlockState headState = movedState.hasProperty(AirPumpHeadBlock.SHORT) ? movedState.setValue(AirPumpHeadBlock.SHORT, progress <= 0.5F) : movedState;
+            renderOffset(headState, direction, progress - 1.0F, poseStack, buffers, packedLight, packedOverlay);
+        } else {
+            BlockState headState = ModBlocks.AIR_PUMP_HEAD.get().defaultBlockState().setValue(AirPumpHeadBlock.FACING, direction).setValue(AirPumpHeadBlock.SHORT, progress >= 0.5F);
+            renderOffset(headState, direction, 1.0F - progress, poseStack, buffers, packedLight, packedOverlay);
+            if (movedState.hasProperty(AirPumpBaseBlock.EXTENDED)) {
+                blockRenderer.renderSingleBlock(movedState.setValue(AirPumpBaseBlock.EXTENDED, true), poseStack, buffers, packedLight, packedOverlay);
+            }
+        }
+    }
+
+    private void renderOffset(BlockState state, Direction direction, float offset, PoseStack poseStack, MultiBufferSource buffers, int packedLight, int packedOverlay) {
+        poseStack.pushPose();
+        poseStack.translate(direction.getStepX() * offset, direction.getStepY() * offset, direction.getStepZ() * offset);
+        blockRenderer.renderSingleBlock(state, poseStack, buffers, packedLight, packedOverlay);
+        poseStack.popPose();
+    }
+}
@@ -0,0 +1,247 @@
+package net.aiden.aircraftmod.block.pump;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.aiden.aircraftmod.block.entity.AirPumpBaseBlockEntity;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the air pumps that need to be re-evaluated and evaluates each of them once at the end
+ * of the level tick, however many neighbour updates they received.
+ * <p>
+ * A drain stops once it has evaluated {@code maxEvaluationsPerTick} pumps or spent
+ * {@code tickBudgetMicros}, whichever comes first, and the rest wait for the following ticks. Nothing
+ * is ever dropped. Pumps are taken round-robin by chunk, one pump per chunk per turn, so a huge
+ * array in one chunk cannot hold back a small build in another. Within a chunk, pumps are evaluated
+ * in the order they were queued.
+ * <p>
+ * Pumps queued while the queue is being drained wait for the next tick, so a pump can never be
+ * evaluated twice in one drain.
+ *
+ * @author Aiden Black
+ */
+public class AirPumpUpdateQueue {
+    private static final Map<ServerLevel, AirPumpUpdateQueue> QUEUES = new HashMap<>();
+
+    private final ServerLevel level;
+    /** game time each waiting pump was queued at, which also keeps a pump from being queued twice */
+    private final Long2LongOpenHashMap queuedAt = new Long2LongOpenHashMap();
+    /** waiting pumps of each chunk, in the order they were queued */
+    private final Long2ObjectOpenHashMap<LongArrayFIFOQueue> pumpsByChunk = new Long2ObjectOpenHashMap<>();
+    /** chunks with waiting pumps, in the order they will next be served */
+    private final LongArrayFIFOQueue chunkRing = new LongArrayFIFOQueue();
+    /** emptied per-chunk queues kept for reuse */
+    private final ArrayDeque<LongArrayFIFOQueue> sparePumpQueues = new ArrayDeque<>();
+    /** pumps queued while draining, added once the drain is over */
+    private final LongArrayList queuedDuringDrain = new LongArrayList();
+    private boolean draining;
+
+    /** pumps taken by a parallel drain, in the order they were taken */
+    private final LongArrayList batch = new LongArrayList();
+    private final ParallelPumpResolver parallelResolver;
+
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    /** wall time the last drain took, in nanoseconds */
+    private long lastDrainNanos;
+    /** number of pumps the last drain evaluated */
+    private int lastDrainCount;
+    /** longest time a pump evaluated by the last drain had waited, in ticks */
+    private long lastMaxWaitTicks;
+    /** number of drains that stopped with pumps still waiting */
+    private long spilledDrains;
+
+    private AirPumpUpdateQueue(ServerLevel level) {
+        this.level = level;
+        this.parallelResolver = new ParallelPumpResolver(level);
+        this.queuedAt.defaultReturnValue(-1);
+    }
+
+    /**
+     * Returns the queue for a level, creating it on first use.
+     *
+     * @param level server level the pumps live in
+     * @return the level's queue
+     */
+    public static AirPumpUpdateQueue get(ServerLevel level) {
+        return QUEUES.computeIfAbsent(level, AirPumpUpdateQueue::new);
+    }
+
+    /**
+     * Drops the queue of a level that is being unloaded.
+     *
+     * @param level level being unloaded
+     */
+    public static void remove(ServerLevel level) {
+        QUEUES.remove(level);
+    }
+
+    /**
+     * Marks a pump as needing evaluation at the end of the tick. Queuing a pump that is already
+     * queued does nothing.
+     *
+     * @param basePos pump base's location
+     */
+    public void enqueue(BlockPos basePos) {
+        enqueue(basePos.asLong());
+    }
+
+    /**
+     * @param basePos pump base's location
+     */
+    public void enqueue(long basePos) {
+        if (queuedAt.putIfAbsent(basePos, level.getGameTime()) != -1) return;
+
+        if (draining) {
+            queuedDuringDrain.add(basePos);
+        } else {
+            addToChunk(basePos);
+        }
+    }
+
+    /**
+     * @return number of pumps waiting to be evaluated
+     */
+    public int size() {
+        return queuedAt.size();
+    }
+
+    /**
+     * @return wall time the most recent drain took, in nanoseconds, or 0 if nothing was queued that tick
+     */
+    public long getLastDrainNanos() {
+        return lastDrainNanos;
+    }
+
+    /**
+     * @return number of pumps the most recent drain evaluated
+     */
+    public int getLastDrainCount() {
+        return lastDrainCount;
+    }
+
+    /**
+     * Tells how far behind the queue is running: 0 when every pump is evaluated on the tick it was
+     * queued, growing while work spills over into later ticks.
+     *
+     * @return longest time, in ticks, that a pump evaluated by the most recent drain had waited
+     */
+    public long getLastMaxWaitTicks() {
+        return lastMaxWaitTicks;
+    }
+
+    /**
+     * @return number of drains that hit the per-tick limits and left pumps for later ticks
+     */
+    public long getSpilledDrains() {
+        return spilledDrains;
+    }
+
+    /**
+     * @return number of drains whose structure resolution ran on worker threads
+     */
+    public long getParallelDrains() {
+        return parallelResolver.getParallelDrains();
+    }
+
+    /**
+     * @return number of resolutions made on worker threads that were out of date by the time they were applied
+     */
+    public long getStaleResolutions() {
+        return parallelResolver.getStaleResolutions();
+    }
+
+    /**
+     * Evaluates queued pumps until the queue is empty or the per-tick limits are reached. With
+     * {@code parallelResolution} on, the pumps are taken first and then evaluated together by the
+     * {@link ParallelPumpResolver}, so only {@code maxEvaluationsPerTick} limits the drain.
+     */
+    public void tick() {
+        if (chunkRing.isEmpty()) {
+            lastDrainNanos = 0;
+            lastDrainCount = 0;
+            lastMaxWaitTicks = 0;
+            return;
+        }
+
+        int maxEvaluations = AircraftModCommonConfigs.MAX_EVALUATIONS_PER_TICK.get();
+        long budgetNanos = AircraftModCommonConfigs.TICK_BUDGET_MICROS.get() * 1000L;
+        long gameTime = level.getGameTime();
+        boolean parallel = AircraftModCommonConfigs.PARALLEL_RESOLUTION.get();
+        long start = System.nanoTime();
+        int evaluated = 0;
+        long maxWait = 0;
+
+        draining = true;
+        try {
+            while (!chunkRing.isEmpty() && evaluated < maxEvaluations) {
+                long chunk = chunkRing.dequeueLong();
+                LongArrayFIFOQueue pumps = pumpsByChunk.get(chunk);
+                long base = pumps.dequeueLong();
+                if (pumps.isEmpty()) {
+                    pumpsByChunk.remove(chunk);
+                    sparePumpQueues.push(pumps);
+                } else {
+                    chunkRing.enqueue(chunk);
+                }
+
+                maxWait = Math.max(maxWait, gameTime - queuedAt.remove(base));
+                evaluated++;
+                if (parallel) {
+                    batch.add(base);
+                    continue;
+                }
+                evaluate(base);
+
+                if (budgetNanos > 0 && System.nanoTime() - start >= budgetNanos) break;
+            }
+            if (parallel) parallelResolver.evaluate(batch);
+        } finally {
+            batch.clear();
+            draining = false;
+        }
+
+        for (int i = 0; i < queuedDuringDrain.size(); i++) {
+            addToChunk(queuedDuringDrain.getLong(i));
+        }
+        queuedDuringDrain.clear();
+
+        if (!chunkRing.isEmpty()) spilledDrains++;
+        lastDrainCount = evaluated;
+        lastMaxWaitTicks = maxWait;
+        lastDrainNanos = System.nanoTime() - start;
+    }
+
+    private void addToChunk(long base) {
+        long chunk = ChunkPos.asLong(BlockPos.getX(base) >> 4, BlockPos.getZ(base) >> 4);
+        LongArrayFIFOQueue pumps = pumpsByChunk.get(chunk);
+        if (pumps == null) {
+            pumps = sparePumpQueues.isEmpty() ? new LongArrayFIFOQueue() : sparePumpQueues.pop();
+            pumpsByChunk.put(chunk, pumps);
+            chunkRing.enqueue(chunk);
+        }
+        pumps.enqueue(base);
+    }
+
+    private void evaluate(long base) {
+        cursor.set(base);
+        if (!level.isLoaded(cursor)) return;
+
+        BlockState baseState = level.getBlockState(cursor);
+        if (baseState.getBlock() instanceof AirPumpBaseBlock airPumpBaseBlock) {
+            BlockPos basePos = cursor.immutable();
+            AirPumpBaseBlockEntity baseEntity = level.getBlockEntity(basePos) instanceof AirPumpBaseBlockEntity entity ? entity : null;
+            airPumpBaseBlock.checkIfExtend(level, basePos, baseState, baseEntity);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package net.aiden.aircraftmod.block.pump;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.aiden.aircraftmod.block.custom.AirPumpResolution;
+import net.aiden.aircraftmod.block.entity.AirPumpBaseBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps track of which air pumps could be affected by a block update, so that dormant pumps are
+ * only re-evaluated when something near their opponent slot actually changes. Woken pumps are
+ * handed to the level's {@link AirPumpUpdateQueue}.
+ * <p>
+ * An opponent piston two blocks in front of a pump is powered through its own neighbours and, by
+ * quasi-connectivity, the neighbours of the block above it. Every block whose change can affect
+ * that power lies within a Manhattan distance of {@value #WATCH_RADIUS} of the opponent slot, so
+ * each pump watches that diamond of positions.
+ * <p>
+ * A retracted pump that could not push the line in front of it also watches that line: every
+ * position its resolution examined and the one just past the end. Mining the block that stops the
+ * line, or shortening a line that was too long, then wakes the pump even when it happens far from
+ * the opponent slot.
+ *
+ * @author Aiden Black
+ */
+public class AirPumpWakeTracker {
+    private static final Map<ServerLevel, AirPumpWakeTracker> TRACKERS = new HashMap<>();
+
+    /**
+     * how far (in Manhattan distance) from the opponent slot a block update can affect a pump
+     */
+    public static final int WATCH_RADIUS = 2;
+
+    /**
+     * offsets of every position within {@link #WATCH_RADIUS} of the origin
+     */
+    private static final int[][] WATCH_OFFSETS = createWatchOffsets();
+
+    private final ServerLevel level;
+    /** opponent slot -> base positions of the pumps facing it */
+    private final Long2ObjectOpenHashMap<LongSet> watchersByOpponent = new Long2ObjectOpenHashMap<>();
+    /** pump base -> the opponent slot it is currently watching */
+    private final Long2LongOpenHashMap opponentByBase = new Long2LongOpenHashMap();
+    /** every watched position, counted once per pump watching it */
+    private final Long2IntOpenHashMap watchedPositions = new Long2IntOpenHashMap();
+    /** line position -> base positions of the blocked pumps whose line goes through it */
+    private final Long2ObjectOpenHashMap<LongSet> lineWatchers = new Long2ObjectOpenHashMap<>();
+    /** pump base -> the line positions it is currently watching */
+    private final Long2ObjectOpenHashMap<long[]> lineByBase = new Long2ObjectOpenHashMap<>();
+
+    private AirPumpWakeTracker(ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Returns the tracker for a level, creating it on first use.
+     *
+     * @param level server level the pumps live in
+     * @return the level's tracker
+     */
+    public static AirPumpWakeTracker get(ServerLevel level) {
+        return TRACKERS.computeIfAbsent(level, AirPumpWakeTracker::new);
+    }
+
+    /**
+     * Drops the tracker of a level that is being unloaded.
+     *
+     * @param level level being unloaded
+     */
+    public static void remove(ServerLevel level) {
+        TRACKERS.remove(level);
+    }
+
+    /**
+     * Starts watching the opponent slot of a pump, replacing any slot it watched before.
+     *
+     * @param basePos       pump base's location
+     * @param pumpDirection direction in which the pump faces
+     */
+    public void watch(BlockPos basePos, Direction pumpDirection) {
+        long base = basePos.asLong();
+        long opponent = basePos.relative(pumpDirection, 2).asLong();
+
+        if (opponentByBase.containsKey(base)) {
+            if (opponentByBase.get(base) == opponent) return;
+            unwatch(basePos);
+        }
+
+        opponentByBase.put(base, opponent);
+        watchersByOpponent.computeIfAbsent(opponent, key -> new LongOpenHashSet(2)).add(base);
+        adjustWatchedPositions(opponent, 1);
+    }
+
+    /**
+     * Stops watching on behalf of a pump that was removed or unloaded.
+     *
+     * @param basePos pump base's location
+     */
+    public void unwatch(BlockPos basePos) {
+        long base = basePos.asLong();
+        if (!opponentByBase.containsKey(base)) return;
+
+        long opponent = opponentByBase.remove(base);
+        LongSet watchers = watchersByOpponent.get(opponent);
+        if (watchers != null) {
+            watchers.remove(base);
+            if (watchers.isEmpty()) watchersByOpponent.remove(opponent);
+        }
+        adjustWatchedPositions(opponent, -1);
+        unwatchLine(basePos);
+    }
+
+    /**
+     * Starts watching the line a blocked pump could not push, replacing any line it watched before.
+     * Only a pump that is already watching its opponent slot can watch a line.
+     *
+     * @param basePos    pump base's location
+     * @param resolution resolution in which the pump could not push
+     */
+    public void watchLine(BlockPos basePos, AirPumpResolution resolution) {
+        long base = basePos.asLong();
+        if (!opponentByBase.containsKey(base)) return;
+
+        int examined = resolution.getExaminedCount();
+        if (examined == 0) {
+            unwatchLine(basePos);
+            return;
+        }
+        long[] line = new long[examined + 1];
+        for (int i = 0; i < examined; i++) line[i] = resolution.getExaminedPosition(i);
+        line[examined] = BlockPos.offset(line[examined - 1], resolution.getPushDirection());
+
+        long[] watched = lineByBase.get(base);
+        if (watched != null) {
+            if (Arrays.equals(watched, line)) return;
+            unwatchLine(basePos);
+        }
+        lineByBase.put(base, line);
+        for (long pos : line) lineWatchers.computeIfAbsent(pos, key -> new LongOpenHashSet(2)).add(base);
+    }
+
+    /**
+     * Stops watching the line of a pump that extended, is opposed or was removed.
+     *
+     * @param basePos pump base's location
+     */
+    public void unwatchLine(BlockPos basePos) {
+        long base = basePos.asLong();
+        long[] line = lineByBase.remove(base);
+        if (line == null) return;
+
+        for (long pos : line) {
+            LongSet watchers = lineWatchers.get(pos);
+            if (watchers == null) continue;
+            watchers.remove(base);
+            if (watchers.isEmpty()) lineWatchers.remove(pos);
+        }
+    }
+
+    /**
+     * Drops the cached opposition of every pump whose opponent could be affected by a change at the
+     * given position, and queues those pumps for evaluation at the end of the tick.
+     *
+     * @param changedPos location of the block that changed or is notifying its neighbours
+     */
+    public void onBlockUpdate(BlockPos changedPos) {
+        long changed = changedPos.asLong();
+        LongSet lineWatchersHere = lineWatchers.get(changed);
+        if (lineWatchersHere != null) {
+            // The opponent slot is not involved, so the cached opposition stays valid
+            AirPumpUpdateQueue queue = AirPumpUpdateQueue.get(level);
+            for (LongIterator iterator = lineWatchersHere.iterator(); iterator.hasNext(); ) queue.enqueue(iterator.nextLong());
+        }
+        if (!watchedPositions.containsKey(changed)) return;
+
+        int x = changedPos.getX();
+        int y = changedPos.getY();
+        int z = changedPos.getZ();
+        for (int[] offset : WATCH_OFFSETS) {
+            LongSet watchers = watchersByOpponent.get(BlockPos.asLong(x + offset[0], y + offset[1], z + offset[2]));
+            if (watchers != null) {
+                for (LongIterator iterator = watchers.iterator(); iterator.hasNext(); ) {
+                    wake(iterator.nextLong());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if no pump in this level is being watched
+     */
+    public boolean isEmpty() {
+        return opponentByBase.isEmpty();
+    }
+
+    private void wake(long base) {
+        BlockPos basePos = BlockPos.of(base);
+        if (level.getBlockEntity(basePos) instanceof AirPumpBaseBlockEntity baseEntity) {
+            baseEntity.invalidateOpponent();
+        } else {
+            PumpChunkState state = PumpChunkStates.get(level).at(basePos);
+            if (state != null) state.invalidate(basePos);
+        }
+        AirPumpUpdateQueue.get(level).enqueue(base);
+    }
+
+    private void adjustWatchedPositions(long opponent, int delta) {
+        int x = BlockPos.getX(opponent);
+        int y = BlockPos.getY(opponent);
+        int z = BlockPos.getZ(opponent);
+        for (int[] offset : WATCH_OFFSETS) {
+            long watched = BlockPos.asLong(x + offset[0], y + offset[1], z + offset[2]);
+            if (watchedPositions.addTo(watched, delta) + delta <= 0) watchedPositions.remove(watched);
+        }
+    }
+
+    private static int[][] createWatchOffsets() {
+        int[][] offsets = new int[25][];
+        int count = 0;
+        for (int dx = -WATCH_RADIUS; dx <= WATCH_RADIUS; dx++) {
+            for (int dy = -WATCH_RADIUS; dy <= WATCH_RADIUS; dy++) {
+                for (int dz = -WATCH_RADIUS; dz <= WATCH_RADIUS; dz++) {
+                    if (Math.abs(dx) + Math.abs(dy) + Math.abs(dz) <= WATCH_RADIUS) {
+                        offsets[count++] = new int[]{dx, dy, dz};
+                    }
+                }
+            }
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,71 @@
+package net.aiden.aircraftmod.block.pump;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+/**
+ * Caps the block breaking particles pumps spawn per chunk per tick. Only the client spawns these
+ * particles, when it replays a pump extending, so this only keeps track of the level the player is in.
+ *
+ * @author Aiden Black
+ */
+public final class DestroyEffectLimiter {
+    private static final Long2IntOpenHashMap EFFECTS_BY_CHUNK = new Long2IntOpenHashMap();
+    private static Level countedLevel;
+    private static long countedTime = Long.MIN_VALUE;
+
+    private static long requested;
+    private static long skipped;
+
+    private DestroyEffectLimiter() {
+    }
+
+    /**
+     * Counts a destroy effect against its chunk and tells whether it may still be shown this tick.
+     *
+     * @param level client level the effect would be shown in
+     * @param pos   location of the destroyed block
+     * @return true if the effect should be shown, false if its chunk has had its share this tick
+     */
+    public static boolean tryAdd(Level level, BlockPos pos) {
+        requested++;
+        int max = AircraftModCommonConfigs.MAX_DESTROY_EFFECTS_PER_CHUNK.get();
+        if (max == 0) return true;
+
+        if (level != countedLevel || level.getGameTime() != countedTime) {
+            EFFECTS_BY_CHUNK.clear();
+            countedLevel = level;
+            countedTime = level.getGameTime();
+        }
+
+        if (EFFECTS_BY_CHUNK.addTo(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), 1) < max) return true;
+        skipped++;
+        return false;
+    }
+
+    /**
+     * @return number of destroy effects pumps asked to show this session
+     */
+    public static long getRequested() {
+        return requested;
+    }
+
+    /**
+     * @return number of destroy effects not shown because their chunk was over the cap
+     */
+    public static long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Lets go of the level, when the player leaves it.
+     */
+    public static void clear() {
+        EFFECTS_BY_CHUNK.clear();
+        countedLevel = null;
+        countedTime = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,118 @@
+package net.aiden.aircraftmod.block.pump;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.material.FluidState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link PumpSignalAccess} backed by a live level. On the server, signals are read through the
+ * level's {@link RedstoneSignalCache}. {@link #pinned(Level, BlockPos)} also pins the chunk around a
+ * pump, so the evaluation reads block states straight from its sections.
+ * <p>
+ * Each thread reuses a single instance, so neither {@link #of(Level)} nor {@link #pinned} allocates.
+ *
+ * @author Aiden Black
+ */
+public class LevelPumpBlockAccess extends SectionPinnedBlockAccess implements PumpSignalAccess {
+    private static final ThreadLocal<LevelPumpBlockAccess> ACCESSES = ThreadLocal.withInitial(LevelPumpBlockAccess::new);
+
+    private Level level;
+    @Nullable
+    private RedstoneSignalCache signalCache;
+
+    private LevelPumpBlockAccess() {
+    }
+
+    /**
+     * Returns the current thread's access, pointed at the given level, with no chunk pinned.
+     *
+     * @param level level to read from
+     * @return an access reading from the level
+     */
+    public static LevelPumpBlockAccess of(Level level) {
+        LevelPumpBlockAccess access = ACCESSES.get();
+        if (access.level != level) {
+            access.level = level;
+            access.signalCache = level instanceof ServerLevel serverLevel ? RedstoneSignalCache.get(serverLevel) : null;
+        }
+        access.unpin();
+        return access;
+    }
+
+    /**
+     * Returns the current thread's access, pointed at the given level, with the chunk containing
+     * the given position pinned. Only keep it for the duration of one evaluation.
+     *
+     * @param level  level to read from
+     * @param center location whose chunk should be pinned, usually a pump base
+     * @return an access reading from the level
+     */
+    public static LevelPumpBlockAccess pinned(Level level, BlockPos center) {
+        LevelPumpBlockAccess access = of(level);
+        if (!level.isDebug()) access.pin(center);
+        return access;
+    }
+
+    /**
+     * @return the level being read
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    @Override
+    public boolean hasSignal(BlockPos pos, Direction side) {
+        return signalCache != null ? signalCache.hasSignal(level, pos, side) : level.hasSignal(pos, side);
+    }
+
+    @Override
+    public boolean isWithinWorldBorder(BlockPos pos) {
+        return level.getWorldBorder().isWithinBounds(pos);
+    }
+
+    @Override
+    public long getGameTime() {
+        return level.getGameTime();
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(@NotNull BlockPos pos) {
+        return level.getBlockEntity(pos);
+    }
+
+    @Nullable
+    @Override
+    protected LevelChunkSection[] lookupSections(int chunkX, int chunkZ) {
+        LevelChunk chunk = level.getChunkSource().getChunk(chunkX, chunkZ, false);
+        return chunk != null ? chunk.getSections() : null;
+    }
+
+    @Override
+    protected BlockState getUnpinnedBlockState(BlockPos pos) {
+        return level.getBlockState(pos);
+    }
+
+    @Override
+    public @NotNull FluidState getFluidState(@NotNull BlockPos pos) {
+        return level.getFluidState(pos);
+    }
+
+    @Override
+    public int getHeight() {
+        return level.getHeight();
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return level.getMinBuildHeight();
+    }
+}
@@ -0,0 +1,253 @@
+package net.aiden.aircraftmod.block.pump;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.aiden.aircraftmod.block.custom.AirPumpResolution;
+import net.aiden.aircraftmod.block.custom.AirPumpStructureResolver;
+import net.aiden.aircraftmod.block.entity.AirPumpBaseBlockEntity;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.metrics.PumpChunkProfiler;
+import net.aiden.aircraftmod.metrics.PumpCounter;
+import net.aiden.aircraftmod.metrics.PumpMetrics;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.piston.PistonBaseBlock;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evaluates a batch of queued pumps with their structure resolution spread over a ForkJoin pool.
+ * A drain goes through three steps:
+ * <ol>
+ *     <li>On the server thread, every pump's opposition is read from the level, and the sections
+ *     along the line of each pump that will try to extend are copied into a
+ *     {@link SectionSnapshotBlockAccess}.</li>
+ *     <li>The pool resolves those pumps against the snapshot. Resolving only reads, and each pump
+ *     resolves into its own {@link AirPumpResolution}.</li>
+ *     <li>On the server thread, in queue order, each resolution is checked against the live level by
+ *     re-reading the positions it examined, resolved again there if anything changed, and turned
+ *     into a block event.</li>
+ * </ol>
+ * Since triggers are only queued and applied in queue order, the level ends up exactly as it would
+ * have if every pump had been evaluated on the server thread. Batches smaller than
+ * {@link #MIN_PARALLEL_BATCH} are not worth handing to the pool and resolve on the server thread.
+ *
+ * @author Aiden Black
+ */
+class ParallelPumpResolver {
+    /**
+     * fewest pumps trying to extend for a drain to be resolved on the pool
+     */
+    static final int MIN_PARALLEL_BATCH = 64;
+    /**
+     * pumps resolved by one pool task before it stops splitting
+     */
+    private static final int PUMPS_PER_TASK = 32;
+
+    private static ForkJoinPool pool;
+
+    private final ServerLevel level;
+    private final SectionSnapshotBlockAccess snapshot = new SectionSnapshotBlockAccess();
+    /** resolutions for pumps without a block entity, reused between drains */
+    private final List<AirPumpResolution> spareResolutions = new ArrayList<>();
+
+    private BlockPos[] positions = new BlockPos[0];
+    private BlockState[] states = new BlockState[0];
+    /** resolution of each pump trying to extend, null for the others */
+    private AirPumpResolution[] resolutions = new AirPumpResolution[0];
+    /** whether the pump's line was captured and can be resolved on the pool */
+    private boolean[] captured = new boolean[0];
+    /** trigger of each pump that needs no resolution */
+    private int[] triggers = new int[0];
+
+    /** number of drains resolved on the pool */
+    private long parallelDrains;
+    /** number of pool resolutions that no longer matched the level and were resolved again */
+    private long staleResolutions;
+
+    ParallelPumpResolver(ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Evaluates a batch of pumps and queues the block events of those whose extension should change.
+     *
+     * @param batch packed base positions, in the order the pumps were taken from the queue
+     */
+    void evaluate(LongArrayList batch) {
+        int size = batch.size();
+        ensureCapacity(size);
+        int maxPushLength = AircraftModCommonConfigs.MAX_PUSH_LENGTH.get();
+        boolean assembleAirships = AircraftModCommonConfigs.AIRSHIPS_ENABLED.get();
+
+        int toResolve = prepare(batch, maxPushLength);
+        boolean parallel = toResolve >= MIN_PARALLEL_BATCH;
+        if (parallel) {
+            pool().invoke(new ResolveTask(0, size, maxPushLength));
+            parallelDrains++;
+        }
+        apply(size, parallel, maxPushLength, assembleAirships);
+    }
+
+    /**
+     * @return number of drains whose resolution ran on the pool
+     */
+    long getParallelDrains() {
+        return parallelDrains;
+    }
+
+    /**
+     * @return number of resolutions from the pool that the level had changed under before they could be applied
+     */
+    long getStaleResolutions() {
+        return staleResolutions;
+    }
+
+    /**
+     * Reads everything resolution cannot read from a snapshot and captures the lines to resolve.
+     *
+     * @return number of pumps that will try to extend
+     */
+    private int prepare(LongArrayList batch, int maxPushLength) {
+        snapshot.begin(level);
+        int spare = 0;
+        int toResolve = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            BlockPos basePos = BlockPos.of(batch.getLong(i));
+            if (!level.isLoaded(basePos)) continue;
+            BlockState baseState = level.getBlockState(basePos);
+            if (!(baseState.getBlock() instanceof AirPumpBaseBlock airPumpBaseBlock)) continue;
+
+            AirPumpBaseBlockEntity baseEntity = level.getBlockEntity(basePos) instanceof AirPumpBaseBlockEntity entity ? entity : null;
+            if (PumpChunkProfiler.active) PumpChunkProfiler.recordEvaluation(level, basePos);
+            if (PumpMetrics.enabled) PumpMetrics.count(level, basePos, PumpCounter.EVALUATIONS, 1);
+
+            positions[i] = basePos;
+            states[i] = baseState;
+
+            Direction pumpDirection = baseState.getValue(AirPumpBaseBlock.FACING);
+            boolean isOpposed = airPumpBaseBlock.isOpposed(level, basePos, pumpDirection, baseEntity);
+            boolean extended = baseState.getValue(AirPumpBaseBlock.EXTENDED);
+            if (!isOpposed && !extended) {
+                if (baseEntity != null) {
+                    resolutions[i] = baseEntity.getResolution();
+                } else {
+                    if (spare == spareResolutions.size()) spareResolutions.add(new AirPumpResolution());
+                    resolutions[i] = spareResolutions.get(spare++);
+                }
+                // the resolver reads at most one position past the longest line it may push
+                captured[i] = snapshot.captureLine(level, basePos.relative(pumpDirection), pumpDirection, maxPushLength + 1);
+                toResolve++;
+            } else {
+                triggers[i] = isOpposed && extended ? PistonBaseBlock.TRIGGER_CONTRACT : AirPumpBaseBlock.TRIGGER_NONE;
+            }
+        }
+        return toResolve;
+    }
+
+    /**
+     * Queues the triggers on the server thread, in batch order, re-checking each pool resolution first.
+     */
+    private void apply(int size, boolean parallel, int maxPushLength, boolean assembleAirships) {
+        for (int i = 0; i < size; i++) {
+            BlockPos basePos = positions[i];
+            if (basePos == null) continue;
+            BlockState baseState = states[i];
+            AirPumpBaseBlock airPumpBaseBlock = (AirPumpBaseBlock) baseState.getBlock();
+
+            BlockState currentState = level.getBlockState(basePos);
+            if (currentState != baseState) {
+                // The pump itself changed since it was prepared, so evaluate it from scratch
+                if (currentState.getBlock() instanceof AirPumpBaseBlock current) current.checkIfExtend(level, basePos, currentState);
+                continue;
+            }
+
+            Direction pumpDirection = baseState.getValue(AirPumpBaseBlock.FACING);
+            AirPumpResolution resolution = resolutions[i];
+            int trigger = triggers[i];
+            if (resolution != null) {
+                boolean resolved = parallel && captured[i];
+                int resolverCalls = resolved ? 1 : 0;
+                LevelPumpBlockAccess access = LevelPumpBlockAccess.pinned(level, basePos);
+                if (!resolved || !resolution.isCurrent(access, basePos, pumpDirection)) {
+                    if (resolved) staleResolutions++;
+                    AirPumpStructureResolver.get().resolve(access, basePos, pumpDirection, resolution, maxPushLength);
+                    resolverCalls++;
+                }
+                if (PumpMetrics.enabled) PumpMetrics.count(level, basePos, PumpCounter.RESOLVER_CALLS, resolverCalls);
+                trigger = AirPumpBaseBlock.triggerFor(resolution, assembleAirships);
+            }
+            AirPumpBaseBlock.watchLine(level, basePos, resolution);
+            airPumpBaseBlock.scheduleTrigger(level, basePos, pumpDirection, trigger);
+        }
+
+        // Drop references so a drain does not keep resolutions of unloaded block entities alive
+        Arrays.fill(positions, 0, size, null);
+        Arrays.fill(states, 0, size, null);
+        Arrays.fill(resolutions, 0, size, null);
+        Arrays.fill(captured, 0, size, false);
+    }
+
+    private void ensureCapacity(int size) {
+        if (positions.length >= size) return;
+        positions = new BlockPos[size];
+        states = new BlockState[size];
+        resolutions = new AirPumpResolution[size];
+        captured = new boolean[size];
+        triggers = new int[size];
+    }
+
+    /**
+     * Returns the pool shared by every level, starting it on first use with {@code resolverThreads} workers.
+     */
+    private static synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            int threads = AircraftModCommonConfigs.RESOLVER_THREADS.get();
+            if (threads == 0) threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            pool = new ForkJoinPool(threads, forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("Air Pump Resolver #" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return pool;
+    }
+
+    /**
+     * Resolves the captured pumps of a range of the batch, splitting the range in halves until it is small.
+     */
+    private class ResolveTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int maxPushLength;
+
+        ResolveTask(int from, int to, int maxPushLength) {
+            this.from = from;
+            this.to = to;
+            this.maxPushLength = maxPushLength;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PUMPS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ResolveTask(from, middle, maxPushLength), new ResolveTask(middle, to, maxPushLength));
+                return;
+            }
+
+            AirPumpStructureResolver resolver = AirPumpStructureResolver.get();
+            for (int i = from; i < to; i++) {
+                if (resolutions[i] == null || !captured[i]) continue;
+                resolver.resolve(snapshot, positions[i], states[i].getValue(AirPumpBaseBlock.FACING), resolutions[i], maxPushLength);
+            }
+        }
+    }
+}
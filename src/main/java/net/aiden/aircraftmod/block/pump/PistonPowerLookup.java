@@ -0,0 +1,96 @@
+package net.aiden.aircraftmod.block.pump;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Decides whether a vanilla piston is powered, the same way {@code PistonBaseBlock} does, using
+ * precomputed neighbour offsets per piston facing instead of looping over {@link Direction#values()}.
+ * <p>
+ * A piston is powered by a signal into any side but its face, by a signal into itself from below,
+ * or by quasi-connectivity through any side of the block above it but its bottom. The checks are
+ * ordered so the places banks are usually powered from (behind, below and above the piston) are
+ * tried first.
+ *
+ * @author Aiden Black
+ */
+public final class PistonPowerLookup {
+    /**
+     * number of signal checks made for any facing
+     */
+    private static final int CHECKS = 11;
+
+    /**
+     * x, y and z offsets from the piston of each check, by facing
+     */
+    private static final int[][] OFFSETS = new int[6][CHECKS * 3];
+    /**
+     * side each check asks for a signal from, by facing
+     */
+    private static final Direction[][] SIDES = new Direction[6][CHECKS];
+    /**
+     * cursor each thread moves over the checked positions, since every pump evaluation asks this
+     */
+    private static final ThreadLocal<BlockPos.MutableBlockPos> CURSORS = ThreadLocal.withInitial(BlockPos.MutableBlockPos::new);
+
+    static {
+        for (Direction facing : Direction.values()) {
+            int[] offsets = OFFSETS[facing.ordinal()];
+            Direction[] sides = SIDES[facing.ordinal()];
+            int check = 0;
+
+            // Direct neighbours, starting behind the piston
+            Direction[] directOrder = {facing.getOpposite(), Direction.DOWN, Direction.UP, Direction.NORTH, Direction.SOUTH, Direction.WEST, Direction.EAST};
+            for (Direction side : distinct(directOrder)) {
+                if (side == facing) continue;
+                check = put(offsets, sides, check, side.getStepX(), side.getStepY(), side.getStepZ(), side);
+            }
+
+            // A signal into the piston itself from below
+            check = put(offsets, sides, check, 0, 0, 0, Direction.DOWN);
+
+            // Quasi-connectivity through the block above
+            for (Direction side : new Direction[]{Direction.UP, Direction.NORTH, Direction.SOUTH, Direction.WEST, Direction.EAST}) {
+                check = put(offsets, sides, check, side.getStepX(), 1 + side.getStepY(), side.getStepZ(), side);
+            }
+        }
+    }
+
+    private PistonPowerLookup() {
+    }
+
+    /**
+     * Determines whether a piston is powered. The position handed to the access is only valid
+     * during its call.
+     *
+     * @param access       world to read signals from
+     * @param pistonPos    location of the piston
+     * @param pistonFacing direction the piston faces
+     * @return true if the piston is powered, false otherwise
+     */
+    public static boolean isPowered(PumpSignalAccess access, BlockPos pistonPos, Direction pistonFacing) {
+        int[] offsets = OFFSETS[pistonFacing.ordinal()];
+        Direction[] sides = SIDES[pistonFacing.ordinal()];
+        BlockPos.MutableBlockPos signalPos = CURSORS.get();
+
+        for (int check = 0; check < CHECKS; check++) {
+            signalPos.setWithOffset(pistonPos, offsets[check * 3], offsets[check * 3 + 1], offsets[check * 3 + 2]);
+            if (access.hasSignal(signalPos, sides[check])) return true;
+        }
+        return false;
+    }
+
+    private static int put(int[] offsets, Direction[] sides, int check, int x, int y, int z, Direction side) {
+        offsets[check * 3] = x;
+        offsets[check * 3 + 1] = y;
+        offsets[check * 3 + 2] = z;
+        sides[check] = side;
+        return check + 1;
+    }
+
+    private static Direction[] distinct(Direction[] order) {
+        return Arrays.stream(order).distinct().toArray(Direction[]::new);
+    }
+}
@@ -0,0 +1,25 @@
+package net.aiden.aircraftmod.block.pump;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockGetter;
+
+/**
+ * The read-only view of the world that air pump structure resolution needs: block states, world
+ * bounds and the current game time. The pump hot paths only read through this interface, so they
+ * can run against a live level or a stand-in world. Reading redstone signals as well takes a
+ * {@link PumpSignalAccess}.
+ *
+ * @author Aiden Black
+ */
+public interface PumpBlockAccess extends BlockGetter {
+    /**
+     * @param pos location to test
+     * @return true if the location is inside the world border
+     */
+    boolean isWithinWorldBorder(BlockPos pos);
+
+    /**
+     * @return game time of the world being read
+     */
+    long getGameTime();
+}
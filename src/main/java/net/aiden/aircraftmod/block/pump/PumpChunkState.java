@@ -0,0 +1,286 @@
+package net.aiden.aircraftmod.block.pump;
+
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.common.capabilities.CapabilityToken;
+import net.minecraftforge.common.capabilities.ICapabilitySerializable;
+import net.minecraftforge.common.util.LazyOptional;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The runtime state of every air pump in one chunk, for pumps that have no block entity. Each pump
+ * is one long in a sorted array: the upper half is the pump's section and its index inside the
+ * section, the lower half its cached opposition. The chunk saves the array as a single long array tag.
+ * <p>
+ * Only the opposition cache of {@link net.aiden.aircraftmod.block.entity.AirPumpBaseBlockEntity} is
+ * kept. Resolutions are not: a pump without a block entity resolves into the resolver's scratch
+ * resolution, so its block event usually resolves again instead of reusing it.
+ *
+ * @author Aiden Black
+ */
+public class PumpChunkState {
+    public static final Capability<PumpChunkState> CAPABILITY = CapabilityManager.get(new CapabilityToken<>() {
+    });
+
+    private static final int INITIAL_CAPACITY = 4;
+    /** added to a section's y so every section of any world height packs as a positive number */
+    private static final int SECTION_Y_OFFSET = 2048;
+
+    /** whether the opposition bits describe the opponent slot */
+    private static final int CACHED = 1;
+    /** whether the pump was opposed when the cache was filled */
+    private static final int OPPOSED = 1 << 1;
+    /** 3D data value of the direction the pump faced when the cache was filled */
+    private static final int FACING_SHIFT = 2;
+    private static final int FACING_MASK = 7 << FACING_SHIFT;
+
+    private final LevelChunk chunk;
+    private long[] entries = new long[0];
+    private int size;
+
+    /**
+     * @param chunk chunk whose pumps are stored, marked unsaved whenever they change
+     */
+    public PumpChunkState(LevelChunk chunk) {
+        this.chunk = chunk;
+    }
+
+    /**
+     * @return number of pumps stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return chunk whose pumps are stored
+     */
+    public LevelChunk getChunk() {
+        return chunk;
+    }
+
+    /**
+     * Starts storing a pump, with nothing cached. Adding a pump that is already stored does nothing.
+     *
+     * @param basePos pump base's location
+     * @return true if the pump was not stored before
+     */
+    public boolean add(BlockPos basePos) {
+        int key = key(basePos);
+        int index = indexOf(key);
+        if (index >= 0) return false;
+
+        index = -index - 1;
+        if (size == entries.length) entries = Arrays.copyOf(entries, Math.max(INITIAL_CAPACITY, size * 2));
+        System.arraycopy(entries, index, entries, index + 1, size - index);
+        entries[index] = (long) key << 32;
+        size++;
+        chunk.setUnsaved(true);
+        return true;
+    }
+
+    /**
+     * Stops storing a pump.
+     *
+     * @param basePos pump base's location
+     * @return true if the pump was stored
+     */
+    public boolean remove(BlockPos basePos) {
+        int index = indexOf(key(basePos));
+        if (index < 0) return false;
+
+        System.arraycopy(entries, index + 1, entries, index, size - index - 1);
+        size--;
+        if (size == 0) entries = new long[0];
+        chunk.setUnsaved(true);
+        return true;
+    }
+
+    /**
+     * @param basePos pump base's location
+     * @return true if the pump is stored
+     */
+    public boolean contains(BlockPos basePos) {
+        return indexOf(key(basePos)) >= 0;
+    }
+
+    /**
+     * Same as {@link net.aiden.aircraftmod.block.entity.AirPumpBaseBlockEntity#isOpposed}: only
+     * reads the level when the cached result has been invalidated. A pump that is not stored yet is
+     * added.
+     *
+     * @param level         spatial and network context
+     * @param basePos       pump base's location
+     * @param pumpDirection direction in which the pump faces
+     * @return true if the pump's extension is opposed by a powered piston, false otherwise
+     */
+    public boolean isOpposed(Level level, BlockPos basePos, Direction pumpDirection) {
+        int key = key(basePos);
+        int index = indexOf(key);
+        if (index < 0) {
+            add(basePos);
+            index = indexOf(key);
+        }
+
+        int bits = (int) entries[index];
+        if ((bits & CACHED) != 0 && (bits & FACING_MASK) >>> FACING_SHIFT == pumpDirection.get3DDataValue()) {
+            return (bits & OPPOSED) != 0;
+        }
+
+        BlockPos potentialPistonPos = basePos.relative(pumpDirection, 2);
+        LevelPumpBlockAccess access = LevelPumpBlockAccess.pinned(level, potentialPistonPos);
+        boolean opposed = AirPumpBaseBlock.isOpposedBy(access, potentialPistonPos, access.getBlockState(potentialPistonPos), pumpDirection);
+        bits = CACHED | (opposed ? OPPOSED : 0) | pumpDirection.get3DDataValue() << FACING_SHIFT;
+        entries[index] = (long) key << 32 | bits;
+        chunk.setUnsaved(true);
+        return opposed;
+    }
+
+    /**
+     * Forgets a pump's cached opposition so that its next check reads the level again.
+     *
+     * @param basePos pump base's location
+     */
+    public void invalidate(BlockPos basePos) {
+        int index = indexOf(key(basePos));
+        if (index >= 0) entries[index] &= ~CACHED;
+    }
+
+    /**
+     * Invalidates a pump's cached opposition if a neighbour change happened close enough to its
+     * opponent slot to affect the opponent piston's power.
+     *
+     * @param basePos     pump base's location
+     * @param neighborPos location of the block that changed
+     */
+    public void onNeighborChanged(BlockPos basePos, BlockPos neighborPos) {
+        int index = indexOf(key(basePos));
+        if (index < 0) return;
+
+        int bits = (int) entries[index];
+        if ((bits & CACHED) == 0) return;
+        Direction cachedDirection = Direction.from3DDataValue((bits & FACING_MASK) >>> FACING_SHIFT);
+        if (neighborPos.distManhattan(basePos.relative(cachedDirection, 2)) <= AirPumpWakeTracker.WATCH_RADIUS) {
+            entries[index] &= ~CACHED;
+        }
+    }
+
+    /**
+     * Calls the consumer with the location of every stored pump, from the lowest section up. The
+     * location is a mutable position reused between calls, so copy it to keep it.
+     *
+     * @param consumer called once per pump
+     */
+    public void forEachPump(Consumer<BlockPos> consumer) {
+        ChunkPos chunkPos = chunk.getPos();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < size; i++) {
+            int key = (int) (entries[i] >>> 32);
+            int sectionY = (key >>> 12) - SECTION_Y_OFFSET;
+            cursor.set(chunkPos.getMinBlockX() + (key & 15), SectionPos.sectionToBlockCoord(sectionY) + (key >>> 8 & 15), chunkPos.getMinBlockZ() + (key >>> 4 & 15));
+            consumer.accept(cursor);
+        }
+    }
+
+    /**
+     * Drops every pump whose block is no longer an air pump base, for example because the chunk was
+     * edited by something that does not run block callbacks.
+     */
+    public void pruneMissing() {
+        int kept = 0;
+        ChunkPos chunkPos = chunk.getPos();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < size; i++) {
+            int key = (int) (entries[i] >>> 32);
+            int sectionY = (key >>> 12) - SECTION_Y_OFFSET;
+            cursor.set(chunkPos.getMinBlockX() + (key & 15), SectionPos.sectionToBlockCoord(sectionY) + (key >>> 8 & 15), chunkPos.getMinBlockZ() + (key >>> 4 & 15));
+            BlockState state = chunk.getBlockState(cursor);
+            if (state.getBlock() instanceof AirPumpBaseBlock) entries[kept++] = entries[i];
+        }
+        if (kept != size) {
+            size = kept;
+            chunk.setUnsaved(true);
+        }
+    }
+
+    /**
+     * @return the stored pumps as one long per pump, in key order
+     */
+    public LongArrayTag save() {
+        return new LongArrayTag(Arrays.copyOf(entries, size));
+    }
+
+    /**
+     * Replaces the stored pumps with those of a saved array.
+     *
+     * @param tag array written by {@link #save()}
+     */
+    public void load(LongArrayTag tag) {
+        entries = tag.getAsLongArray().clone();
+        size = entries.length;
+        // Keys must stay sorted for the binary search, whatever wrote the array
+        Arrays.sort(entries);
+    }
+
+    private int indexOf(int key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleKey = (int) (entries[middle] >>> 32);
+            if (middleKey < key) low = middle + 1;
+            else if (middleKey > key) high = middle - 1;
+            else return middle;
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * @return the pump's section, offset to be positive, above its index inside the section
+     */
+    private static int key(BlockPos pos) {
+        int sectionY = SectionPos.blockToSectionCoord(pos.getY()) + SECTION_Y_OFFSET;
+        return sectionY << 12 | (pos.getY() & 15) << 8 | (pos.getZ() & 15) << 4 | (pos.getX() & 15);
+    }
+
+    /**
+     * Attaches a {@link PumpChunkState} to a chunk and saves it with the chunk.
+     */
+    public static class Provider implements ICapabilitySerializable<LongArrayTag> {
+        private final PumpChunkState state;
+        private final LazyOptional<PumpChunkState> optional;
+
+        public Provider(LevelChunk chunk) {
+            this.state = new PumpChunkState(chunk);
+            this.optional = LazyOptional.of(() -> state);
+        }
+
+        @Override
+        public @NotNull <T> LazyOptional<T> getCapability(@NotNull Capability<T> capability, @Nullable Direction side) {
+            return CAPABILITY.orEmpty(capability, optional);
+        }
+
+        @Override
+        public LongArrayTag serializeNBT() {
+            return state.save();
+        }
+
+        @Override
+        public void deserializeNBT(LongArrayTag tag) {
+            state.load(tag);
+        }
+    }
+}
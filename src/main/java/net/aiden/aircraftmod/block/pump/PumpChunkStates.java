@@ -0,0 +1,131 @@
+package net.aiden.aircraftmod.block.pump;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link PumpChunkState} of every loaded chunk of a level, by chunk position, so pumps without
+ * a block entity can find their state without going through the chunk's capabilities. Loading a
+ * chunk does for its stored pumps what {@link net.aiden.aircraftmod.block.entity.AirPumpBaseBlockEntity#onLoad}
+ * does for one pump, and unloading it stops watching them.
+ *
+ * @author Aiden Black
+ */
+public class PumpChunkStates {
+    private static final Map<ServerLevel, PumpChunkStates> STATES = new HashMap<>();
+
+    private final ServerLevel level;
+    private final Long2ObjectOpenHashMap<PumpChunkState> loaded = new Long2ObjectOpenHashMap<>();
+
+    private PumpChunkStates(ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Returns the chunk states of a level, creating the registry on first use.
+     *
+     * @param level server level the pumps live in
+     * @return the level's chunk states
+     */
+    public static PumpChunkStates get(ServerLevel level) {
+        return STATES.computeIfAbsent(level, PumpChunkStates::new);
+    }
+
+    /**
+     * Drops the chunk states of a level that is being unloaded.
+     *
+     * @param level level being unloaded
+     */
+    public static void remove(ServerLevel level) {
+        STATES.remove(level);
+    }
+
+    /**
+     * @param pos any location in the chunk
+     * @return state of the loaded chunk containing the location, or null if the chunk is not loaded
+     */
+    @Nullable
+    public PumpChunkState at(BlockPos pos) {
+        return loaded.get(ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ())));
+    }
+
+    /**
+     * Starts tracking a chunk that has just loaded, watches every pump stored in it and queues them
+     * for evaluation, since their surroundings may have changed while the chunk was unloaded.
+     *
+     * @param chunk chunk that has just loaded
+     */
+    public void onChunkLoad(LevelChunk chunk) {
+        PumpChunkState state = chunk.getCapability(PumpChunkState.CAPABILITY).orElse(null);
+        if (state == null) return;
+        loaded.put(chunk.getPos().toLong(), state);
+        if (state.size() == 0) return;
+
+        state.pruneMissing();
+        AirPumpWakeTracker tracker = AirPumpWakeTracker.get(level);
+        AirPumpUpdateQueue queue = AirPumpUpdateQueue.get(level);
+        PumpPressureNetworks networks = PumpPressureNetworks.get(level);
+        state.forEachPump(basePos -> {
+            BlockState baseState = chunk.getBlockState(basePos);
+            Direction pumpDirection = baseState.getValue(AirPumpBaseBlock.FACING);
+            if (!networks.contains(basePos)) networks.add(basePos, baseState.getValue(AirPumpBaseBlock.EXTENDED));
+            // A watched position in another chunk may have changed while this one was unloaded
+            if (!isWatchRegionInChunk(basePos, pumpDirection, chunk.getPos())) state.invalidate(basePos);
+            tracker.watch(basePos, pumpDirection);
+            queue.enqueue(basePos);
+        });
+    }
+
+    /**
+     * Stops tracking a chunk that is unloading and stops watching its pumps.
+     *
+     * @param chunk chunk that is unloading
+     */
+    public void onChunkUnload(LevelChunk chunk) {
+        PumpChunkState state = loaded.remove(chunk.getPos().toLong());
+        if (state == null || state.size() == 0) return;
+
+        AirPumpWakeTracker tracker = AirPumpWakeTracker.get(level);
+        state.forEachPump(tracker::unwatch);
+    }
+
+    /**
+     * Queues every pump of every loaded chunk, for when event-driven pumps are disabled.
+     *
+     * @param queue queue of the level
+     */
+    public void enqueueAll(AirPumpUpdateQueue queue) {
+        for (PumpChunkState state : loaded.values()) {
+            if (state.size() > 0) state.forEachPump(queue::enqueue);
+        }
+    }
+
+    private static boolean isWatchRegionInChunk(BlockPos basePos, Direction pumpDirection, ChunkPos chunkPos) {
+        BlockPos opponent = basePos.relative(pumpDirection, 2);
+        int radius = AirPumpWakeTracker.WATCH_RADIUS;
+        return SectionPos.blockToSectionCoord(opponent.getX() - radius) == chunkPos.x
+                && SectionPos.blockToSectionCoord(opponent.getX() + radius) == chunkPos.x
+                && SectionPos.blockToSectionCoord(opponent.getZ() - radius) == chunkPos.z
+                && SectionPos.blockToSectionCoord(opponent.getZ() + radius) == chunkPos.z;
+    }
+
+    /**
+     * @return number of pumps stored in the loaded chunks
+     */
+    public int getPumpCount() {
+        int count = 0;
+        for (PumpChunkState state : loaded.values()) count += state.size();
+        return count;
+    }
+}
@@ -0,0 +1,213 @@
+package net.aiden.aircraftmod.block.pump;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.item.scanner.ZirconScanIndex;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.lighting.LevelLightEngine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gathers the light checks of the blocks pumps change during a tick. A pump stroke changes the same
+ * few blocks several times in one tick (base, moving head, head, pushed line), and vanilla queues a
+ * light check on every one of those changes. Instead, pump block changes skip the check, the batcher
+ * remembers each changed position once together with the state it had before its first change, and
+ * at the end of the tick submits a check for every position whose light-relevant properties actually
+ * differ from that first state, sorted by chunk section.
+ * <p>
+ * The light engine still receives one check per position, since it takes no other kind of request,
+ * but positions that changed back within the tick cost nothing and the checks reach its queue
+ * grouped by section. Only server levels batch; clients update their light as vanilla does.
+ *
+ * @author Aiden Black
+ */
+public class PumpLightBatcher {
+    private static final Map<ServerLevel, PumpLightBatcher> BATCHERS = new HashMap<>();
+
+    /**
+     * {@link Level#setBlock} flag that makes it skip its own light check
+     */
+    private static final int SKIP_LIGHT_CHECK = 128;
+    /**
+     * neighbour shape updates left, as {@link Level#setBlock(BlockPos, BlockState, int)} starts with
+     */
+    private static final int SHAPE_UPDATE_DEPTH = 511;
+
+    private final ServerLevel level;
+    /** state each position had before its first pump change this tick, by packed position */
+    private final Long2ObjectLinkedOpenHashMap<BlockState> pending = new Long2ObjectLinkedOpenHashMap<>();
+    private long[] sorted = new long[64];
+
+    private long changes;
+    private long checks;
+    private long lastFlushChecks;
+    private long lastFlushSections;
+    private long lastFlushNanos;
+
+    private PumpLightBatcher(ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Returns the batcher for a level, creating it on first use.
+     *
+     * @param level server level the blocks are changed in
+     * @return the level's batcher
+     */
+    public static PumpLightBatcher get(ServerLevel level) {
+        return BATCHERS.computeIfAbsent(level, PumpLightBatcher::new);
+    }
+
+    /**
+     * Drops the batcher of a level that is being unloaded.
+     *
+     * @param level level being unloaded
+     */
+    public static void remove(ServerLevel level) {
+        BATCHERS.remove(level);
+    }
+
+    /**
+     * Changes a block for a pump, like {@link Level#setBlock(BlockPos, BlockState, int)}, but leaves
+     * its light check to the level's batcher. On clients this is a plain {@code setBlock}.
+     * <p>
+     * The neighbour shape updates the change causes are done here rather than by {@code setBlock},
+     * since {@code setBlock} passes its flags on to the neighbours it reshapes, and those must still
+     * check their own light.
+     *
+     * @param level spatial and network context
+     * @param pos   location of the block to change
+     * @param state new BlockState
+     * @param flags block update flags
+     * @return true if the block changed
+     */
+    public static boolean setBlock(Level level, BlockPos pos, BlockState state, int flags) {
+        if (!(level instanceof ServerLevel serverLevel)) return level.setBlock(pos, state, flags);
+
+        BlockState previous = level.getBlockState(pos);
+        if (!level.setBlock(pos, state, flags | Block.UPDATE_KNOWN_SHAPE | SKIP_LIGHT_CHECK)) return false;
+        get(serverLevel).changed(pos, previous);
+        // The change may skip the neighbour notification zircon scans are invalidated by
+        ZirconScanIndex.get(serverLevel).invalidate(pos);
+
+        if ((flags & Block.UPDATE_KNOWN_SHAPE) == 0 && level.getBlockState(pos) == state) {
+            int shapeFlags = flags & ~(Block.UPDATE_NEIGHBORS | Block.UPDATE_SUPPRESS_DROPS);
+            previous.updateIndirectNeighbourShapes(level, pos, shapeFlags, SHAPE_UPDATE_DEPTH);
+            state.updateNeighbourShapes(level, pos, shapeFlags, SHAPE_UPDATE_DEPTH);
+            state.updateIndirectNeighbourShapes(level, pos, shapeFlags, SHAPE_UPDATE_DEPTH);
+        }
+        return true;
+    }
+
+    /**
+     * Records a pump change. Without batching, checks the light right away when vanilla would have.
+     *
+     * @param pos      location of the changed block
+     * @param previous BlockState before the change
+     */
+    private void changed(BlockPos pos, BlockState previous) {
+        changes++;
+        if (AircraftModCommonConfigs.BATCH_LIGHT_UPDATES.get()) {
+            pending.putIfAbsent(pos.asLong(), previous);
+        } else if (needsCheck(pos, previous, level.getBlockState(pos))) {
+            checks++;
+            level.getChunkSource().getLightEngine().checkBlock(pos);
+        }
+    }
+
+    /**
+     * Submits the light checks of every position pumps changed this tick, section by section.
+     */
+    public void flush() {
+        int size = pending.size();
+        if (size == 0) {
+            lastFlushChecks = 0;
+            lastFlushSections = 0;
+            lastFlushNanos = 0;
+            return;
+        }
+
+        long start = System.nanoTime();
+        if (sorted.length < size) sorted = new long[Math.max(size, sorted.length * 2)];
+        int count = 0;
+        for (long pos : pending.keySet()) sorted[count++] = pos;
+        LongArrays.quickSort(sorted, 0, count, (a, b) -> Long.compare(SectionPos.blockToSection(a), SectionPos.blockToSection(b)));
+
+        LevelLightEngine lightEngine = level.getChunkSource().getLightEngine();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        long section = Long.MIN_VALUE;
+        long submitted = 0;
+        long sections = 0;
+        for (int i = 0; i < count; i++) {
+            cursor.set(sorted[i]);
+            // A chunk unloaded since the change is lit again when it next loads
+            if (!level.isLoaded(cursor) || !needsCheck(cursor, pending.get(sorted[i]), level.getBlockState(cursor))) continue;
+
+            long posSection = SectionPos.blockToSection(sorted[i]);
+            if (posSection != section) {
+                section = posSection;
+                sections++;
+            }
+            lightEngine.checkBlock(cursor.immutable());
+            submitted++;
+        }
+        pending.clear();
+
+        checks += submitted;
+        lastFlushChecks = submitted;
+        lastFlushSections = sections;
+        lastFlushNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Mirrors the test {@link Level#setBlock} uses to decide whether a change needs a light check.
+     */
+    private boolean needsCheck(BlockPos pos, BlockState previous, BlockState current) {
+        return previous != current && (previous.getLightBlock(level, pos) != current.getLightBlock(level, pos)
+                || previous.getLightEmission(level, pos) != current.getLightEmission(level, pos)
+                || previous.useShapeForLightOcclusion() || current.useShapeForLightOcclusion());
+    }
+
+    /**
+     * @return number of block changes pumps made since the level loaded
+     */
+    public long getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return number of light checks submitted for pump changes since the level loaded
+     */
+    public long getChecks() {
+        return checks;
+    }
+
+    /**
+     * @return number of light checks submitted by the last flush
+     */
+    public long getLastFlushChecks() {
+        return lastFlushChecks;
+    }
+
+    /**
+     * @return number of chunk sections the checks of the last flush fell in
+     */
+    public long getLastFlushSections() {
+        return lastFlushSections;
+    }
+
+    /**
+     * @return nanoseconds the last flush took to submit its checks
+     */
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+}
@@ -0,0 +1,69 @@
+package net.aiden.aircraftmod.block.pump;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.event.ForgeEventFactory;
+import net.minecraftforge.event.level.BlockEvent;
+
+import java.util.EnumSet;
+
+/**
+ * Sends the neighbour notifications of a pump stroke when {@code pumps.preciseNeighborUpdates} is on.
+ * <p>
+ * Every block a stroke changes lies on one straight span: the base, the head and the pushed line.
+ * Notifying each changed block's neighbours the way {@link Level#updateNeighborsAt} does tells the
+ * span's own blocks about each other, including the base, which then evaluates itself again for a
+ * move it has just made. Those blocks are moving pistons, moving heads or the acting base, none of
+ * which has anything to learn. Since the span is straight, the blocks outside it that need telling
+ * are simply the four side neighbours of each changed block and the two blocks past its ends, each
+ * reached from exactly one changed block, so the minimal set needs no bookkeeping to find.
+ * <p>
+ * Each changed block still fires Forge's neighbour notify event, limited to the sides actually
+ * notified, so listeners such as the {@link AirPumpWakeTracker} see every change.
+ *
+ * @author Aiden Black
+ */
+public class PumpNeighborNotifier {
+    /**
+     * directions in the order {@link Level#updateNeighborsAt} notifies them
+     */
+    private static final Direction[] UPDATE_ORDER = {Direction.WEST, Direction.EAST, Direction.DOWN, Direction.UP, Direction.NORTH, Direction.SOUTH};
+
+    /**
+     * Notifies the neighbours of some of the blocks of a stroke's span, skipping the span itself.
+     *
+     * @param level       spatial context
+     * @param start       location of the first block of the span, the pump base
+     * @param direction   direction the span runs in from the base, the pump's facing
+     * @param firstSource index along the span of the first changed block whose neighbours are notified
+     * @param lastSource  index along the span of the last changed block whose neighbours are notified
+     * @param spanLength  number of blocks in the span, none of which is notified
+     * @return number of neighbour notifications sent
+     */
+    public static int notifyStroke(Level level, BlockPos start, Direction direction, int firstSource, int lastSource, int spanLength) {
+        int notifications = 0;
+        BlockPos.MutableBlockPos source = new BlockPos.MutableBlockPos();
+        for (int index = firstSource; index <= lastSource; index++) {
+            source.setWithOffset(start, direction.getStepX() * index, direction.getStepY() * index, direction.getStepZ() * index);
+            BlockPos sourcePos = source.immutable();
+
+            EnumSet<Direction> sides = EnumSet.noneOf(Direction.class);
+            for (Direction side : UPDATE_ORDER) {
+                int target = side == direction ? index + 1 : side == direction.getOpposite() ? index - 1 : -1;
+                if (target < 0 || target >= spanLength) sides.add(side);
+            }
+
+            BlockState sourceState = level.getBlockState(sourcePos);
+            BlockEvent.NeighborNotifyEvent event = ForgeEventFactory.onNeighborNotify(level, sourcePos, sourceState, sides, false);
+            if (event.isCanceled()) continue;
+            for (Direction side : UPDATE_ORDER) {
+                if (!event.getNotifiedSides().contains(side)) continue;
+                level.neighborChanged(sourcePos.relative(side), sourceState.getBlock(), sourcePos);
+                notifications++;
+            }
+        }
+        return notifications;
+    }
+}
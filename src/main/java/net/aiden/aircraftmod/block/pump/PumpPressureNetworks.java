@@ -0,0 +1,399 @@
+package net.aiden.aircraftmod.block.pump;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.block.ModBlocks;
+import net.aiden.aircraftmod.block.entity.AirPumpMovingBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.piston.PistonMovingBlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.saveddata.SavedData;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The air-pressure networks of a level: every group of pump bases that touch one another, directly
+ * or through other pump bases, shares one network. Networks are kept in a union-find over packed
+ * base positions, saved with the level so they survive restarts without being rebuilt.
+ * <p>
+ * Placing a pump joins it to the networks of its neighbours in near-constant time. Union-find cannot
+ * split, so breaking a pump only leaves a tombstone and marks its network broken; the network is
+ * rebuilt from its own members, and only them, the next time anything reads it. Pressure is cached
+ * per network and only counted again when read after one of its pumps extended or retracted.
+ * <p>
+ * Each network's members form a ring through {@link #next}, so two rings are spliced into one in
+ * constant time on a union, and a network can list its members without scanning the whole level.
+ * <p>
+ * A pump held by a moving block is only lifted: it stays in its network while it moves, and landing
+ * back where it was, as a retracting pump does on every stroke, changes nothing but its extension.
+ * Only a lifted pump that ends up elsewhere, or not at all, is removed once its move is settled.
+ *
+ * @author Aiden Black
+ */
+public class PumpPressureNetworks extends SavedData {
+    private static final String DATA_NAME = AircraftMod.MOD_ID + "_pressure_networks";
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /** parent of each member on the way to its network's root; a root is its own parent */
+    private final Long2LongOpenHashMap parents = new Long2LongOpenHashMap();
+    /** next member of the same network, in a ring */
+    private final Long2LongOpenHashMap next = new Long2LongOpenHashMap();
+    /** members of each root's network, tombstones included */
+    private final Long2IntOpenHashMap sizes = new Long2IntOpenHashMap();
+    /** members whose pump is extended */
+    private final LongOpenHashSet extended = new LongOpenHashSet();
+    /** members whose pump was broken, kept until their network is rebuilt */
+    private final LongOpenHashSet removed = new LongOpenHashSet();
+    /** members whose pump is held by a moving block and may land back in place */
+    private final LongOpenHashSet lifted = new LongOpenHashSet();
+    /** roots of networks that may have been split by a broken pump */
+    private final LongOpenHashSet broken = new LongOpenHashSet();
+    /** cached pressure of each root's network, missing when it must be counted again */
+    private final Long2IntOpenHashMap pressures = new Long2IntOpenHashMap();
+
+    private PumpPressureNetworks() {
+        pressures.defaultReturnValue(-1);
+    }
+
+    /**
+     * Returns the pressure networks of a level, loading them from the level's saved data on first use.
+     *
+     * @param level server level the pumps live in
+     * @return the level's pressure networks
+     */
+    public static PumpPressureNetworks get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(PumpPressureNetworks::load, PumpPressureNetworks::new, DATA_NAME);
+    }
+
+    /**
+     * Adds a pump that has just been placed and joins it to the networks of the pumps it touches.
+     *
+     * @param basePos  pump base's location
+     * @param extended whether the pump is placed extended
+     */
+    public void add(BlockPos basePos, boolean extended) {
+        long pos = basePos.asLong();
+        if (!removed.remove(pos) && !parents.containsKey(pos)) {
+            parents.put(pos, pos);
+            next.put(pos, pos);
+            sizes.put(pos, 1);
+        }
+        setExtended(pos, extended);
+
+        for (Direction direction : DIRECTIONS) {
+            long neighbor = BlockPos.offset(pos, direction);
+            if (parents.containsKey(neighbor) && !removed.contains(neighbor)) union(pos, neighbor);
+        }
+        setDirty();
+    }
+
+    /**
+     * Removes a pump that has just been broken. Its network is rebuilt the next time it is read.
+     *
+     * @param basePos pump base's location
+     */
+    public void remove(BlockPos basePos) {
+        long pos = basePos.asLong();
+        if (!parents.containsKey(pos) || !removed.add(pos)) return;
+
+        long root = find(pos);
+        lifted.remove(pos);
+        extended.remove(pos);
+        broken.add(root);
+        pressures.remove(root);
+        setDirty();
+    }
+
+    /**
+     * Lifts a pump that a moving block has just replaced. It stays in its network until its move is
+     * settled, so a pump that lands back in place never breaks its network.
+     *
+     * @param basePos pump base's location
+     */
+    public void lift(BlockPos basePos) {
+        long pos = basePos.asLong();
+        if (parents.containsKey(pos) && !removed.contains(pos) && lifted.add(pos)) setDirty();
+    }
+
+    /**
+     * Places a pump that a moving block has just left. A pump landing where it was lifted keeps its
+     * network; any other pump is added as if placed.
+     *
+     * @param basePos  pump base's location
+     * @param extended whether the pump lands extended
+     */
+    public void land(BlockPos basePos, boolean extended) {
+        if (lifted.remove(basePos.asLong())) {
+            setExtended(basePos, extended);
+        } else {
+            add(basePos, extended);
+        }
+    }
+
+    /**
+     * Removes every lifted pump whose position no longer holds a moving block carrying it back, the
+     * pump having been moved elsewhere or destroyed mid-move. Run at the end of every level tick.
+     *
+     * @param level level the pumps live in
+     */
+    public void settle(ServerLevel level) {
+        if (lifted.isEmpty()) return;
+
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (LongIterator iterator = lifted.iterator(); iterator.hasNext(); ) {
+            long pos = iterator.nextLong();
+            cursor.set(pos);
+            // A lifted pump in an unloaded chunk lands when the chunk loads again
+            if (!level.isLoaded(cursor) || isLanding(level, cursor)) continue;
+
+            iterator.remove();
+            remove(cursor);
+        }
+    }
+
+    /**
+     * @return true if the block at a position is a moving block that will place a pump base there
+     */
+    private static boolean isLanding(ServerLevel level, BlockPos pos) {
+        BlockEntity blockEntity = level.getBlockEntity(pos);
+        BlockState movedState = blockEntity instanceof PistonMovingBlockEntity piston ? piston.getMovedState()
+                : blockEntity instanceof AirPumpMovingBlockEntity movingHead ? movingHead.getMovedState() : null;
+        return movedState != null && movedState.is(ModBlocks.AIR_PUMP_BASE.get());
+    }
+
+    /**
+     * Records that a pump extended or retracted, so that its network's pressure is counted again
+     * when next read.
+     *
+     * @param basePos  pump base's location
+     * @param extended whether the pump is now extended
+     */
+    public void setExtended(BlockPos basePos, boolean extended) {
+        long pos = basePos.asLong();
+        if (parents.containsKey(pos) && setExtended(pos, extended)) setDirty();
+    }
+
+    /**
+     * @param basePos pump base's location
+     * @return true if the pump belongs to a network
+     */
+    public boolean contains(BlockPos basePos) {
+        long pos = basePos.asLong();
+        return parents.containsKey(pos) && !removed.contains(pos);
+    }
+
+    /**
+     * Returns an identifier of the pump's network, the same for every pump of the network until a
+     * pump is added to or removed from it.
+     *
+     * @param basePos pump base's location
+     * @return packed position of the network's root, or {@link Long#MIN_VALUE} if the pump belongs to no network
+     */
+    public long getNetworkId(BlockPos basePos) {
+        return contains(basePos) ? currentRoot(basePos.asLong()) : Long.MIN_VALUE;
+    }
+
+    /**
+     * @param basePos pump base's location
+     * @return number of pumps in the pump's network, or 0 if it belongs to no network
+     */
+    public int getNetworkSize(BlockPos basePos) {
+        return contains(basePos) ? sizes.get(currentRoot(basePos.asLong())) : 0;
+    }
+
+    /**
+     * Returns the pressure of the pump's network: the number of its pumps that are extended and
+     * pushing air into it. Counted only when a pump of the network changed since the last read.
+     *
+     * @param basePos pump base's location
+     * @return pressure of the pump's network, or 0 if it belongs to no network
+     */
+    public int getPressure(BlockPos basePos) {
+        if (!contains(basePos)) return 0;
+
+        long root = currentRoot(basePos.asLong());
+        int pressure = pressures.get(root);
+        if (pressure < 0) {
+            pressure = 0;
+            long member = root;
+            do {
+                if (extended.contains(member)) pressure++;
+                member = next.get(member);
+            } while (member != root);
+            pressures.put(root, pressure);
+        }
+        return pressure;
+    }
+
+    /**
+     * @return number of pumps in every network of the level
+     */
+    public int getPumpCount() {
+        return parents.size() - removed.size();
+    }
+
+    /**
+     * @return root of a member's network, after rebuilding the network if a pump was broken from it
+     */
+    private long currentRoot(long pos) {
+        long root = find(pos);
+        if (broken.contains(root)) {
+            rebuild(root);
+            root = find(pos);
+        }
+        return root;
+    }
+
+    /**
+     * Finds the root of a member's network, halving the path to it on the way.
+     */
+    private long find(long pos) {
+        long parent = parents.get(pos);
+        while (parent != pos) {
+            long grandparent = parents.get(parent);
+            parents.put(pos, grandparent);
+            pos = grandparent;
+            parent = parents.get(pos);
+        }
+        return pos;
+    }
+
+    /**
+     * Merges the networks of two members, hanging the smaller under the larger.
+     */
+    private void union(long a, long b) {
+        long rootA = find(a);
+        long rootB = find(b);
+        if (rootA == rootB) return;
+
+        int sizeA = sizes.get(rootA);
+        int sizeB = sizes.get(rootB);
+        if (sizeA < sizeB) {
+            long swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parents.put(rootB, rootA);
+        sizes.put(rootA, sizeA + sizeB);
+        sizes.remove(rootB);
+
+        // Splice the two rings by swapping their roots' successors
+        long nextA = next.get(rootA);
+        next.put(rootA, next.get(rootB));
+        next.put(rootB, nextA);
+
+        if (broken.remove(rootB)) broken.add(rootA);
+        pressures.remove(rootA);
+        pressures.remove(rootB);
+    }
+
+    /**
+     * Splits a broken network back into the networks of its remaining pumps and drops its
+     * tombstones. Only the network's own members are visited.
+     */
+    private void rebuild(long root) {
+        LongArrayList members = new LongArrayList(sizes.get(root));
+        long member = root;
+        do {
+            members.add(member);
+            member = next.get(member);
+        } while (member != root);
+
+        broken.remove(root);
+        pressures.remove(root);
+        sizes.remove(root);
+        for (int i = 0; i < members.size(); i++) {
+            long pos = members.getLong(i);
+            if (removed.remove(pos)) {
+                parents.remove(pos);
+                next.remove(pos);
+            } else {
+                parents.put(pos, pos);
+                next.put(pos, pos);
+                sizes.put(pos, 1);
+            }
+        }
+        // Any remaining neighbour of a member was in the same network, so joining neighbours is enough.
+        // A neighbour may still be a tombstone of another network that has not been rebuilt yet.
+        for (int i = 0; i < members.size(); i++) {
+            long pos = members.getLong(i);
+            if (!parents.containsKey(pos)) continue;
+            for (Direction direction : DIRECTIONS) {
+                long neighbor = BlockPos.offset(pos, direction);
+                if (parents.containsKey(neighbor) && !removed.contains(neighbor)) union(pos, neighbor);
+            }
+        }
+    }
+
+    /**
+     * @return true if the member's extension changed
+     */
+    private boolean setExtended(long pos, boolean isExtended) {
+        boolean changed = isExtended ? extended.add(pos) : extended.remove(pos);
+        if (changed) pressures.remove(find(pos));
+        return changed;
+    }
+
+    /**
+     * Saves every remaining pump with the root of its network, rebuilding broken networks first so
+     * that no tombstones are written. Lifted pumps are saved as members and listed as lifted, since
+     * their moving blocks are saved with their chunks and land them again once loaded.
+     *
+     * @param tag tag to save into
+     * @return the same tag
+     */
+    @Override
+    public @NotNull CompoundTag save(@NotNull CompoundTag tag) {
+        while (!broken.isEmpty()) rebuild(broken.iterator().nextLong());
+
+        long[] pumps = new long[parents.size()];
+        long[] roots = new long[pumps.length];
+        int i = 0;
+        for (LongIterator iterator = parents.keySet().iterator(); iterator.hasNext(); i++) {
+            pumps[i] = iterator.nextLong();
+            roots[i] = find(pumps[i]);
+        }
+        tag.putLongArray("pumps", pumps);
+        tag.putLongArray("roots", roots);
+        tag.putLongArray("extended", extended.toLongArray());
+        tag.putLongArray("lifted", lifted.toLongArray());
+        return tag;
+    }
+
+    private static PumpPressureNetworks load(CompoundTag tag) {
+        PumpPressureNetworks networks = new PumpPressureNetworks();
+        long[] pumps = tag.getLongArray("pumps");
+        long[] roots = tag.getLongArray("roots");
+        if (roots.length != pumps.length) roots = pumps;
+
+        for (long pump : pumps) {
+            networks.parents.put(pump, pump);
+            networks.next.put(pump, pump);
+        }
+        for (int i = 0; i < pumps.length; i++) {
+            long pump = pumps[i];
+            // A root that is not a pump itself can only come from a damaged file
+            long root = networks.parents.containsKey(roots[i]) && roots[i] == networks.parents.get(roots[i]) ? roots[i] : pump;
+            networks.sizes.addTo(root, 1);
+            if (root == pump) continue;
+
+            networks.parents.put(pump, root);
+            networks.next.put(pump, networks.next.get(root));
+            networks.next.put(root, pump);
+        }
+        for (long pump : tag.getLongArray("extended")) {
+            if (networks.parents.containsKey(pump)) networks.extended.add(pump);
+        }
+        for (long pump : tag.getLongArray("lifted")) {
+            if (networks.parents.containsKey(pump)) networks.lifted.add(pump);
+        }
+        return networks;
+    }
+}
@@ -0,0 +1,114 @@
+package net.aiden.aircraftmod.block.pump;
+
+import net.aiden.aircraftmod.AircraftMod;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.piston.PistonBaseBlock;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Set;
+
+/**
+ * How air pumps treat every BlockState, worked out once and kept in a table indexed by block state
+ * id, so that checking a block in a pump's way is a lookup instead of a chain of tests.
+ * <p>
+ * Blocks in the {@code aircraftmod:pump_immovable} tag can never be pushed. The table is rebuilt
+ * whenever tags are (re)loaded, including by {@code /reload}. Until tags have been loaded once,
+ * states are classified on every lookup using the tag's built-in defaults.
+ *
+ * @author Aiden Black
+ */
+public final class PumpPushability {
+    /**
+     * blocks no air pump can push, whatever their push reaction
+     */
+    public static final TagKey<Block> IMMOVABLE_TAG = BlockTags.create(new ResourceLocation(AircraftMod.MOD_ID, "pump_immovable"));
+
+    /** nothing to push */
+    public static final byte AIR = 0;
+    /** pushed along with the line */
+    public static final byte MOVABLE = 1;
+    /** broken when pushed */
+    public static final byte DESTROY = 2;
+    /** stops the pump */
+    public static final byte IMMOVABLE = 3;
+
+    /**
+     * contents of the tag shipped with the mod, used before any tags have loaded
+     */
+    private static final Set<Block> DEFAULT_IMMOVABLE = Set.of(Blocks.OBSIDIAN, Blocks.CRYING_OBSIDIAN, Blocks.RESPAWN_ANCHOR, Blocks.REINFORCED_DEEPSLATE);
+
+    private static volatile byte[] table;
+    private static volatile boolean tagsLoaded;
+
+    private PumpPushability() {
+    }
+
+    /**
+     * Looks up how pumps treat a state.
+     *
+     * @param state BlockState in a pump's way
+     * @return {@link #AIR}, {@link #MOVABLE}, {@link #DESTROY} or {@link #IMMOVABLE}
+     */
+    public static byte get(BlockState state) {
+        byte[] lookup = table;
+        int id = Block.getId(state);
+        if (lookup != null && id >= 0 && id < lookup.length) return lookup[id];
+        return classify(state);
+    }
+
+    /**
+     * Rebuilds the table after tags have been loaded or reloaded.
+     */
+    public static void onTagsUpdated() {
+        tagsLoaded = true;
+        rebuild();
+    }
+
+    /**
+     * Classifies every registered BlockState into a fresh table.
+     */
+    public static void rebuild() {
+        byte[] rebuilt = new byte[Block.BLOCK_STATE_REGISTRY.size()];
+        for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+            int id = Block.getId(state);
+            if (id >= 0 && id < rebuilt.length) rebuilt[id] = classify(state);
+        }
+        table = rebuilt;
+    }
+
+    /**
+     * Works out how pumps treat a state, following the same rules as vanilla pistons apart from
+     * the immovable tag. The rules only depend on the state, never on where it is.
+     *
+     * @param state BlockState to classify
+     * @return {@link #AIR}, {@link #MOVABLE}, {@link #DESTROY} or {@link #IMMOVABLE}
+     */
+    private static byte classify(BlockState state) {
+        if (state.isAir()) return AIR;
+        if (tagsLoaded ? state.is(IMMOVABLE_TAG) : DEFAULT_IMMOVABLE.contains(state.getBlock())) return IMMOVABLE;
+
+        if (state.is(Blocks.PISTON) || state.is(Blocks.STICKY_PISTON)) {
+            return state.getValue(PistonBaseBlock.EXTENDED) || state.hasBlockEntity() ? IMMOVABLE : MOVABLE;
+        }
+        if (state.getDestroySpeed(EmptyBlockGetter.INSTANCE, BlockPos.ZERO) == -1.0F) return IMMOVABLE;
+
+        switch (state.getPistonPushReaction()) {
+            case BLOCK -> {
+                return IMMOVABLE;
+            }
+            case DESTROY -> {
+                return DESTROY;
+            }
+            case PUSH_ONLY -> {
+                return MOVABLE;
+            }
+        }
+        return state.hasBlockEntity() ? IMMOVABLE : MOVABLE;
+    }
+}
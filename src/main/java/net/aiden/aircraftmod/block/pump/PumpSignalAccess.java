@@ -0,0 +1,22 @@
+package net.aiden.aircraftmod.block.pump;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+/**
+ * A {@link PumpBlockAccess} that can also read redstone signals, which deciding whether a pump is
+ * opposed by a powered piston needs. Structure resolution never reads signals, so views that only
+ * hold block states, such as section snapshots, need not offer them.
+ *
+ * @author Aiden Black
+ */
+public interface PumpSignalAccess extends PumpBlockAccess {
+    /**
+     * Same as {@link net.minecraft.world.level.Level#hasSignal}.
+     *
+     * @param pos  location the signal is read at
+     * @param side side the signal is read from
+     * @return true if there is a signal, false otherwise
+     */
+    boolean hasSignal(BlockPos pos, Direction side);
+}
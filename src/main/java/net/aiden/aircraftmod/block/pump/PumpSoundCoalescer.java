@@ -0,0 +1,174 @@
+package net.aiden.aircraftmod.block.pump;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.sounds.SoundSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges the sounds of pumps that move together. Instead of broadcasting one sound per pump, the
+ * sounds played during a tick are grouped by sound and by cube of {@code soundMergeRadius} blocks,
+ * and each group is played once at the end of the tick from the middle of its pumps, louder the
+ * more pumps it stands for.
+ * <p>
+ * Grouping by cube rather than by true distance keeps each sound a single hash lookup; two pumps
+ * next to each other may still land in neighbouring cubes and be heard twice.
+ *
+ * @author Aiden Black
+ */
+public class PumpSoundCoalescer {
+    private static final Map<ServerLevel, PumpSoundCoalescer> COALESCERS = new HashMap<>();
+
+    /**
+     * loudest a merged sound may get, as a multiple of the loudest sound merged into it
+     */
+    private static final float MAX_VOLUME_MULTIPLIER = 4.0F;
+
+    private final ServerLevel level;
+    /** index in {@link #pending} of each sound's groups, by packed cube position */
+    private final Map<SoundEvent, Long2IntOpenHashMap> groupsBySound = new IdentityHashMap<>();
+    /** groups collected this tick, followed by spare groups kept for reuse */
+    private final List<SoundGroup> pending = new ArrayList<>();
+    private int pendingCount;
+
+    private long requested;
+    private long played;
+
+    private PumpSoundCoalescer(ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Returns the coalescer for a level, creating it on first use.
+     *
+     * @param level server level the sounds are played in
+     * @return the level's coalescer
+     */
+    public static PumpSoundCoalescer get(ServerLevel level) {
+        return COALESCERS.computeIfAbsent(level, PumpSoundCoalescer::new);
+    }
+
+    /**
+     * Drops the coalescer of a level that is being unloaded.
+     *
+     * @param level level being unloaded
+     */
+    public static void remove(ServerLevel level) {
+        COALESCERS.remove(level);
+    }
+
+    /**
+     * Plays a sound at the end of the tick, merged with the same sound from nearby pumps. Plays it
+     * right away if merging is turned off.
+     *
+     * @param pos    location of the pump making the sound
+     * @param sound  sound to play
+     * @param source category the sound is played in
+     * @param volume volume of the sound on its own
+     * @param pitch  pitch of the sound
+     */
+    public void play(BlockPos pos, SoundEvent sound, SoundSource source, float volume, float pitch) {
+        requested++;
+        int radius = AircraftModCommonConfigs.SOUND_MERGE_RADIUS.get();
+        if (radius == 0) {
+            played++;
+            level.playSound(null, pos, sound, source, volume, pitch);
+            return;
+        }
+
+        long cube = BlockPos.asLong(Math.floorDiv(pos.getX(), radius), Math.floorDiv(pos.getY(), radius), Math.floorDiv(pos.getZ(), radius));
+        Long2IntOpenHashMap groups = groupsBySound.computeIfAbsent(sound, key -> {
+            Long2IntOpenHashMap map = new Long2IntOpenHashMap();
+            map.defaultReturnValue(-1);
+            return map;
+        });
+
+        int index = groups.get(cube);
+        if (index == -1) {
+            index = pendingCount++;
+            if (index == pending.size()) pending.add(new SoundGroup());
+            pending.get(index).begin(sound, source, pitch);
+            groups.put(cube, index);
+        }
+        pending.get(index).add(pos, volume);
+    }
+
+    /**
+     * Plays every group collected this tick.
+     */
+    public void flush() {
+        if (pendingCount == 0) return;
+
+        for (int i = 0; i < pendingCount; i++) {
+            SoundGroup group = pending.get(i);
+            float volume = group.maxVolume * Math.min(MAX_VOLUME_MULTIPLIER, (float) Math.sqrt(group.count));
+            level.playSound(null, group.x / group.count, group.y / group.count, group.z / group.count, group.sound, group.source, volume, group.pitch);
+            group.sound = null;
+        }
+        played += pendingCount;
+        pendingCount = 0;
+        for (Long2IntOpenHashMap groups : groupsBySound.values()) groups.clear();
+    }
+
+    /**
+     * @return number of sounds pumps asked to play since the level loaded
+     */
+    public long getRequested() {
+        return requested;
+    }
+
+    /**
+     * @return number of sounds actually broadcast since the level loaded
+     */
+    public long getPlayed() {
+        return played;
+    }
+
+    /**
+     * @return number of sounds that were merged into another one rather than broadcast
+     */
+    public long getMerged() {
+        return requested - pendingCount - played;
+    }
+
+    /**
+     * Sounds merged into one, with the sum of their positions so the middle can be found.
+     */
+    private static class SoundGroup {
+        SoundEvent sound;
+        SoundSource source;
+        float pitch;
+        float maxVolume;
+        double x;
+        double y;
+        double z;
+        int count;
+
+        void begin(SoundEvent sound, SoundSource source, float pitch) {
+            this.sound = sound;
+            this.source = source;
+            this.pitch = pitch;
+            this.maxVolume = 0;
+            this.x = 0;
+            this.y = 0;
+            this.z = 0;
+            this.count = 0;
+        }
+
+        void add(BlockPos pos, float volume) {
+            maxVolume = Math.max(maxVolume, volume);
+            x += pos.getX() + 0.5;
+            y += pos.getY() + 0.5;
+            z += pos.getZ() + 0.5;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package net.aiden.aircraftmod.block.pump;
+
+/**
+ * Where air pumps keep their runtime state, chosen by the {@code pumps.stateStorage} setting.
+ *
+ * @author Aiden Black
+ */
+public enum PumpStateStorage {
+    /** one {@link net.aiden.aircraftmod.block.entity.AirPumpBaseBlockEntity} per pump */
+    BLOCK_ENTITY,
+    /** one packed {@link PumpChunkState} per chunk, and no block entities */
+    CHUNK
+}
@@ -0,0 +1,120 @@
+package net.aiden.aircraftmod.block.pump;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ShortOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers redstone signal queries made during one tick, so that pumps opposed by the same piston
+ * bank do not ask the level about the same positions over and over.
+ * <p>
+ * Entries are grouped by chunk. Whenever a block notifies its neighbours, the chunks it could affect
+ * are forgotten, and everything is forgotten when a new tick starts. Each position keeps one
+ * "known" bit and one "powered" bit per side.
+ *
+ * @author Aiden Black
+ */
+public class RedstoneSignalCache {
+    private static final Map<ServerLevel, RedstoneSignalCache> CACHES = new HashMap<>();
+
+    /**
+     * chunks cached at once before the whole cache is dropped rather than cleared in place
+     */
+    private static final int MAX_CACHED_CHUNKS = 256;
+
+    private final Long2ObjectOpenHashMap<Long2ShortOpenHashMap> signalsByChunk = new Long2ObjectOpenHashMap<>();
+    private long gameTime = Long.MIN_VALUE;
+
+    private RedstoneSignalCache() {
+    }
+
+    /**
+     * Returns the cache for a level, creating it on first use.
+     *
+     * @param level server level being queried
+     * @return the level's cache
+     */
+    public static RedstoneSignalCache get(ServerLevel level) {
+        return CACHES.computeIfAbsent(level, key -> new RedstoneSignalCache());
+    }
+
+    /**
+     * Drops the cache of a level that is being unloaded.
+     *
+     * @param level level being unloaded
+     */
+    public static void remove(ServerLevel level) {
+        CACHES.remove(level);
+    }
+
+    /**
+     * Same as {@link Level#hasSignal}, answered from the cache when the question was already asked this tick.
+     *
+     * @param level     spatial and network context
+     * @param signalPos location the signal is read at
+     * @param side      side the signal is read from
+     * @return true if there is a signal, false otherwise
+     */
+    public boolean hasSignal(Level level, BlockPos signalPos, Direction side) {
+        if (level.getGameTime() != gameTime) {
+            clear();
+            gameTime = level.getGameTime();
+        }
+
+        long chunk = ChunkPos.asLong(SectionPos.blockToSectionCoord(signalPos.getX()), SectionPos.blockToSectionCoord(signalPos.getZ()));
+        Long2ShortOpenHashMap signals = signalsByChunk.get(chunk);
+        if (signals == null) {
+            signals = new Long2ShortOpenHashMap();
+            signalsByChunk.put(chunk, signals);
+        }
+
+        long key = signalPos.asLong();
+        int bits = signals.get(key);
+        int known = 1 << side.ordinal();
+        int powered = known << 6;
+        if ((bits & known) != 0) return (bits & powered) != 0;
+
+        boolean hasSignal = level.hasSignal(signalPos, side);
+        signals.put(key, (short) (bits | known | (hasSignal ? powered : 0)));
+        return hasSignal;
+    }
+
+    /**
+     * Forgets every answer that a change at the given position could have made stale. A signal
+     * depends on the block it is read at and that block's direct neighbours.
+     *
+     * @param changedPos location of the block that changed or is notifying its neighbours
+     */
+    public void invalidate(BlockPos changedPos) {
+        if (signalsByChunk.isEmpty()) return;
+
+        int minChunkX = SectionPos.blockToSectionCoord(changedPos.getX() - 1);
+        int maxChunkX = SectionPos.blockToSectionCoord(changedPos.getX() + 1);
+        int minChunkZ = SectionPos.blockToSectionCoord(changedPos.getZ() - 1);
+        int maxChunkZ = SectionPos.blockToSectionCoord(changedPos.getZ() + 1);
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                Long2ShortOpenHashMap signals = signalsByChunk.get(ChunkPos.asLong(chunkX, chunkZ));
+                if (signals != null) signals.clear();
+            }
+        }
+    }
+
+    private void clear() {
+        if (signalsByChunk.size() > MAX_CACHED_CHUNKS) {
+            signalsByChunk.clear();
+        } else {
+            for (Long2ShortOpenHashMap signals : signalsByChunk.values()) {
+                signals.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package net.aiden.aircraftmod.block.pump;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link PumpBlockAccess} that can pin the chunk around a pump once per evaluation and then read
+ * block states straight out of its sections, instead of looking the chunk up again for every read.
+ * Reads outside the pinned chunk, or when nothing is pinned, go through
+ * {@link #getUnpinnedBlockState}.
+ *
+ * @author Aiden Black
+ */
+public abstract class SectionPinnedBlockAccess implements PumpBlockAccess {
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+
+    @Nullable
+    private LevelChunkSection[] pinnedSections;
+    private int pinnedChunkX;
+    private int pinnedChunkZ;
+    private int pinnedMinSection;
+
+    /**
+     * Looks up the sections of a loaded chunk without loading it.
+     *
+     * @param chunkX chunk's x coordinate
+     * @param chunkZ chunk's z coordinate
+     * @return the chunk's sections from bottom to top, or null if the chunk is not loaded
+     */
+    @Nullable
+    protected abstract LevelChunkSection[] lookupSections(int chunkX, int chunkZ);
+
+    /**
+     * Reads a block state the ordinary way, for positions outside the pinned chunk.
+     *
+     * @param pos location to read
+     * @return BlockState at the location
+     */
+    protected abstract BlockState getUnpinnedBlockState(BlockPos pos);
+
+    /**
+     * Pins the chunk containing a position, so reads inside it skip the chunk lookup. If the chunk
+     * is not loaded, nothing is pinned and every read takes the ordinary path.
+     *
+     * @param center location whose chunk should be pinned
+     */
+    public void pin(BlockPos center) {
+        int chunkX = SectionPos.blockToSectionCoord(center.getX());
+        int chunkZ = SectionPos.blockToSectionCoord(center.getZ());
+        if (pinnedSections != null && chunkX == pinnedChunkX && chunkZ == pinnedChunkZ) return;
+
+        pinnedSections = lookupSections(chunkX, chunkZ);
+        pinnedChunkX = chunkX;
+        pinnedChunkZ = chunkZ;
+        pinnedMinSection = getMinSection();
+    }
+
+    /**
+     * Forgets the pinned chunk. Call it whenever the chunk may have been unloaded or the access is
+     * pointed at another world.
+     */
+    public void unpin() {
+        pinnedSections = null;
+    }
+
+    @Override
+    public @NotNull BlockState getBlockState(@NotNull BlockPos pos) {
+        LevelChunkSection[] sections = pinnedSections;
+        if (sections != null && SectionPos.blockToSectionCoord(pos.getX()) == pinnedChunkX && SectionPos.blockToSectionCoord(pos.getZ()) == pinnedChunkZ) {
+            int sectionIndex = SectionPos.blockToSectionCoord(pos.getY()) - pinnedMinSection;
+            if (sectionIndex >= 0 && sectionIndex < sections.length) {
+                LevelChunkSection section = sections[sectionIndex];
+                return section.hasOnlyAir() ? AIR : section.getBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+            }
+        }
+        return getUnpinnedBlockState(pos);
+    }
+}
@@ -0,0 +1,162 @@
+package net.aiden.aircraftmod.block.pump;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.border.WorldBorder;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.material.FluidState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link PumpBlockAccess} over copies of chunk sections taken on the server thread, so structure
+ * resolution can read them from worker threads while the level stays untouched. Sections are only
+ * captured along the lines pumps will walk, each one once however many pumps read it.
+ * <p>
+ * Capturing happens on the server thread; once the captures are handed to the workers, the access
+ * is only read, so any number of threads may resolve against it at once. Reading a section that was
+ * not captured is a bug in the caller and throws. Redstone is not captured, so this is no
+ * {@link PumpSignalAccess}: opposition is decided on the server thread before resolving.
+ *
+ * @author Aiden Black
+ */
+public class SectionSnapshotBlockAccess implements PumpBlockAccess {
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+    private static final BlockState VOID_AIR = Blocks.VOID_AIR.defaultBlockState();
+
+    /** copied block states of captured sections, by packed section position */
+    private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+    /** captured sections that held nothing but air, which need no copy */
+    private final LongOpenHashSet emptySections = new LongOpenHashSet();
+
+    private long gameTime;
+    private int minBuildHeight;
+    private int height;
+    private double borderMinX;
+    private double borderMaxX;
+    private double borderMinZ;
+    private double borderMaxZ;
+
+    /**
+     * Forgets every captured section and records the parts of the level that are not stored in
+     * sections. Call on the server thread before capturing.
+     *
+     * @param level level the snapshot is taken of
+     */
+    public void begin(Level level) {
+        sections.clear();
+        emptySections.clear();
+        gameTime = level.getGameTime();
+        minBuildHeight = level.getMinBuildHeight();
+        height = level.getHeight();
+        WorldBorder border = level.getWorldBorder();
+        borderMinX = border.getMinX();
+        borderMaxX = border.getMaxX();
+        borderMinZ = border.getMinZ();
+        borderMaxZ = border.getMaxZ();
+    }
+
+    /**
+     * Captures every section a line of blocks passes through. Positions outside the build height
+     * need no section and are skipped.
+     *
+     * @param level     level to copy from
+     * @param start     first block of the line
+     * @param direction direction the line runs in
+     * @param length    number of blocks in the line
+     * @return false if the line passes through a chunk that is not loaded, true otherwise
+     */
+    public boolean captureLine(Level level, BlockPos start, Direction direction, int length) {
+        long lastSection = Long.MIN_VALUE;
+        for (int i = 0; i < length; i++) {
+            int x = start.getX() + direction.getStepX() * i;
+            int y = start.getY() + direction.getStepY() * i;
+            int z = start.getZ() + direction.getStepZ() * i;
+            if (y < minBuildHeight || y >= minBuildHeight + height) continue;
+
+            long section = SectionPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z));
+            if (section == lastSection) continue;
+            if (!capture(level, section)) return false;
+            lastSection = section;
+        }
+        return true;
+    }
+
+    private boolean capture(Level level, long section) {
+        if (sections.containsKey(section) || emptySections.contains(section)) return true;
+
+        LevelChunk chunk = level.getChunkSource().getChunk(SectionPos.x(section), SectionPos.z(section), false);
+        if (chunk == null) return false;
+
+        LevelChunkSection chunkSection = chunk.getSection(level.getSectionIndexFromSectionY(SectionPos.y(section)));
+        if (chunkSection.hasOnlyAir()) {
+            emptySections.add(section);
+        } else {
+            sections.put(section, chunkSection.getStates().copy());
+        }
+        return true;
+    }
+
+    /**
+     * @return number of sections copied since {@link #begin}, not counting sections of only air
+     */
+    public int getCopiedSections() {
+        return sections.size();
+    }
+
+    @Override
+    public @NotNull BlockState getBlockState(@NotNull BlockPos pos) {
+        int y = pos.getY();
+        if (y < minBuildHeight || y >= minBuildHeight + height) return VOID_AIR;
+
+        long section = SectionPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(pos.getZ()));
+        PalettedContainer<BlockState> states = sections.get(section);
+        if (states != null) return states.get(pos.getX() & 15, y & 15, pos.getZ() & 15);
+        if (emptySections.contains(section)) return AIR;
+        throw new IllegalStateException("Section " + SectionPos.of(section) + " was read but never captured");
+    }
+
+    @Override
+    public @NotNull FluidState getFluidState(@NotNull BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    /**
+     * Block entities are not captured, so there never is one.
+     */
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(@NotNull BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public boolean isWithinWorldBorder(BlockPos pos) {
+        // Same test as WorldBorder#isWithinBounds, against the bounds at the time of the snapshot
+        return pos.getX() + 1 > borderMinX && pos.getX() < borderMaxX && pos.getZ() + 1 > borderMinZ && pos.getZ() < borderMaxZ;
+    }
+
+    @Override
+    public long getGameTime() {
+        return gameTime;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return minBuildHeight;
+    }
+}
@@ -0,0 +1,167 @@
+package net.aiden.aircraftmod.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.block.custom.JumpEffectThrottle;
+import net.aiden.aircraftmod.block.pump.AirPumpUpdateQueue;
+import net.aiden.aircraftmod.block.pump.PumpLightBatcher;
+import net.aiden.aircraftmod.block.pump.PumpPressureNetworks;
+import net.aiden.aircraftmod.block.pump.PumpSoundCoalescer;
+import net.aiden.aircraftmod.metrics.DimensionMetrics;
+import net.aiden.aircraftmod.metrics.NanoHistogram;
+import net.aiden.aircraftmod.metrics.PumpChunkProfiler;
+import net.aiden.aircraftmod.metrics.PumpCounter;
+import net.aiden.aircraftmod.metrics.PumpHook;
+import net.aiden.aircraftmod.metrics.PumpMetrics;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The {@code /aircraftmod} operator command.
+ * <ul>
+ *     <li>{@code /aircraftmod stats} shows how far behind each pump queue is, how many pump sounds were merged, how many light checks pump block changes caused, how often jumpy blocks skipped their effect, and the recorded pump metrics per dimension, including the neighbour notifications sent per pump stroke</li>
+ *     <li>{@code /aircraftmod stats reset} forgets them</li>
+ *     <li>{@code /aircraftmod profile <seconds>} reports the chunks with the busiest pumps once the time is up</li>
+ *     <li>{@code /aircraftmod network <pos>} shows the size and pressure of the pressure network of the pump at a position</li>
+ * </ul>
+ *
+ * @author Aiden Black
+ */
+public class AircraftModCommand {
+    /**
+     * chunks listed per dimension by the stats command
+     */
+    private static final int STATS_TOP_CHUNKS = 3;
+
+    /**
+     * Registers the command.
+     *
+     * @param dispatcher server command dispatcher
+     */
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal(AircraftMod.MOD_ID)
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("stats")
+                        .executes(context -> showStats(context.getSource()))
+                        .then(Commands.literal("reset")
+                                .executes(context -> resetStats(context.getSource()))))
+                .then(Commands.literal("profile")
+                        .then(Commands.argument("seconds", IntegerArgumentType.integer(1, PumpChunkProfiler.MAX_SECONDS))
+                                .executes(context -> profile(context.getSource(), IntegerArgumentType.getInteger(context, "seconds")))))
+                .then(Commands.literal("network")
+                        .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                                .executes(context -> showNetwork(context.getSource(), BlockPosArgument.getBlockPos(context, "pos"))))));
+    }
+
+    private static int showStats(CommandSourceStack source) {
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            AirPumpUpdateQueue queue = AirPumpUpdateQueue.get(level);
+            source.sendSuccess(Component.literal(String.format(Locale.ROOT, "%s queue: %d waiting, %d evaluated last tick, oldest waited %d ticks, %d ticks over budget",
+                    level.dimension().location(), queue.size(), queue.getLastDrainCount(), queue.getLastMaxWaitTicks(), queue.getSpilledDrains())), false);
+            if (queue.getParallelDrains() > 0) {
+                source.sendSuccess(Component.literal(String.format(Locale.ROOT, "%s parallel resolution: %d drains, %d stale resolutions",
+                        level.dimension().location(), queue.getParallelDrains(), queue.getStaleResolutions())), false);
+            }
+            PumpSoundCoalescer sounds = PumpSoundCoalescer.get(level);
+            source.sendSuccess(Component.literal(String.format(Locale.ROOT, "%s sounds: %d requested, %d played, %d merged",
+                    level.dimension().location(), sounds.getRequested(), sounds.getPlayed(), sounds.getMerged())), false);
+            PumpLightBatcher light = PumpLightBatcher.get(level);
+            if (light.getChanges() > 0) {
+                source.sendSuccess(Component.literal(String.format(Locale.ROOT, "%s light: %d pump block changes, %d light checks, last flush %d checks in %d sections in %.1f µs",
+                        level.dimension().location(), light.getChanges(), light.getChecks(), light.getLastFlushChecks(), light.getLastFlushSections(), light.getLastFlushNanos() / 1e3)), false);
+            }
+            JumpEffectThrottle jumpEffects = JumpEffectThrottle.get(level);
+            if (jumpEffects.getApplied() > 0) {
+                source.sendSuccess(Component.literal(String.format(Locale.ROOT, "%s jumpy blocks: %d effects applied, %d skipped",
+                        level.dimension().location(), jumpEffects.getApplied(), jumpEffects.getSkipped())), false);
+            }
+        }
+
+        if (!PumpMetrics.enabled) {
+            source.sendSuccess(Component.literal("Air pump metrics are disabled. Set metrics.enabled in aircraftmod-common.toml to record them.").withStyle(ChatFormatting.YELLOW), false);
+        }
+
+        int dimensions = 0;
+        for (DimensionMetrics metrics : PumpMetrics.getDimensions()) {
+            dimensions++;
+            source.sendSuccess(Component.literal(metrics.getDimension().location().toString()).withStyle(ChatFormatting.GOLD), false);
+
+            StringBuilder counters = new StringBuilder();
+            for (PumpCounter counter : PumpCounter.values()) {
+                if (!counters.isEmpty()) counters.append(", ");
+                counters.append(counter.getSerializedName()).append('=').append(metrics.getCount(counter));
+            }
+            source.sendSuccess(Component.literal("  " + counters), false);
+            long strokes = metrics.getCount(PumpCounter.EXTENDS) + metrics.getCount(PumpCounter.CONTRACTS);
+            if (strokes > 0) {
+                source.sendSuccess(Component.literal(String.format(Locale.ROOT, "  %.1f neighbour notifications per stroke",
+                        (double) metrics.getCount(PumpCounter.NEIGHBOR_NOTIFICATIONS) / strokes)), false);
+            }
+
+            for (PumpHook hook : PumpHook.values()) {
+                NanoHistogram histogram = metrics.getHook(hook);
+                if (histogram.getCount() == 0) continue;
+                source.sendSuccess(Component.literal(String.format(Locale.ROOT, "  %s: %d calls, mean %.1f µs, p99 < %.1f µs, max %.1f µs, total %.1f ms",
+                        hook.getSerializedName(), histogram.getCount(), histogram.getMeanNanos() / 1e3, histogram.getPercentileNanos(0.99) / 1e3,
+                        histogram.getMaxNanos() / 1e3, histogram.getTotalNanos() / 1e6)), false);
+            }
+
+            for (Long2ObjectMap.Entry<long[]> chunk : topChunks(metrics)) {
+                long[] row = chunk.getValue();
+                ChunkPos chunkPos = new ChunkPos(chunk.getLongKey());
+                source.sendSuccess(Component.literal(String.format(Locale.ROOT, "  chunk %d %d (blocks %d %d): %d evaluations, %.1f ms",
+                        chunkPos.x, chunkPos.z, chunkPos.getMinBlockX(), chunkPos.getMinBlockZ(),
+                        row[PumpCounter.EVALUATIONS.ordinal()], row[DimensionMetrics.CHUNK_HOOK_NANOS] / 1e6)), false);
+            }
+        }
+
+        if (dimensions == 0) source.sendSuccess(Component.literal("No air pump metrics have been recorded."), false);
+        return dimensions;
+    }
+
+    private static int resetStats(CommandSourceStack source) {
+        PumpMetrics.reset();
+        source.sendSuccess(Component.literal("Air pump metrics reset."), true);
+        return 1;
+    }
+
+    private static int profile(CommandSourceStack source, int seconds) {
+        if (!PumpChunkProfiler.start(source, seconds)) {
+            source.sendFailure(Component.literal("An air pump profile is already running."));
+            return 0;
+        }
+        source.sendSuccess(Component.literal("Profiling air pumps for " + seconds + " seconds."), true);
+        return 1;
+    }
+
+    private static int showNetwork(CommandSourceStack source, BlockPos basePos) {
+        PumpPressureNetworks networks = PumpPressureNetworks.get(source.getLevel());
+        if (!networks.contains(basePos)) {
+            source.sendFailure(Component.literal("There is no air pump at " + basePos.toShortString() + "."));
+            return 0;
+        }
+        int pressure = networks.getPressure(basePos);
+        source.sendSuccess(Component.literal(String.format(Locale.ROOT, "Pressure network of %s: %d pumps, pressure %d",
+                basePos.toShortString(), networks.getNetworkSize(basePos), pressure)), false);
+        return pressure;
+    }
+
+    private static List<Long2ObjectMap.Entry<long[]>> topChunks(DimensionMetrics metrics) {
+        List<Long2ObjectMap.Entry<long[]>> chunks = new ArrayList<>(metrics.getChunks().long2ObjectEntrySet());
+        chunks.sort(Comparator.comparingLong((Long2ObjectMap.Entry<long[]> chunk) -> chunk.getValue()[DimensionMetrics.CHUNK_HOOK_NANOS]).reversed());
+        return chunks.subList(0, Math.min(STATS_TOP_CHUNKS, chunks.size()));
+    }
+}
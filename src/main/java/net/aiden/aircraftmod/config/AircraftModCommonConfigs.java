@@ -0,0 +1,191 @@
+package net.aiden.aircraftmod.config;
+
+import net.aiden.aircraftmod.block.custom.AirPumpStructureResolver;
+import net.aiden.aircraftmod.block.pump.PumpStateStorage;
+import net.aiden.aircraftmod.metrics.MetricsExportFormat;
+import net.minecraftforge.common.ForgeConfigSpec;
+
+/**
+ * Server-relevant settings for the mod, stored in aircraftmod-common.toml.
+ *
+ * @author Aiden Black
+ */
+public class AircraftModCommonConfigs {
+    public static final ForgeConfigSpec.Builder BUILDER = new ForgeConfigSpec.Builder();
+    public static final ForgeConfigSpec SPEC;
+
+    /**
+     * when true, pumps sleep until a nearby block update wakes them instead of checking every tick
+     */
+    public static final ForgeConfigSpec.BooleanValue EVENT_DRIVEN_PUMPS;
+    /**
+     * largest number of blocks a single pump can push in a line
+     */
+    public static final ForgeConfigSpec.IntValue MAX_PUSH_LENGTH;
+    /**
+     * most queued pumps evaluated per level per tick
+     */
+    public static final ForgeConfigSpec.IntValue MAX_EVALUATIONS_PER_TICK;
+    /**
+     * microseconds of pump evaluation allowed per level per tick, or 0 for no time limit
+     */
+    public static final ForgeConfigSpec.IntValue TICK_BUDGET_MICROS;
+    /**
+     * when true, moving pump heads use a dedicated block entity instead of vanilla's moving piston
+     */
+    public static final ForgeConfigSpec.BooleanValue LIGHTWEIGHT_MOVING_HEADS;
+    /**
+     * when true, pump block events are sent to clients as one packet per chunk per tick
+     */
+    public static final ForgeConfigSpec.BooleanValue BATCH_PUMP_EVENTS;
+    /**
+     * when true, queued pumps resolve their structures in parallel over snapshots of the chunk sections they read
+     */
+    public static final ForgeConfigSpec.BooleanValue PARALLEL_RESOLUTION;
+    /**
+     * threads used for parallel resolution, or 0 for one fewer than the number of processors
+     */
+    public static final ForgeConfigSpec.IntValue RESOLVER_THREADS;
+    /**
+     * where pumps keep their runtime state
+     */
+    public static final ForgeConfigSpec.EnumValue<PumpStateStorage> PUMP_STATE_STORAGE;
+    /**
+     * when true, the light checks of the blocks pumps change are gathered and submitted once at the end of the tick
+     */
+    public static final ForgeConfigSpec.BooleanValue BATCH_LIGHT_UPDATES;
+    /**
+     * when true, pump strokes notify each neighbour outside the moved blocks once, and pump heads only pass on changes their base would not otherwise hear of
+     */
+    public static final ForgeConfigSpec.BooleanValue PRECISE_NEIGHBOR_UPDATES;
+    /**
+     * when true, a pump that cannot push a line because it is too long launches the structure as an airship
+     */
+    public static final ForgeConfigSpec.BooleanValue AIRSHIPS_ENABLED;
+    /**
+     * most blocks an airship may be assembled from
+     */
+    public static final ForgeConfigSpec.IntValue AIRSHIP_MAX_BLOCKS;
+    /**
+     * distance an airship moves per tick, in blocks
+     */
+    public static final ForgeConfigSpec.DoubleValue AIRSHIP_SPEED;
+    /**
+     * farthest an airship travels before it lands, in blocks
+     */
+    public static final ForgeConfigSpec.IntValue AIRSHIP_MAX_TRAVEL;
+    /**
+     * size in blocks of the cubes within which identical pump sounds are merged, or 0 to never merge them
+     */
+    public static final ForgeConfigSpec.IntValue SOUND_MERGE_RADIUS;
+    /**
+     * most pump destroy effects shown per chunk per tick, or 0 for no limit
+     */
+    public static final ForgeConfigSpec.IntValue MAX_DESTROY_EFFECTS_PER_CHUNK;
+    /**
+     * ticks of jump boost left below which a jumpy block gives it again
+     */
+    public static final ForgeConfigSpec.IntValue JUMPY_REFRESH_TICKS;
+    /**
+     * when false, zircon ore veins are not generated
+     */
+    public static final ForgeConfigSpec.BooleanValue ZIRCON_ORE_ENABLED;
+    /**
+     * when true, pump hooks record counters and timings for /aircraftmod stats
+     */
+    public static final ForgeConfigSpec.BooleanValue METRICS_ENABLED;
+    /**
+     * seconds between metrics file exports, or 0 to never export
+     */
+    public static final ForgeConfigSpec.IntValue METRICS_EXPORT_INTERVAL;
+    /**
+     * format of the exported metrics file
+     */
+    public static final ForgeConfigSpec.EnumValue<MetricsExportFormat> METRICS_EXPORT_FORMAT;
+
+    static {
+        BUILDER.push("pumps");
+
+        EVENT_DRIVEN_PUMPS = BUILDER.comment("Only re-evaluate an air pump when a block update is observed near it or its opponent slot.",
+                        "Set to false to fall back to checking every pump on every tick.")
+                .define("eventDrivenPumps", true);
+        MAX_PUSH_LENGTH = BUILDER.comment("Largest number of blocks an air pump can push in a line. Vanilla pistons push 12.")
+                .defineInRange("maxPushLength", 12, 1, AirPumpStructureResolver.HARD_PUSH_LIMIT);
+        MAX_EVALUATIONS_PER_TICK = BUILDER.comment("Most queued air pumps evaluated per dimension per tick. The rest wait for the next ticks, taken in turn by chunk.")
+                .defineInRange("maxEvaluationsPerTick", 4096, 1, 1_000_000);
+        TICK_BUDGET_MICROS = BUILDER.comment("Microseconds each dimension may spend evaluating queued air pumps per tick before the rest wait for the next tick.",
+                        "Set to 0 to only limit the number of evaluations.")
+                .defineInRange("tickBudgetMicros", 10_000, 0, 1_000_000);
+        LIGHTWEIGHT_MOVING_HEADS = BUILDER.comment("Animate moving air pump heads with a dedicated block entity that only does what a one-block head needs.",
+                        "Set to false to use vanilla moving pistons. Clients should use the same setting as the server.")
+                .define("lightweightMovingHeads", true);
+        BATCH_PUMP_EVENTS = BUILDER.comment("Send the air pumps that extend or contract in a tick to clients as one packet per chunk instead of one packet per pump.",
+                        "Set to false to use vanilla block events.")
+                .define("batchPumpEvents", true);
+        PARALLEL_RESOLUTION = BUILDER.comment("Resolve the structures of queued air pumps on worker threads, reading copies of the chunk sections taken at the start of the drain.",
+                        "Results are applied on the server thread in queue order, so the world ends up exactly as it would without this.",
+                        "tickBudgetMicros does not apply while this is on; maxEvaluationsPerTick still does.")
+                .define("parallelResolution", false);
+        RESOLVER_THREADS = BUILDER.comment("Worker threads for parallelResolution. Read once, when the first parallel drain runs.",
+                        "Set to 0 to use one fewer than the number of processors.")
+                .defineInRange("resolverThreads", 0, 0, 64);
+        PUMP_STATE_STORAGE = BUILDER.comment("Where air pumps keep their runtime state. BLOCK_ENTITY gives every pump a block entity.",
+                        "CHUNK keeps the state of all pumps in a chunk in one packed array saved with the chunk, and creates no block entities.",
+                        "Pumps that already have a block entity keep it. Pumps stored in their chunk get a block entity the next time they change state after switching back.")
+                .defineEnum("stateStorage", PumpStateStorage.BLOCK_ENTITY);
+        BATCH_LIGHT_UPDATES = BUILDER.comment("Gather the light checks of the blocks air pumps change during a tick and submit them at the end of the tick, once per block and sorted by chunk section.",
+                        "Blocks that end the tick as they started it are not checked. Set to false to check every change right away, as vanilla does.")
+                .define("batchLightUpdates", true);
+        PRECISE_NEIGHBOR_UPDATES = BUILDER.comment("Notify only the neighbours outside the blocks an air pump stroke moved, each once, instead of every neighbour of every moved block.",
+                        "Pump heads then only pass a neighbour change on to their base when the base would not hear of it otherwise, which cuts the update chains of dense pump arrays.",
+                        "Set to false to notify neighbours as vanilla pistons do.")
+                .define("preciseNeighborUpdates", false);
+
+        BUILDER.pop();
+        BUILDER.push("airships");
+
+        AIRSHIPS_ENABLED = BUILDER.comment("When an air pump cannot push the line in front of it because the line is too long, launch the whole connected structure as one moving airship.",
+                        "The structure must not touch any immovable block, such as obsidian or a block entity.")
+                .define("enabled", true);
+        AIRSHIP_MAX_BLOCKS = BUILDER.comment("Most blocks an airship may be made of. Larger structures are treated as anchored.")
+                .defineInRange("maxBlocks", 8192, 1, 65536);
+        AIRSHIP_SPEED = BUILDER.comment("Blocks an airship moves per tick.")
+                .defineInRange("speed", 0.25, 0.01, 0.5);
+        AIRSHIP_MAX_TRAVEL = BUILDER.comment("Blocks an airship travels before it lands and turns back into blocks, unless something stops it sooner.")
+                .defineInRange("maxTravel", 64, 1, 4096);
+
+        BUILDER.pop();
+        BUILDER.push("effects");
+
+        SOUND_MERGE_RADIUS = BUILDER.comment("Air pumps within this many blocks of each other that make the same sound in the same tick are heard as one louder sound.",
+                        "Set to 0 to play every pump's sound.")
+                .defineInRange("soundMergeRadius", 8, 0, 64);
+        MAX_DESTROY_EFFECTS_PER_CHUNK = BUILDER.comment("Most blocks per chunk per tick that show breaking particles when an air pump destroys them. Read by the client.",
+                        "Set to 0 to show them all.")
+                .defineInRange("maxDestroyEffectsPerChunk", 16, 0, 4096);
+        JUMPY_REFRESH_TICKS = BUILDER.comment("A jumpy block gives an entity standing on it jump boost again once fewer than this many ticks of it are left.",
+                        "Each time sends an effect packet to nearby players. Set to 200 to give it every tick.")
+                .defineInRange("jumpyRefreshTicks", 100, 1, 200);
+
+        BUILDER.pop();
+        BUILDER.push("worldgen");
+
+        ZIRCON_ORE_ENABLED = BUILDER.comment("Generate zircon ore veins in new chunks of the overworld, the nether and the end.")
+                .define("zirconOre", true);
+
+        BUILDER.pop();
+        BUILDER.push("metrics");
+
+        METRICS_ENABLED = BUILDER.comment("Record how often and for how long air pump code runs, per dimension and per chunk.",
+                        "Shown by /aircraftmod stats. Costs nothing measurable when disabled.")
+                .define("enabled", false);
+        METRICS_EXPORT_INTERVAL = BUILDER.comment("Seconds between writes of aircraftmod-metrics.<format> in the server directory while metrics are enabled.",
+                        "Set to 0 to never write the file.")
+                .defineInRange("exportIntervalSeconds", 60, 0, 86400);
+        METRICS_EXPORT_FORMAT = BUILDER.comment("Format of the exported metrics file.")
+                .defineEnum("exportFormat", MetricsExportFormat.CSV);
+
+        BUILDER.pop();
+        SPEC = BUILDER.build();
+    }
+}
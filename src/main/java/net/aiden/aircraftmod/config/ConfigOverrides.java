@@ -0,0 +1,52 @@
+package net.aiden.aircraftmod.config;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Temporary config changes made by gametests and benchmarks. Each value remembers what it was
+ * before its first override, and {@link #restore} puts every overridden value back at once.
+ * <p>
+ * Forge saves config changes to disk as they are made, so whoever overrides a value must make sure
+ * {@link #restore} runs however the run ends: from an {@code @AfterBatch} function, which runs
+ * whether the batch passed, failed or timed out, or from a {@code finally} block once the run is
+ * over. The server also restores every value as it stops, in case a run was cut short.
+ *
+ * @author Aiden Black
+ */
+public final class ConfigOverrides {
+    /** value each overridden config value had before its first override */
+    private static final Map<ForgeConfigSpec.ConfigValue<?>, Object> ORIGINALS = new LinkedHashMap<>();
+
+    private ConfigOverrides() {
+    }
+
+    /**
+     * Changes a config value until the next {@link #restore}.
+     *
+     * @param value    config value to change
+     * @param override value to use in the meantime
+     * @param <T>      type of the config value
+     */
+    public static synchronized <T> void set(ForgeConfigSpec.ConfigValue<T> value, T override) {
+        if (!ORIGINALS.containsKey(value)) ORIGINALS.put(value, value.get());
+        value.set(override);
+    }
+
+    /**
+     * Puts every overridden config value back to what it was before its first override.
+     */
+    public static synchronized void restore() {
+        for (Map.Entry<ForgeConfigSpec.ConfigValue<?>, Object> entry : ORIGINALS.entrySet()) {
+            restore(entry.getKey(), entry.getValue());
+        }
+        ORIGINALS.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void restore(ForgeConfigSpec.ConfigValue<T> value, Object original) {
+        value.set((T) original);
+    }
+}
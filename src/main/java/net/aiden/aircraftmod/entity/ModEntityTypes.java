@@ -0,0 +1,26 @@
+package net.aiden.aircraftmod.entity;
+
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.entity.airship.AirshipEntity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.MobCategory;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.RegistryObject;
+
+public class ModEntityTypes {
+    public static final DeferredRegister<EntityType<?>> ENTITY_TYPES =
+            DeferredRegister.create(ForgeRegistries.ENTITY_TYPES, AircraftMod.MOD_ID);
+
+    public static final RegistryObject<EntityType<AirshipEntity>> AIRSHIP =
+            ENTITY_TYPES.register("airship", () ->
+                    EntityType.Builder.<AirshipEntity>of(AirshipEntity::new, MobCategory.MISC)
+                            .sized(1.0F, 1.0F).fireImmune().noSummon()
+                            .clientTrackingRange(10).updateInterval(1)
+                            .build("airship"));
+
+    public static void register(IEventBus eventBus) {
+        ENTITY_TYPES.register(eventBus);
+    }
+}
@@ -0,0 +1,172 @@
+package net.aiden.aircraftmod.entity.airship;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.aiden.aircraftmod.block.custom.AirPumpHeadBlock;
+import net.aiden.aircraftmod.block.pump.PumpPushability;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lifts the structure in front of an air pump out of the world and launches it as an
+ * {@link AirshipEntity}. The structure is every block connected to the one in front of the pump by
+ * a face, except blocks that pumps break, which stay behind.
+ * <p>
+ * A structure cannot be launched if it touches a block that pumps cannot push, as classified by
+ * {@link PumpPushability}, another air pump, or an unloaded chunk, or if it has more than
+ * {@code airships.maxBlocks} blocks. A pump that fails to launch its structure does not try again
+ * for {@link #RETRY_TICKS} ticks, so a powered pump held against a mountain does not flood-fill it
+ * every tick.
+ *
+ * @author Aiden Black
+ */
+public class AirshipAssembler {
+    /**
+     * ticks a pump waits after a failed launch before it may try again
+     */
+    private static final long RETRY_TICKS = 40;
+    private static final Map<ServerLevel, AirshipAssembler> ASSEMBLERS = new HashMap<>();
+
+    private final ServerLevel level;
+    /** game time each pump last failed to launch its structure at */
+    private final Long2LongOpenHashMap failedAt = new Long2LongOpenHashMap();
+    private final LongOpenHashSet visited = new LongOpenHashSet();
+    private final LongArrayFIFOQueue frontier = new LongArrayFIFOQueue();
+    private final LongArrayList structure = new LongArrayList();
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+    private AirshipAssembler(ServerLevel level) {
+        this.level = level;
+        this.failedAt.defaultReturnValue(Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns the assembler for a level, creating it on first use.
+     *
+     * @param level server level the pumps live in
+     * @return the level's assembler
+     */
+    public static AirshipAssembler get(ServerLevel level) {
+        return ASSEMBLERS.computeIfAbsent(level, AirshipAssembler::new);
+    }
+
+    /**
+     * Drops the assembler of a level that is being unloaded.
+     *
+     * @param level level being unloaded
+     */
+    public static void remove(ServerLevel level) {
+        ASSEMBLERS.remove(level);
+    }
+
+    /**
+     * Launches the structure in front of a pump, if it can be launched.
+     *
+     * @param basePos       pump base's location
+     * @param pumpDirection direction in which the pump faces, which the airship travels in
+     * @return true if an airship was launched and the block in front of the pump is now free, false otherwise
+     */
+    public boolean tryAssemble(BlockPos basePos, Direction pumpDirection) {
+        long gameTime = level.getGameTime();
+        if (gameTime - failedAt.get(basePos.asLong()) < RETRY_TICKS) return false;
+
+        try {
+            if (!collect(basePos, basePos.relative(pumpDirection))) {
+                failedAt.put(basePos.asLong(), gameTime);
+                return false;
+            }
+            failedAt.remove(basePos.asLong());
+            launch(pumpDirection);
+            return true;
+        } finally {
+            visited.clear();
+            frontier.clear();
+            structure.clear();
+        }
+    }
+
+    /**
+     * Flood-fills the structure from the block in front of the pump into {@link #structure}.
+     *
+     * @return false if the structure cannot be launched
+     */
+    private boolean collect(BlockPos basePos, BlockPos headPos) {
+        int maxBlocks = AircraftModCommonConfigs.AIRSHIP_MAX_BLOCKS.get();
+        visited.add(basePos.asLong());
+        visited.add(headPos.asLong());
+        frontier.enqueue(headPos.asLong());
+
+        while (!frontier.isEmpty()) {
+            long pos = frontier.dequeueLong();
+            cursor.set(pos);
+            if (!level.isLoaded(cursor)) return false;
+
+            BlockState state = level.getBlockState(cursor);
+            // Classified exactly as the pump's own push would, so a line it refuses to push never launches
+            byte pushability = PumpPushability.get(state);
+            if (pushability == PumpPushability.AIR || pushability == PumpPushability.DESTROY) continue;
+            if (pushability == PumpPushability.IMMOVABLE
+                    || state.getBlock() instanceof AirPumpBaseBlock || state.getBlock() instanceof AirPumpHeadBlock) {
+                return false;
+            }
+
+            structure.add(pos);
+            if (structure.size() > maxBlocks) return false;
+
+            for (Direction direction : Direction.values()) {
+                long neighbour = BlockPos.offset(pos, direction);
+                if (visited.add(neighbour)) frontier.enqueue(neighbour);
+            }
+        }
+        return !structure.isEmpty();
+    }
+
+    /**
+     * Moves the collected structure out of the world and into a new airship.
+     */
+    private void launch(Direction pumpDirection) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (int i = 0; i < structure.size(); i++) {
+            long pos = structure.getLong(i);
+            minX = Math.min(minX, BlockPos.getX(pos));
+            minY = Math.min(minY, BlockPos.getY(pos));
+            minZ = Math.min(minZ, BlockPos.getZ(pos));
+            maxX = Math.max(maxX, BlockPos.getX(pos));
+            maxY = Math.max(maxY, BlockPos.getY(pos));
+            maxZ = Math.max(maxZ, BlockPos.getZ(pos));
+        }
+
+        PalettedBlockVolume blocks = new PalettedBlockVolume(maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1);
+        for (int i = 0; i < structure.size(); i++) {
+            long pos = structure.getLong(i);
+            cursor.set(pos);
+            blocks.set(BlockPos.getX(pos) - minX, BlockPos.getY(pos) - minY, BlockPos.getZ(pos) - minZ, level.getBlockState(cursor));
+        }
+
+        // Take every block out before telling the surroundings, so the structure does not tear itself apart
+        BlockState air = Blocks.AIR.defaultBlockState();
+        for (int i = 0; i < structure.size(); i++) {
+            cursor.set(structure.getLong(i));
+            level.setBlock(cursor, air, Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE | Block.UPDATE_MOVE_BY_PISTON);
+        }
+        for (int i = 0; i < structure.size(); i++) {
+            cursor.set(structure.getLong(i));
+            air.updateNeighbourShapes(level, cursor, Block.UPDATE_CLIENTS);
+            level.blockUpdated(cursor, Blocks.AIR);
+        }
+
+        level.addFreshEntity(new AirshipEntity(level, blocks, new BlockPos(minX, minY, minZ), pumpDirection));
+    }
+}
@@ -0,0 +1,269 @@
+package net.aiden.aircraftmod.entity.airship;
+
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.entity.ModEntityTypes;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.MoverType;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.PushReaction;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.entity.IEntityAdditionalSpawnData;
+import net.minecraftforge.network.NetworkHooks;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A structure launched by an air pump, moving as one entity instead of one moving block per block.
+ * Its blocks live in a {@link PalettedBlockVolume} and collide with the world through an
+ * {@link AirshipHull}. It travels in a straight line until it would hit something or has gone
+ * {@code airships.maxTravel} blocks, then lands on the last whole block it passed and puts its
+ * blocks back into the world.
+ * <p>
+ * The entity's position is the lowest corner of its bounding box. Entities standing on or caught by
+ * the hull are carried along: the server moves everything but players, and each client moves its
+ * own player.
+ *
+ * @author Aiden Black
+ */
+public class AirshipEntity extends Entity implements IEntityAdditionalSpawnData {
+    /**
+     * gap kept between the hull and whatever it is tested against, so touching faces do not count as a collision
+     */
+    private static final double CONTACT_EPSILON = 1.0E-7;
+
+    private PalettedBlockVolume blocks = new PalettedBlockVolume(1, 1, 1);
+    private List<AABB> hull = List.of();
+    /** world position of the corner the airship was launched from */
+    private BlockPos anchor = BlockPos.ZERO;
+    private Direction direction = Direction.UP;
+    /** blocks travelled since launch */
+    private double travelled;
+    /** where the client last saw the airship, to carry its player by however far the server moved it since */
+    private Vec3 lastSeenPos;
+
+    public AirshipEntity(EntityType<? extends AirshipEntity> type, Level level) {
+        super(type, level);
+        this.noPhysics = true;
+    }
+
+    /**
+     * Constructs an airship from blocks that have just been taken out of the world.
+     *
+     * @param level     level to launch in
+     * @param blocks    blocks of the airship
+     * @param anchor    world position of the volume's lowest corner
+     * @param direction direction the airship travels in
+     */
+    public AirshipEntity(Level level, PalettedBlockVolume blocks, BlockPos anchor, Direction direction) {
+        this(ModEntityTypes.AIRSHIP.get(), level);
+        this.blocks = blocks;
+        this.hull = AirshipHull.build(blocks);
+        this.anchor = anchor;
+        this.direction = direction;
+        this.setPos(anchor.getX(), anchor.getY(), anchor.getZ());
+    }
+
+    @Override
+    public void tick() {
+        super.tick();
+
+        if (level.isClientSide) {
+            // Positions arrive from the server between ticks, which the old position has already caught up with
+            Vec3 moved = lastSeenPos == null ? Vec3.ZERO : position().subtract(lastSeenPos);
+            lastSeenPos = position();
+            if (moved.lengthSqr() > 0) carryEntities(moved);
+            return;
+        }
+
+        double step = Math.min(AircraftModCommonConfigs.AIRSHIP_SPEED.get(), AircraftModCommonConfigs.AIRSHIP_MAX_TRAVEL.get() - travelled);
+        Vec3 delta = new Vec3(direction.getStepX() * step, direction.getStepY() * step, direction.getStepZ() * step);
+        if (step <= 0 || isBlocked(delta)) {
+            land();
+            return;
+        }
+
+        carryEntities(delta);
+        travelled += step;
+        setPos(anchor.getX() + direction.getStepX() * travelled, anchor.getY() + direction.getStepY() * travelled, anchor.getZ() + direction.getStepZ() * travelled);
+    }
+
+    /**
+     * Checks whether moving the hull would run it into a block, a collidable entity or a chunk that
+     * is not loaded. Only the slab each hull box moves into is tested, since the space the hull
+     * already fills was checked on the way in. Collision checks treat missing chunks as empty, so
+     * without the chunk check the airship would fly into them and then load or generate them on the
+     * server thread when it lands.
+     */
+    private boolean isBlocked(Vec3 delta) {
+        Direction.Axis axis = direction.getAxis();
+        double distance = Math.abs(delta.get(axis));
+        for (AABB local : hull) {
+            AABB box = local.move(getX(), getY(), getZ());
+            AABB slab = switch (direction.getAxisDirection()) {
+                case POSITIVE -> leadingSlab(box, axis, box.max(axis), box.max(axis) + distance);
+                case NEGATIVE -> leadingSlab(box, axis, box.min(axis) - distance, box.min(axis));
+            };
+            AABB tested = slab.deflate(CONTACT_EPSILON);
+            if (!level.hasChunksAt(Mth.floor(tested.minX), Mth.floor(tested.minZ), Mth.floor(tested.maxX), Mth.floor(tested.maxZ))) return true;
+            if (!level.noCollision(this, tested)) return true;
+        }
+        return false;
+    }
+
+    private static AABB leadingSlab(AABB box, Direction.Axis axis, double min, double max) {
+        return switch (axis) {
+            case X -> new AABB(min, box.minY, box.minZ, max, box.maxY, box.maxZ);
+            case Y -> new AABB(box.minX, min, box.minZ, box.maxX, max, box.maxZ);
+            case Z -> new AABB(box.minX, box.minY, min, box.maxX, box.maxY, max);
+        };
+    }
+
+    /**
+     * Moves entities standing on the hull or in its way along with it.
+     */
+    private void carryEntities(Vec3 delta) {
+        AABB reach = getBoundingBox().expandTowards(delta).inflate(0, 0.1, 0);
+        List<Entity> entities = level.getEntities(this, reach, entity -> !(entity instanceof AirshipEntity)
+                && entity.getPistonPushReaction() != PushReaction.IGNORE
+                && (level.isClientSide ? entity.isControlledByLocalInstance() : !(entity instanceof Player)));
+        for (Entity entity : entities) {
+            AABB entityBox = entity.getBoundingBox();
+            for (AABB local : hull) {
+                AABB box = local.move(getX(), getY(), getZ());
+                // standing on top, or about to be swept by this box
+                if (box.expandTowards(0, 0.1, 0).intersects(entityBox) || box.expandTowards(delta).intersects(entityBox)) {
+                    entity.move(MoverType.PISTON, delta);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts the blocks back on the last whole block the airship passed through and removes the entity.
+     * Blocks whose cell is now taken by something that cannot be replaced are dropped as items. If
+     * part of the landing site has been unloaded since the airship entered it, landing waits for a
+     * later tick rather than loading it.
+     */
+    private void land() {
+        BlockPos origin = anchor.relative(direction, (int) Math.floor(travelled + CONTACT_EPSILON));
+        if (!level.hasChunksAt(origin.getX(), origin.getZ(), origin.getX() + blocks.getSizeX() - 1, origin.getZ() + blocks.getSizeZ() - 1)) return;
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        blocks.forEachBlock((x, y, z, state) -> {
+            cursor.setWithOffset(origin, x, y, z);
+            BlockState existing = level.getBlockState(cursor);
+            if (!existing.isAir()) {
+                if (!existing.getMaterial().isReplaceable()) {
+                    Block.dropResources(state, level, cursor);
+                    return;
+                }
+                level.destroyBlock(cursor, true);
+            }
+            level.setBlock(cursor, state, Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE | Block.UPDATE_MOVE_BY_PISTON);
+        });
+        // Only tell the surroundings once every block is back, so the airship does not break itself apart
+        blocks.forEachBlock((x, y, z, state) -> {
+            cursor.setWithOffset(origin, x, y, z);
+            BlockState placed = level.getBlockState(cursor);
+            placed.updateNeighbourShapes(level, cursor, Block.UPDATE_CLIENTS);
+            level.blockUpdated(cursor, placed.getBlock());
+        });
+        discard();
+    }
+
+    /**
+     * @return blocks of the airship
+     */
+    public PalettedBlockVolume getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * @return direction the airship travels in
+     */
+    public Direction getTravelDirection() {
+        return direction;
+    }
+
+    @Override
+    protected @NotNull AABB makeBoundingBox() {
+        // Called by the base constructor before the blocks are set
+        if (blocks == null) return super.makeBoundingBox();
+        return new AABB(getX(), getY(), getZ(), getX() + blocks.getSizeX(), getY() + blocks.getSizeY(), getZ() + blocks.getSizeZ());
+    }
+
+    @Override
+    public boolean hurt(@NotNull DamageSource source, float amount) {
+        return false;
+    }
+
+    @Override
+    public boolean isPickable() {
+        return false;
+    }
+
+    @Override
+    public boolean isPushable() {
+        return false;
+    }
+
+    @Override
+    public @NotNull PushReaction getPistonPushReaction() {
+        return PushReaction.IGNORE;
+    }
+
+    @Override
+    protected void defineSynchedData() {
+    }
+
+    @Override
+    protected void readAdditionalSaveData(@NotNull CompoundTag tag) {
+        blocks = PalettedBlockVolume.load(tag.getCompound("blocks"));
+        hull = AirshipHull.build(blocks);
+        anchor = NbtUtils.readBlockPos(tag.getCompound("anchor"));
+        direction = Direction.from3DDataValue(tag.getInt("direction"));
+        travelled = tag.getDouble("travelled");
+        setBoundingBox(makeBoundingBox());
+    }
+
+    @Override
+    protected void addAdditionalSaveData(@NotNull CompoundTag tag) {
+        tag.put("blocks", blocks.save());
+        tag.put("anchor", NbtUtils.writeBlockPos(anchor));
+        tag.putInt("direction", direction.get3DDataValue());
+        tag.putDouble("travelled", travelled);
+    }
+
+    @Override
+    public void writeSpawnData(FriendlyByteBuf buf) {
+        buf.writeByte(direction.get3DDataValue());
+        blocks.write(buf);
+    }
+
+    @Override
+    public void readSpawnData(FriendlyByteBuf buf) {
+        direction = Direction.from3DDataValue(buf.readByte());
+        blocks = PalettedBlockVolume.read(buf);
+        hull = AirshipHull.build(blocks);
+        setBoundingBox(makeBoundingBox());
+    }
+
+    @Override
+    public @NotNull Packet<?> getAddEntityPacket() {
+        return NetworkHooks.getEntitySpawningPacket(this);
+    }
+}
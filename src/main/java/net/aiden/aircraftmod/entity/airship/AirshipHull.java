@@ -0,0 +1,85 @@
+package net.aiden.aircraftmod.entity.airship;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The collision hull of an airship: its solid cells merged into as few boxes as a greedy sweep
+ * finds, in coordinates local to the airship's corner. Each cell with any collision shape counts as
+ * a full block. A solid 5,000-block hull usually merges into tens of boxes, so collision checks
+ * cost a handful of box tests instead of one per block.
+ *
+ * @author Aiden Black
+ */
+public final class AirshipHull {
+    private AirshipHull() {
+    }
+
+    /**
+     * Merges the solid cells of a volume into boxes. Boxes are grown along x first, then z, then y.
+     *
+     * @param blocks blocks of the airship
+     * @return boxes covering every solid cell exactly once
+     */
+    public static List<AABB> build(PalettedBlockVolume blocks) {
+        int sizeX = blocks.getSizeX();
+        int sizeY = blocks.getSizeY();
+        int sizeZ = blocks.getSizeZ();
+        BitSet open = new BitSet(sizeX * sizeY * sizeZ);
+        blocks.forEachBlock((x, y, z, state) -> {
+            if (isSolid(state)) open.set(index(x, y, z, sizeX, sizeZ));
+        });
+
+        List<AABB> boxes = new ArrayList<>();
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    if (!open.get(index(x, y, z, sizeX, sizeZ))) continue;
+
+                    int endX = x + 1;
+                    while (endX < sizeX && open.get(index(endX, y, z, sizeX, sizeZ))) endX++;
+                    int endZ = z + 1;
+                    while (endZ < sizeZ && isOpenRow(open, x, endX, y, endZ, sizeX, sizeZ)) endZ++;
+                    int endY = y + 1;
+                    while (endY < sizeY && isOpenLayer(open, x, endX, endY, z, endZ, sizeX, sizeZ)) endY++;
+
+                    for (int cy = y; cy < endY; cy++) {
+                        for (int cz = z; cz < endZ; cz++) {
+                            int row = index(0, cy, cz, sizeX, sizeZ);
+                            open.clear(row + x, row + endX);
+                        }
+                    }
+                    boxes.add(new AABB(x, y, z, endX, endY, endZ));
+                }
+            }
+        }
+        return boxes;
+    }
+
+    private static boolean isSolid(BlockState state) {
+        return !state.getCollisionShape(EmptyBlockGetter.INSTANCE, BlockPos.ZERO).isEmpty();
+    }
+
+    private static boolean isOpenRow(BitSet open, int startX, int endX, int y, int z, int sizeX, int sizeZ) {
+        int row = index(0, y, z, sizeX, sizeZ);
+        int firstClosed = open.nextClearBit(row + startX);
+        return firstClosed >= row + endX;
+    }
+
+    private static boolean isOpenLayer(BitSet open, int startX, int endX, int y, int startZ, int endZ, int sizeX, int sizeZ) {
+        for (int z = startZ; z < endZ; z++) {
+            if (!isOpenRow(open, startX, endX, y, z, sizeX, sizeZ)) return false;
+        }
+        return true;
+    }
+
+    private static int index(int x, int y, int z, int sizeX, int sizeZ) {
+        return (y * sizeZ + z) * sizeX + x;
+    }
+}
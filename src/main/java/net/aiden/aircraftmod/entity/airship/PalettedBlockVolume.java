@@ -0,0 +1,220 @@
+package net.aiden.aircraftmod.entity.airship;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.util.Mth;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The blocks of an airship, stored like a chunk section: a palette of the distinct BlockStates and
+ * one bit-packed palette index per cell of the airship's bounding box. Air is always index 0.
+ * <p>
+ * The storage only grows its index width when the palette outgrows it, so a 5,000-block hull made
+ * of a handful of materials costs a few bits per cell.
+ *
+ * @author Aiden Black
+ */
+public class PalettedBlockVolume {
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final List<BlockState> palette = new ArrayList<>();
+    private final Object2IntOpenHashMap<BlockState> paletteIds = new Object2IntOpenHashMap<>();
+    private SimpleBitStorage storage;
+    private int blockCount;
+
+    /**
+     * Constructs an empty volume.
+     *
+     * @param sizeX size of the bounding box along x, in blocks
+     * @param sizeY size of the bounding box along y, in blocks
+     * @param sizeZ size of the bounding box along z, in blocks
+     */
+    public PalettedBlockVolume(int sizeX, int sizeY, int sizeZ) {
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.paletteIds.defaultReturnValue(-1);
+        addToPalette(Blocks.AIR.defaultBlockState());
+        this.storage = new SimpleBitStorage(1, sizeX * sizeY * sizeZ);
+    }
+
+    /**
+     * @param x local x, from 0 to {@link #getSizeX()} - 1
+     * @param y local y, from 0 to {@link #getSizeY()} - 1
+     * @param z local z, from 0 to {@link #getSizeZ()} - 1
+     * @return BlockState stored in the cell
+     */
+    public BlockState get(int x, int y, int z) {
+        return palette.get(storage.get(index(x, y, z)));
+    }
+
+    /**
+     * Stores a BlockState in a cell, growing the palette if the state is new.
+     *
+     * @param x     local x
+     * @param y     local y
+     * @param z     local z
+     * @param state BlockState to store
+     */
+    public void set(int x, int y, int z, BlockState state) {
+        int id = paletteIds.getInt(state);
+        if (id == -1) id = addToPalette(state);
+
+        int index = index(x, y, z);
+        int previous = storage.getAndSet(index, id);
+        if (previous == 0 && id != 0) blockCount++;
+        else if (previous != 0 && id == 0) blockCount--;
+    }
+
+    /**
+     * Calls the consumer with every non-air cell, in storage order.
+     *
+     * @param consumer receives each cell's local coordinates and BlockState
+     */
+    public void forEachBlock(BlockConsumer consumer) {
+        int index = 0;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++, index++) {
+                    int id = storage.get(index);
+                    if (id != 0) consumer.accept(x, y, z, palette.get(id));
+                }
+            }
+        }
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    /**
+     * @return number of non-air cells
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * @return number of distinct BlockStates stored, air included
+     */
+    public int getPaletteSize() {
+        return palette.size();
+    }
+
+    /**
+     * @return bytes taken by the packed cells
+     */
+    public int getPackedBytes() {
+        return storage.getRaw().length * Long.BYTES;
+    }
+
+    public CompoundTag save() {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("sizeX", sizeX);
+        tag.putInt("sizeY", sizeY);
+        tag.putInt("sizeZ", sizeZ);
+        ListTag paletteTag = new ListTag();
+        for (BlockState state : palette) paletteTag.add(NbtUtils.writeBlockState(state));
+        tag.put("palette", paletteTag);
+        tag.putLongArray("cells", storage.getRaw());
+        return tag;
+    }
+
+    public static PalettedBlockVolume load(CompoundTag tag) {
+        PalettedBlockVolume volume = new PalettedBlockVolume(tag.getInt("sizeX"), tag.getInt("sizeY"), tag.getInt("sizeZ"));
+        ListTag paletteTag = tag.getList("palette", Tag.TAG_COMPOUND);
+        List<BlockState> states = new ArrayList<>(paletteTag.size());
+        for (int i = 0; i < paletteTag.size(); i++) states.add(NbtUtils.readBlockState(paletteTag.getCompound(i)));
+        volume.fill(states, tag.getLongArray("cells"));
+        return volume;
+    }
+
+    public void write(FriendlyByteBuf buf) {
+        buf.writeVarInt(sizeX);
+        buf.writeVarInt(sizeY);
+        buf.writeVarInt(sizeZ);
+        buf.writeVarInt(palette.size());
+        for (BlockState state : palette) buf.writeVarInt(Block.getId(state));
+        buf.writeLongArray(storage.getRaw());
+    }
+
+    public static PalettedBlockVolume read(FriendlyByteBuf buf) {
+        PalettedBlockVolume volume = new PalettedBlockVolume(buf.readVarInt(), buf.readVarInt(), buf.readVarInt());
+        int paletteSize = buf.readVarInt();
+        List<BlockState> states = new ArrayList<>(paletteSize);
+        for (int i = 0; i < paletteSize; i++) states.add(Block.stateById(buf.readVarInt()));
+        volume.fill(states, buf.readLongArray());
+        return volume;
+    }
+
+    /**
+     * Replaces the palette and cells with ones read back from storage. A mismatched cell array,
+     * from a corrupt save, leaves the volume empty.
+     */
+    private void fill(List<BlockState> states, long[] cells) {
+        palette.clear();
+        paletteIds.clear();
+        for (BlockState state : states) {
+            paletteIds.putIfAbsent(state, palette.size());
+            palette.add(state);
+        }
+        if (palette.isEmpty()) addToPalette(Blocks.AIR.defaultBlockState());
+
+        int size = sizeX * sizeY * sizeZ;
+        try {
+            storage = new SimpleBitStorage(bitsFor(palette.size()), size, cells);
+        } catch (RuntimeException e) {
+            storage = new SimpleBitStorage(bitsFor(palette.size()), size);
+        }
+
+        blockCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (storage.get(i) != 0) blockCount++;
+        }
+    }
+
+    private int addToPalette(BlockState state) {
+        int id = palette.size();
+        palette.add(state);
+        paletteIds.put(state, id);
+
+        if (storage != null && bitsFor(palette.size()) > storage.getBits()) {
+            SimpleBitStorage grown = new SimpleBitStorage(bitsFor(palette.size()), storage.getSize());
+            for (int i = 0; i < storage.getSize(); i++) grown.set(i, storage.get(i));
+            storage = grown;
+        }
+        return id;
+    }
+
+    private int index(int x, int y, int z) {
+        return (y * sizeZ + z) * sizeX + x;
+    }
+
+    private static int bitsFor(int paletteSize) {
+        return Math.max(1, Mth.ceillog2(paletteSize));
+    }
+
+    @FunctionalInterface
+    public interface BlockConsumer {
+        void accept(int x, int y, int z, BlockState state);
+    }
+}
@@ -0,0 +1,62 @@
+package net.aiden.aircraftmod.entity.client;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import net.aiden.aircraftmod.entity.airship.AirshipEntity;
+import net.aiden.aircraftmod.entity.airship.PalettedBlockVolume;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.block.BlockRenderDispatcher;
+import net.minecraft.client.renderer.entity.EntityRenderer;
+import net.minecraft.client.renderer.entity.EntityRendererProvider;
+import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.inventory.InventoryMenu;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.block.RenderShape;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Draws an airship's blocks where the entity is. Blocks buried on every side by full, opaque
+ * blocks cannot be seen and are skipped.
+ *
+ * @author Aiden Black
+ */
+public class AirshipRenderer extends EntityRenderer<AirshipEntity> {
+    private final BlockRenderDispatcher blockRenderer;
+
+    public AirshipRenderer(EntityRendererProvider.Context context) {
+        super(context);
+        this.blockRenderer = context.getBlockRenderDispatcher();
+    }
+
+    @Override
+    public void render(@NotNull AirshipEntity entity, float yaw, float partialTick, @NotNull PoseStack poseStack, @NotNull MultiBufferSource buffers, int packedLight) {
+        PalettedBlockVolume blocks = entity.getBlocks();
+        blocks.forEachBlock((x, y, z, state) -> {
+            if (state.getRenderShape() != RenderShape.MODEL || isBuried(blocks, x, y, z)) return;
+            poseStack.pushPose();
+            poseStack.translate(x, y, z);
+            blockRenderer.renderSingleBlock(state, poseStack, buffers, packedLight, OverlayTexture.NO_OVERLAY);
+            poseStack.popPose();
+        });
+        super.render(entity, yaw, partialTick, poseStack, buffers, packedLight);
+    }
+
+    private static boolean isBuried(PalettedBlockVolume blocks, int x, int y, int z) {
+        return isOpaque(blocks, x - 1, y, z) && isOpaque(blocks, x + 1, y, z)
+                && isOpaque(blocks, x, y - 1, z) && isOpaque(blocks, x, y + 1, z)
+                && isOpaque(blocks, x, y, z - 1) && isOpaque(blocks, x, y, z + 1);
+    }
+
+    private static boolean isOpaque(PalettedBlockVolume blocks, int x, int y, int z) {
+        if (x < 0 || y < 0 || z < 0 || x >= blocks.getSizeX() || y >= blocks.getSizeY() || z >= blocks.getSizeZ()) return false;
+        BlockState state = blocks.get(x, y, z);
+        return state.isSolidRender(EmptyBlockGetter.INSTANCE, BlockPos.ZERO);
+    }
+
+    @Override
+    public @NotNull ResourceLocation getTextureLocation(@NotNull AirshipEntity entity) {
+        return InventoryMenu.BLOCK_ATLAS;
+    }
+}
@@ -0,0 +1,220 @@
+package net.aiden.aircraftmod.event;
+
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.block.custom.JumpEffectThrottle;
+import net.aiden.aircraftmod.block.pump.AirPumpUpdateQueue;
+import net.aiden.aircraftmod.block.pump.AirPumpWakeTracker;
+import net.aiden.aircraftmod.block.pump.DestroyEffectLimiter;
+import net.aiden.aircraftmod.block.pump.PumpChunkState;
+import net.aiden.aircraftmod.block.pump.PumpChunkStates;
+import net.aiden.aircraftmod.block.pump.PumpLightBatcher;
+import net.aiden.aircraftmod.block.pump.PumpPressureNetworks;
+import net.aiden.aircraftmod.block.pump.PumpPushability;
+import net.aiden.aircraftmod.block.pump.PumpSoundCoalescer;
+import net.aiden.aircraftmod.block.pump.RedstoneSignalCache;
+import net.aiden.aircraftmod.command.AircraftModCommand;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.config.ConfigOverrides;
+import net.aiden.aircraftmod.entity.airship.AirshipAssembler;
+import net.aiden.aircraftmod.item.scanner.ZirconScanIndex;
+import net.aiden.aircraftmod.metrics.PumpChunkProfiler;
+import net.aiden.aircraftmod.metrics.PumpMetrics;
+import net.aiden.aircraftmod.metrics.PumpMetricsExporter;
+import net.aiden.aircraftmod.network.PumpTriggerBatcher;
+import net.aiden.aircraftmod.world.ChunkGenBenchmark;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.CustomizeGuiOverlayEvent;
+import net.minecraftforge.common.capabilities.RegisterCapabilitiesEvent;
+import net.minecraftforge.event.AttachCapabilitiesEvent;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.level.PistonEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+
+import java.util.Locale;
+
+public class ModEvents {
+    @Mod.EventBusSubscriber(modid = AircraftMod.MOD_ID)
+    public static class ForgeEvents {
+        /**
+         * Wakes pumps near a block that is notifying its neighbours of a change, and forgets
+         * redstone signals and zircon scans the change could have affected.
+         */
+        @SubscribeEvent
+        public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+            if (event.getLevel() instanceof ServerLevel level) {
+                RedstoneSignalCache.get(level).invalidate(event.getPos());
+                AirPumpWakeTracker.get(level).onBlockUpdate(event.getPos());
+                ZirconScanIndex.get(level).invalidate(event.getPos());
+            }
+        }
+
+        /**
+         * Wakes pumps near a piston that has just moved, including the slot it pushed into.
+         */
+        @SubscribeEvent
+        public static void onPistonMoved(PistonEvent.Post event) {
+            if (event.getLevel() instanceof ServerLevel level) {
+                AirPumpWakeTracker tracker = AirPumpWakeTracker.get(level);
+                if (tracker.isEmpty()) return;
+
+                tracker.onBlockUpdate(event.getPos());
+                tracker.onBlockUpdate(event.getFaceOffsetPos());
+            }
+        }
+
+        /**
+         * Gives every server chunk a place to store the pumps that have no block entity, whatever the
+         * current storage mode, so pumps stored before a mode change still load.
+         */
+        @SubscribeEvent
+        public static void onAttachChunkCapabilities(AttachCapabilitiesEvent<LevelChunk> event) {
+            LevelChunk chunk = event.getObject();
+            if (!chunk.getLevel().isClientSide) {
+                event.addCapability(new ResourceLocation(AircraftMod.MOD_ID, "pump_states"), new PumpChunkState.Provider(chunk));
+            }
+        }
+
+        @SubscribeEvent
+        public static void onChunkLoad(ChunkEvent.Load event) {
+            if (event.getLevel() instanceof ServerLevel level && event.getChunk() instanceof LevelChunk chunk) {
+                PumpChunkStates.get(level).onChunkLoad(chunk);
+            }
+        }
+
+        @SubscribeEvent
+        public static void onChunkUnload(ChunkEvent.Unload event) {
+            if (event.getLevel() instanceof ServerLevel level && event.getChunk() instanceof LevelChunk chunk) {
+                PumpChunkStates.get(level).onChunkUnload(chunk);
+                ZirconScanIndex.get(level).onChunkUnload(chunk.getPos());
+            }
+        }
+
+        /**
+         * Runs the pump block events batched last tick before the level ticks, so their packets reach
+         * clients ahead of the block changes the level broadcasts. Once the level has ticked, evaluates
+         * queued pumps, plays the pump sounds of the tick, submits the light checks of the blocks
+         * pumps changed and settles the pressure networks of pumps moved this tick.
+         */
+        @SubscribeEvent
+        public static void onLevelTick(TickEvent.LevelTickEvent event) {
+            if (!(event.level instanceof ServerLevel level)) return;
+
+            if (event.phase == TickEvent.Phase.START) {
+                PumpTriggerBatcher.get(level).tick();
+            } else {
+                AirPumpUpdateQueue queue = AirPumpUpdateQueue.get(level);
+                // Pumps stored in their chunk have no ticker to poll them
+                if (!AircraftModCommonConfigs.EVENT_DRIVEN_PUMPS.get()) PumpChunkStates.get(level).enqueueAll(queue);
+                queue.tick();
+                PumpSoundCoalescer.get(level).flush();
+                PumpLightBatcher.get(level).flush();
+                PumpPressureNetworks.get(level).settle(level);
+            }
+        }
+
+        @SubscribeEvent
+        public static void onServerTick(TickEvent.ServerTickEvent event) {
+            if (event.phase == TickEvent.Phase.END) {
+                PumpMetricsExporter.onServerTick(event.getServer());
+                PumpChunkProfiler.onServerTick(event.getServer());
+            }
+        }
+
+        /**
+         * Rebuilds the pushability table when tags load, on server start, on /reload and when a client receives them.
+         */
+        @SubscribeEvent
+        public static void onTagsUpdated(TagsUpdatedEvent event) {
+            PumpPushability.onTagsUpdated();
+        }
+
+        @SubscribeEvent
+        public static void onRegisterCommands(RegisterCommandsEvent event) {
+            AircraftModCommand.register(event.getDispatcher());
+        }
+
+        @SubscribeEvent
+        public static void onServerStarted(ServerStartedEvent event) {
+            ChunkGenBenchmark.onServerStarted(event.getServer());
+        }
+
+        /**
+         * Cancels any running chunk profile and puts back config values a cut-short test run left overridden.
+         */
+        @SubscribeEvent
+        public static void onServerStopped(ServerStoppedEvent event) {
+            PumpChunkProfiler.cancel();
+            ConfigOverrides.restore();
+        }
+
+        @SubscribeEvent
+        public static void onLevelUnload(LevelEvent.Unload event) {
+            if (event.getLevel() instanceof ServerLevel level) {
+                AirPumpWakeTracker.remove(level);
+                AirPumpUpdateQueue.remove(level);
+                RedstoneSignalCache.remove(level);
+                PumpTriggerBatcher.remove(level);
+                PumpSoundCoalescer.remove(level);
+                PumpLightBatcher.remove(level);
+                AirshipAssembler.remove(level);
+                PumpChunkStates.remove(level);
+                JumpEffectThrottle.remove(level);
+                ZirconScanIndex.remove(level);
+            } else if (event.getLevel().isClientSide()) {
+                DestroyEffectLimiter.clear();
+            }
+        }
+    }
+
+    @Mod.EventBusSubscriber(modid = AircraftMod.MOD_ID, value = Dist.CLIENT)
+    public static class ClientForgeEvents {
+        /**
+         * Shows on the debug screen how many pump destroy effects were left out.
+         */
+        @SubscribeEvent
+        public static void onDebugText(CustomizeGuiOverlayEvent.DebugText event) {
+            if (DestroyEffectLimiter.getRequested() == 0) return;
+            event.getLeft().add(String.format(Locale.ROOT, "Air pump destroy effects: %d shown, %d skipped",
+                    DestroyEffectLimiter.getRequested() - DestroyEffectLimiter.getSkipped(), DestroyEffectLimiter.getSkipped()));
+        }
+    }
+
+    @Mod.EventBusSubscriber(modid = AircraftMod.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
+    public static class ModBusEvents {
+        @SubscribeEvent
+        public static void onRegisterCapabilities(RegisterCapabilitiesEvent event) {
+            event.register(PumpChunkState.class);
+        }
+
+        @SubscribeEvent
+        public static void onConfigLoading(ModConfigEvent.Loading event) {
+            onConfigChanged(event);
+        }
+
+        @SubscribeEvent
+        public static void onConfigReloading(ModConfigEvent.Reloading event) {
+            onConfigChanged(event);
+        }
+
+        /**
+         * Copies config values that hot paths read as plain fields, whenever the config is loaded or edited.
+         */
+        private static void onConfigChanged(ModConfigEvent event) {
+            if (event.getConfig().getSpec() == AircraftModCommonConfigs.SPEC) {
+                PumpMetrics.setEnabled(AircraftModCommonConfigs.METRICS_ENABLED.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package net.aiden.aircraftmod.gametest;
+
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.block.pump.PumpLightBatcher;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.config.ConfigOverrides;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Light scenarios for a 32x32 wall of air pumps, run by the headless {@code gameTestServer}
+ * configuration. Every pump in the wall faces east with a piston facing it from across its head, and
+ * the pistons' power is switched every {@value GameTestBenchmarks#CLOCK_HALF_PERIOD} ticks, so the
+ * whole wall strokes in the same tick. Each scenario records how many light checks the pumps
+ * submitted, how long the server thread took to submit them at the end of the tick, and how long the
+ * server tick took, with {@code pumps.batchLightUpdates} on and off.
+ * <p>
+ * The light engine propagates light on its own thread, so its time only shows up in the server tick
+ * as far as the server waits for it; the number of checks submitted is the measure of its work.
+ * <p>
+ * Results are logged and appended to {@code gametest-results/air-pump-light.csv} in the run directory.
+ *
+ * @author Aiden Black
+ */
+@GameTestHolder(AircraftMod.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class AirPumpLightGameTests {
+    private static final String TEMPLATE_NAMESPACE = "forge";
+    private static final String TEMPLATE = "empty3x3x3";
+
+    /** pumps along each side of the wall */
+    private static final int SIDE = 32;
+    private static final int TIMEOUT_TICKS = GameTestBenchmarks.MEASURE_TIMEOUT_TICKS;
+
+    private static final Path RESULTS = Paths.get("gametest-results", "air-pump-light.csv");
+
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_light_wall_batched", timeoutTicks = TIMEOUT_TICKS)
+    public static void wallBatched(GameTestHelper helper) {
+        run(helper, new Scenario("wall_32x32_batched", true));
+    }
+
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_light_wall_unbatched", timeoutTicks = TIMEOUT_TICKS)
+    public static void wallUnbatched(GameTestHelper helper) {
+        run(helper, new Scenario("wall_32x32_unbatched", false));
+    }
+
+    /**
+     * Builds the scenario's wall and measures it. The wall is torn down and the batching setting is
+     * put back once measuring ends.
+     *
+     * @param helper   gametest context
+     * @param scenario settings to measure the wall with
+     */
+    private static void run(GameTestHelper helper, Scenario scenario) {
+        ServerLevel level = helper.getLevel();
+        GameTestBenchmarks.PumpArray wall = new GameTestBenchmarks.PumpArray(level, helper.absolutePos(BlockPos.ZERO).above(), Direction.EAST,
+                SIDE * SIDE, GameTestBenchmarks.PumpArray.SOURCE_DISTANCE);
+        ConfigOverrides.set(AircraftModCommonConfigs.BATCH_LIGHT_UPDATES, scenario.batched());
+
+        wall.placeOpponents(index -> true);
+        wall.placePumps();
+        GameTestBenchmarks.measure(helper, wall, true, new LightRecorder(level, scenario));
+    }
+
+    /**
+     * @param name    name the scenario is reported under
+     * @param batched whether the light checks of pump block changes are batched
+     */
+    private record Scenario(String name, boolean batched) {
+    }
+
+    /**
+     * Records, for each measured tick, the duration of the last light flush in the wall's level, and
+     * counts the light checks pumps submitted while measuring.
+     */
+    private static class LightRecorder extends GameTestBenchmarks.Recorder {
+        private final ServerLevel level;
+        private final Scenario scenario;
+        private final long[] flushNanos = new long[GameTestBenchmarks.MEASURE_TICKS];
+        private long startChanges;
+        private long startChecks;
+
+        LightRecorder(ServerLevel level, Scenario scenario) {
+            super(level.getServer());
+            this.level = level;
+            this.scenario = scenario;
+        }
+
+        @Override
+        protected void start() {
+            PumpLightBatcher batcher = PumpLightBatcher.get(level);
+            startChanges = batcher.getChanges();
+            startChecks = batcher.getChecks();
+        }
+
+        @Override
+        protected void sample(int sample) {
+            flushNanos[sample] = PumpLightBatcher.get(level).getLastFlushNanos();
+        }
+
+        @Override
+        protected void finish(long[] tickNanos) {
+            PumpLightBatcher batcher = PumpLightBatcher.get(level);
+            long[] flushes = Arrays.copyOf(flushNanos, tickNanos.length);
+            new Result(scenario, tickNanos.length, batcher.getChanges() - startChanges, batcher.getChecks() - startChecks,
+                    GameTestBenchmarks.meanMillis(tickNanos), GameTestBenchmarks.percentileMillis(tickNanos, 0.95), Arrays.stream(flushes).sum() / 1_000_000.0).report();
+        }
+    }
+
+    /**
+     * Measurements of one scenario. Flush time is only spent with batching on; without it, the same
+     * submissions happen one by one during the pumps' moves and are part of the server tick.
+     */
+    private record Result(Scenario scenario, int ticks, long changes, long lightChecks, double meanMspt, double p95Mspt, double flushMs) {
+        private static final String HEADER = "scenario,pumps,batched,ticks,block_changes,light_checks,mean_mspt,p95_mspt,flush_ms";
+
+        void report() {
+            String row = String.format(Locale.ROOT, "%s,%d,%b,%d,%d,%d,%.3f,%.3f,%.3f", scenario.name(), SIDE * SIDE, scenario.batched(),
+                    ticks, changes, lightChecks, meanMspt, p95Mspt, flushMs);
+            GameTestBenchmarks.report(RESULTS, "Air pump light", HEADER, row);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package net.aiden.aircraftmod.gametest;
+
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.block.pump.AirPumpUpdateQueue;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.config.ConfigOverrides;
+import net.aiden.aircraftmod.metrics.DimensionMetrics;
+import net.aiden.aircraftmod.metrics.PumpHook;
+import net.aiden.aircraftmod.metrics.PumpMetrics;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Load scenarios for air pump farms, run by the headless {@code gameTestServer} configuration. Each
+ * scenario builds a square farm of upward-facing pumps, lets it settle, then records for a fixed
+ * number of ticks how long the server tick took and how much of it went into the pumps: their
+ * block events, the pump update queue drain, the ticks of lightweight moving heads and, with
+ * event-driven pumps off, the ticks of polling pump block entities. All but the queue drain are read
+ * from the {@link PumpMetrics} hooks, which are switched on while a scenario is measured. Vanilla
+ * moving pistons are not pump code and are only part of the server tick.
+ * <p>
+ * Results are logged and appended to {@code gametest-results/air-pump-load.csv} in the run directory.
+ * If the system property {@value #MAX_PUMP_MSPT_PROPERTY} is set, a scenario fails when its mean
+ * pump time per tick exceeds that many milliseconds, so CI can catch regressions.
+ * <p>
+ * Every scenario is in a batch of its own so that farms never share the server with one another.
+ *
+ * @author Aiden Black
+ */
+@GameTestHolder(AircraftMod.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class AirPumpLoadGameTests {
+    public static final String MAX_PUMP_MSPT_PROPERTY = "aircraftmod.gametest.maxPumpMspt";
+
+    private static final String TEMPLATE_NAMESPACE = "forge";
+    private static final String TEMPLATE = "empty3x3x3";
+
+    private static final int TIMEOUT_TICKS = GameTestBenchmarks.MEASURE_TIMEOUT_TICKS;
+
+    private static final Path RESULTS = Paths.get("gametest-results", "air-pump-load.csv");
+
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_load_1k_free", timeoutTicks = TIMEOUT_TICKS)
+    public static void free1k(GameTestHelper helper) {
+        run(helper, new Scenario("free_1k", 1_000, false, false, false));
+    }
+
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_load_1k_opposed", timeoutTicks = TIMEOUT_TICKS)
+    public static void opposed1k(GameTestHelper helper) {
+        run(helper, new Scenario("opposed_1k", 1_000, true, false, false));
+    }
+
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_load_1k_clocked", timeoutTicks = TIMEOUT_TICKS)
+    public static void clocked1k(GameTestHelper helper) {
+        run(helper, new Scenario("clocked_1k", 1_000, true, true, false));
+    }
+
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_load_10k_free", timeoutTicks = TIMEOUT_TICKS)
+    public static void free10k(GameTestHelper helper) {
+        run(helper, new Scenario("free_10k", 10_000, false, false, false));
+    }
+
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_load_10k_opposed", timeoutTicks = TIMEOUT_TICKS)
+    public static void opposed10k(GameTestHelper helper) {
+        run(helper, new Scenario("opposed_10k", 10_000, true, false, false));
+    }
+
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_load_10k_clocked", timeoutTicks = TIMEOUT_TICKS)
+    public static void clocked10k(GameTestHelper helper) {
+        run(helper, new Scenario("clocked_10k", 10_000, true, true, false));
+    }
+
+    /**
+     * Same farm as {@link #clocked10k} with pump heads animated by vanilla moving pistons, to compare
+     * against the lightweight moving heads.
+     */
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_load_10k_clocked_vanilla_heads", timeoutTicks = TIMEOUT_TICKS)
+    public static void clocked10kVanillaHeads(GameTestHelper helper) {
+        run(helper, new Scenario("clocked_10k_vanilla_heads", 10_000, true, true, true));
+    }
+
+    /**
+     * Builds the scenario's farm and measures it. The farm is torn down and the settings the
+     * scenario changed are put back once measuring ends.
+     *
+     * @param helper   gametest context
+     * @param scenario farm to build
+     */
+    private static void run(GameTestHelper helper, Scenario scenario) {
+        ServerLevel level = helper.getLevel();
+        GameTestBenchmarks.PumpArray farm = new GameTestBenchmarks.PumpArray(level, helper.absolutePos(BlockPos.ZERO).above(2), Direction.UP,
+                scenario.pumps(), GameTestBenchmarks.PumpArray.SOURCE_DISTANCE);
+        ConfigOverrides.set(AircraftModCommonConfigs.LIGHTWEIGHT_MOVING_HEADS, !scenario.vanillaHeads());
+
+        if (scenario.opposed()) farm.placeOpponents(index -> true);
+        farm.placePumps();
+        GameTestBenchmarks.measure(helper, farm, scenario.clocked(), new LoadRecorder(helper, scenario));
+    }
+
+    /**
+     * @param name    name the scenario is reported under
+     * @param pumps   number of pumps in the farm
+     * @param opposed whether each pump has a piston facing it from across its head
+     * @param clocked whether the opposing pistons' power is switched on and off every
+     *                {@value GameTestBenchmarks#CLOCK_HALF_PERIOD} ticks
+     * @param vanillaHeads whether pump heads are animated by vanilla moving pistons rather than lightweight moving heads
+     */
+    private record Scenario(String name, int pumps, boolean opposed, boolean clocked, boolean vanillaHeads) {
+    }
+
+    /**
+     * Records, for each measured tick, the time pumps took in the farm's level during the tick: the
+     * pump queue drain plus the growth of the pump hooks that run outside it. Reports the scenario,
+     * failing it if its mean pump time is over the budget.
+     */
+    private static class LoadRecorder extends GameTestBenchmarks.Recorder {
+        /** hooks that make up the pump time besides the queue drain, none nested in another or in the drain */
+        private static final PumpHook[] PUMP_HOOKS = {PumpHook.TRIGGER_EVENT, PumpHook.MOVING_HEAD_TICK, PumpHook.BLOCK_ENTITY_TICK};
+
+        private final GameTestHelper helper;
+        private final ServerLevel level;
+        private final Scenario scenario;
+        private final long[] pumpNanos = new long[GameTestBenchmarks.MEASURE_TICKS];
+        private long evaluations;
+        private long hookNanos;
+
+        LoadRecorder(GameTestHelper helper, Scenario scenario) {
+            super(helper.getLevel().getServer());
+            this.helper = helper;
+            this.level = helper.getLevel();
+            this.scenario = scenario;
+        }
+
+        /**
+         * Switches the pump hooks on for the measurement, until {@link #stop} restores the config's setting.
+         */
+        @Override
+        protected void start() {
+            PumpMetrics.setEnabled(true);
+            hookNanos = totalHookNanos();
+        }
+
+        @Override
+        protected void sample(int sample) {
+            AirPumpUpdateQueue queue = AirPumpUpdateQueue.get(level);
+            long hooks = totalHookNanos();
+            pumpNanos[sample] = queue.getLastDrainNanos() + hooks - hookNanos;
+            hookNanos = hooks;
+            evaluations += queue.getLastDrainCount();
+        }
+
+        @Override
+        protected void finish(long[] tickNanos) {
+            long[] pumps = Arrays.copyOf(pumpNanos, tickNanos.length);
+            Result result = new Result(scenario, tickNanos.length, GameTestBenchmarks.meanMillis(tickNanos), GameTestBenchmarks.percentileMillis(tickNanos, 0.95),
+                    GameTestBenchmarks.meanMillis(pumps), GameTestBenchmarks.percentileMillis(pumps, 0.95), evaluations);
+            result.report();
+
+            String budget = System.getProperty(MAX_PUMP_MSPT_PROPERTY);
+            if (budget != null && result.meanPumpMspt() > Double.parseDouble(budget)) {
+                helper.fail(String.format(Locale.ROOT, "%s spent %.3f ms per tick on pumps, over the %s ms budget", scenario.name(), result.meanPumpMspt(), budget));
+            }
+        }
+
+        @Override
+        protected void stop() {
+            PumpMetrics.setEnabled(AircraftModCommonConfigs.METRICS_ENABLED.get());
+        }
+
+        /**
+         * @return total time recorded so far by the pump hooks in the farm's level
+         */
+        private long totalHookNanos() {
+            for (DimensionMetrics metrics : PumpMetrics.getDimensions()) {
+                if (metrics.getDimension() != level.dimension()) continue;
+
+                long nanos = 0;
+                for (PumpHook hook : PUMP_HOOKS) nanos += metrics.getHook(hook).getTotalNanos();
+                return nanos;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Measurements of one scenario. Server times cover the whole tick, including the test's own
+     * block placement on clocked farms; pump times cover the pumps' block events, queue drains,
+     * moving-head ticks and block entity ticks.
+     */
+    private record Result(Scenario scenario, int ticks, double meanMspt, double p95Mspt, double meanPumpMspt, double p95PumpMspt, long evaluations) {
+        private static final String HEADER = "scenario,pumps,opposed,clocked,ticks,mean_mspt,p95_mspt,mean_pump_mspt,p95_pump_mspt,evaluations";
+
+        void report() {
+            String row = String.format(Locale.ROOT, "%s,%d,%b,%b,%d,%.3f,%.3f,%.3f,%.3f,%d", scenario.name(), scenario.pumps(), scenario.opposed(), scenario.clocked(),
+                    ticks, meanMspt, p95Mspt, meanPumpMspt, p95PumpMspt, evaluations);
+            GameTestBenchmarks.report(RESULTS, "Air pump load", HEADER, row);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package net.aiden.aircraftmod.gametest;
+
+import com.mojang.authlib.GameProfile;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.config.ConfigOverrides;
+import net.aiden.aircraftmod.network.AircraftModNetwork;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.AfterBatch;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.Connection;
+import net.minecraft.network.ConnectionProtocol;
+import net.minecraft.network.PacketEncoder;
+import net.minecraft.network.Varint21LengthFieldPrepender;
+import net.minecraft.network.protocol.PacketFlow;
+import net.minecraft.network.protocol.game.ClientboundBlockEventPacket;
+import net.minecraft.network.protocol.game.ClientboundCustomPayloadPacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.GameType;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Measures the bytes a clocked bank of air pumps costs on the wire per tick, with
+ * {@code pumps.batchPumpEvents} off and then on. A probe player watches the bank through a connection
+ * whose channel runs the vanilla packet encoder and length prefix and counts every byte that would
+ * leave the server, so both runs see exactly what a client next to the bank would be sent.
+ * <p>
+ * Each run counts every byte sent to the probe, and separately the bytes of pump events: vanilla
+ * block event packets without batching, the mod's batch packets with it. Sizes are before the
+ * connection's compression, which vanilla only applies to packets over its threshold.
+ * <p>
+ * Results are logged and appended to {@code gametest-results/air-pump-network.csv} in the run
+ * directory, and the batched run must send fewer pump event bytes than the unbatched one.
+ *
+ * @author Aiden Black
+ */
+@GameTestHolder(AircraftMod.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class AirPumpNetworkGameTests {
+    /** pumps along each side of the bank */
+    private static final int SIDE = 16;
+    /** blocks above the bank's pumps the probe watches from, clear of the pistons and their power */
+    private static final int PROBE_HEIGHT = 8;
+    /** ticks each run lasts, settling included */
+    private static final int RUN_TICKS = GameTestBenchmarks.SETTLE_TICKS + GameTestBenchmarks.MEASURE_TICKS;
+    /** ticks left between the two runs for the first bank's last changes to go out */
+    private static final int GAP_TICKS = 5;
+
+    private static final int UNBATCHED_START = 1;
+    private static final int BATCHED_START = UNBATCHED_START + RUN_TICKS + GAP_TICKS;
+    private static final int TIMEOUT_TICKS = BATCHED_START + RUN_TICKS + 20;
+
+    private static final Path RESULTS = Paths.get("gametest-results", "air-pump-network.csv");
+
+    /** probe of the running test, removed after the batch however the test ended */
+    @Nullable
+    private static WireProbe probe;
+
+    @GameTest(templateNamespace = "forge", template = "empty3x3x3", batch = "pump_network", timeoutTicks = TIMEOUT_TICKS)
+    public static void batchedBankSendsFewerBytes(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        BlockPos origin = helper.absolutePos(BlockPos.ZERO).above();
+        GameTestBenchmarks.PumpArray bank = new GameTestBenchmarks.PumpArray(level, origin, Direction.UP, SIDE * SIDE, GameTestBenchmarks.PumpArray.SOURCE_DISTANCE);
+        WireProbe wire = new WireProbe(level, origin.offset(SIDE / 2, PROBE_HEIGHT, SIDE / 2));
+        probe = wire;
+        Result[] results = new Result[2];
+
+        helper.onEachTick(() -> {
+            long tick = helper.getTick();
+            for (int start : new int[]{UNBATCHED_START, BATCHED_START}) {
+                long elapsed = tick - start;
+                if (elapsed > 0 && elapsed < RUN_TICKS && elapsed % GameTestBenchmarks.CLOCK_HALF_PERIOD == 0) bank.togglePower();
+                if (elapsed == GameTestBenchmarks.SETTLE_TICKS) wire.reset();
+            }
+        });
+        helper.runAtTickTime(UNBATCHED_START, () -> {
+            ConfigOverrides.set(AircraftModCommonConfigs.BATCH_PUMP_EVENTS, false);
+            bank.placeOpponents(index -> true);
+            bank.placePumps();
+        });
+        helper.runAtTickTime(UNBATCHED_START + RUN_TICKS, () -> {
+            results[0] = wire.result(false);
+            bank.tearDown();
+        });
+        helper.runAtTickTime(BATCHED_START, () -> {
+            ConfigOverrides.set(AircraftModCommonConfigs.BATCH_PUMP_EVENTS, true);
+            bank.placeOpponents(index -> true);
+            bank.placePumps();
+        });
+        helper.runAtTickTime(BATCHED_START + RUN_TICKS, () -> {
+            results[1] = wire.result(true);
+            bank.tearDown();
+            results[0].report();
+            results[1].report();
+
+            helper.assertTrue(results[0].pumpEventBytes() > 0, "The probe received no vanilla pump events");
+            helper.assertTrue(results[1].pumpEventBytes() > 0, "The probe received no batched pump events");
+            helper.assertTrue(results[1].pumpEventBytes() < results[0].pumpEventBytes(),
+                    "Batched pump events took " + results[1].pumpEventBytes() + " bytes, vanilla block events " + results[0].pumpEventBytes());
+            helper.succeed();
+        });
+    }
+
+    /**
+     * Removes the probe player and puts back the batching setting, however the test ended.
+     */
+    @AfterBatch(batch = "pump_network")
+    public static void afterNetwork(ServerLevel level) {
+        if (probe != null) {
+            probe.close();
+            probe = null;
+        }
+        ConfigOverrides.restore();
+    }
+
+    /**
+     * A spectator player, in the level and the server's player list, whose connection counts the
+     * encoded bytes of every packet it is sent instead of sending them.
+     */
+    private static class WireProbe {
+        private final ServerLevel level;
+        private final ServerPlayer player;
+        private final EmbeddedChannel channel;
+        private final ByteCounter counter = new ByteCounter();
+        private final PumpEventClassifier classifier = new PumpEventClassifier();
+        private long startTick;
+
+        WireProbe(ServerLevel level, BlockPos pos) {
+            this.level = level;
+            Connection connection = new Connection(PacketFlow.SERVERBOUND);
+            // Outbound packets run from the connection towards the head: encoded, length-prefixed, counted
+            this.channel = new EmbeddedChannel(counter, new Varint21LengthFieldPrepender(), new PacketEncoder(PacketFlow.CLIENTBOUND), classifier, connection);
+            connection.setProtocol(ConnectionProtocol.PLAY);
+
+            this.player = new ServerPlayer(level.getServer(), level, new GameProfile(UUID.randomUUID(), "pump_wire_probe"), null);
+            new ServerGamePacketListenerImpl(level.getServer(), connection, player);
+            player.moveTo(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5, 0, 0);
+            player.setGameMode(GameType.SPECTATOR);
+            // Vanilla block events go to the player list, chunk-tracked packets to the level's players
+            level.getServer().getPlayerList().getPlayers().add(player);
+            level.addNewPlayer(player);
+        }
+
+        /**
+         * Starts counting afresh.
+         */
+        void reset() {
+            counter.bytes = 0;
+            counter.pumpEventBytes = 0;
+            counter.pumpEventPackets = 0;
+            startTick = level.getGameTime();
+        }
+
+        /**
+         * @param batched whether pump events were batched while counting
+         * @return what was counted since the last reset
+         */
+        Result result(boolean batched) {
+            long ticks = Math.max(1, level.getGameTime() - startTick);
+            return new Result(batched, ticks, counter.bytes, counter.pumpEventBytes, counter.pumpEventPackets);
+        }
+
+        void close() {
+            level.removePlayerImmediately(player, Entity.RemovalReason.DISCARDED);
+            level.getServer().getPlayerList().getPlayers().remove(player);
+            channel.finishAndReleaseAll();
+        }
+
+        /**
+         * Notes whether the packet about to be encoded is a pump event.
+         */
+        private class PumpEventClassifier extends ChannelOutboundHandlerAdapter {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                counter.pumpEvent = msg instanceof ClientboundBlockEventPacket
+                        || msg instanceof ClientboundCustomPayloadPacket payload && payload.getIdentifier().equals(AircraftModNetwork.CHANNEL_NAME);
+                ctx.write(msg, promise);
+            }
+        }
+
+        /**
+         * Counts the bytes that reach the head of the pipeline and drops them.
+         */
+        private static class ByteCounter extends ChannelOutboundHandlerAdapter {
+            private long bytes;
+            private long pumpEventBytes;
+            private long pumpEventPackets;
+            /** whether the bytes being written belong to a pump event, set as the packet is encoded */
+            private boolean pumpEvent;
+
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                if (msg instanceof ByteBuf buf) {
+                    bytes += buf.readableBytes();
+                    if (pumpEvent) {
+                        pumpEventBytes += buf.readableBytes();
+                        pumpEventPackets++;
+                    }
+                }
+                ReferenceCountUtil.release(msg);
+                promise.setSuccess();
+            }
+        }
+    }
+
+    /**
+     * Bytes one run sent to the probe.
+     */
+    private record Result(boolean batched, long ticks, long bytes, long pumpEventBytes, long pumpEventPackets) {
+        private static final String HEADER = "batched,pumps,ticks,bytes_per_tick,pump_event_bytes_per_tick,pump_event_packets_per_tick";
+
+        void report() {
+            String row = String.format(Locale.ROOT, "%b,%d,%d,%.1f,%.1f,%.2f", batched, SIDE * SIDE, ticks,
+                    (double) bytes / ticks, (double) pumpEventBytes / ticks, (double) pumpEventPackets / ticks);
+            GameTestBenchmarks.report(RESULTS, "Air pump network", HEADER, row);
+        }
+    }
+}
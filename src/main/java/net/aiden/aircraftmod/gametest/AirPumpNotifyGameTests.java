@@ -0,0 +1,93 @@
+package net.aiden.aircraftmod.gametest;
+
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.block.ModBlocks;
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.config.ConfigOverrides;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.AfterBatch;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.ObserverBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.util.function.Consumer;
+
+/**
+ * Checks that a pump stroke in precise neighbour update mode notifies the blocks past the end of the
+ * line it pushed. An observer sits just past the line's last destination, and the stroke must both
+ * make it pulse and notify it from the moving block placed at that destination.
+ *
+ * @author Aiden Black
+ */
+@GameTestHolder(AircraftMod.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class AirPumpNotifyGameTests {
+    private static final String TEMPLATE_NAMESPACE = "forge";
+    private static final String TEMPLATE = "empty3x3x3";
+
+    /** ticks given to the pump to extend and the observer to pulse */
+    private static final int EXTEND_TICKS = 10;
+    private static final int TIMEOUT_TICKS = EXTEND_TICKS + 20;
+    /** stone blocks in the pushed line */
+    private static final int LENGTH = 2;
+
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_notify_precise", timeoutTicks = TIMEOUT_TICKS)
+    public static void preciseStrokeNotifiesPastLine(GameTestHelper helper) {
+        ConfigOverrides.set(AircraftModCommonConfigs.PRECISE_NEIGHBOR_UPDATES, true);
+
+        ServerLevel level = helper.getLevel();
+        BlockPos basePos = helper.absolutePos(BlockPos.ZERO).above();
+        // The head takes the line's first block, so the line's last block lands one past its far end
+        BlockPos lastDestination = basePos.above(LENGTH + 1);
+        BlockPos observerPos = lastDestination.above();
+        int height = LENGTH + 2;
+
+        boolean[] notified = new boolean[1];
+        Consumer<BlockEvent.NeighborNotifyEvent> listener = event -> {
+            // The moving block only sits at the destination during the stroke; landing notifies again later
+            if (event.getLevel() == level && event.getPos().equals(lastDestination) && event.getState().is(Blocks.MOVING_PISTON)
+                    && event.getNotifiedSides().contains(Direction.UP)) {
+                notified[0] = true;
+            }
+        };
+        MinecraftForge.EVENT_BUS.addListener(listener);
+
+        boolean[] pulsed = new boolean[1];
+        level.setBlock(observerPos, Blocks.OBSERVER.defaultBlockState().setValue(ObserverBlock.FACING, Direction.DOWN), Block.UPDATE_ALL);
+        for (int y = 1; y <= LENGTH; y++) level.setBlock(basePos.above(y), Blocks.STONE.defaultBlockState(), Block.UPDATE_ALL);
+        level.setBlock(basePos, ModBlocks.AIR_PUMP_BASE.get().defaultBlockState().setValue(AirPumpBaseBlock.FACING, Direction.UP), Block.UPDATE_ALL);
+
+        helper.onEachTick(() -> {
+            BlockState observer = level.getBlockState(observerPos);
+            if (observer.is(Blocks.OBSERVER) && observer.getValue(ObserverBlock.POWERED)) pulsed[0] = true;
+        });
+        helper.runAtTickTime(EXTEND_TICKS, () -> {
+            MinecraftForge.EVENT_BUS.unregister(listener);
+            BlockState baseState = level.getBlockState(basePos);
+            boolean extended = baseState.is(ModBlocks.AIR_PUMP_BASE.get()) && baseState.getValue(AirPumpBaseBlock.EXTENDED);
+
+            BlockState air = Blocks.AIR.defaultBlockState();
+            for (int y = height; y >= 0; y--) level.setBlock(basePos.above(y), air, Block.UPDATE_CLIENTS);
+
+            helper.assertTrue(extended, "The pump did not extend into its line");
+            helper.assertTrue(notified[0], "The stroke did not notify the block past its line's last destination");
+            helper.assertTrue(pulsed[0], "The observer past the pushed line did not pulse");
+            helper.succeed();
+        });
+    }
+
+    @AfterBatch(batch = "pump_notify_precise")
+    public static void afterPrecise(ServerLevel level) {
+        ConfigOverrides.restore();
+    }
+}
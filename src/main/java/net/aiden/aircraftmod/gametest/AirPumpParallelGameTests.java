@@ -0,0 +1,168 @@
+package net.aiden.aircraftmod.gametest;
+
+import com.mojang.logging.LogUtils;
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.block.pump.AirPumpUpdateQueue;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.config.ConfigOverrides;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.AfterBatch;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import org.slf4j.Logger;
+
+/**
+ * Checks that resolving pump structures on worker threads changes nothing about the outcome. The
+ * same mixed farm is run twice on the same spot, once with {@code parallelResolution} off and once
+ * with it on, and every block of the farm must end up the same.
+ * <p>
+ * The farm mixes every way a resolution can end: lines short enough to push, lines one block too
+ * long, lines ending against obsidian, lines ending in a cobweb that breaks, and pumps opposed by a
+ * piston whose power is switched on and off so they keep extending and contracting.
+ *
+ * @author Aiden Black
+ */
+@GameTestHolder(AircraftMod.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class AirPumpParallelGameTests {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    /** pumps along each side of the farm */
+    private static final int SIDE = 24;
+    /** ticks each run of the farm lasts */
+    private static final int RUN_TICKS = 60;
+    /** ticks left between the two runs for anything still queued to drain away */
+    private static final int GAP_TICKS = 5;
+
+    private static final int SERIAL_START = 1;
+    private static final int PARALLEL_START = SERIAL_START + RUN_TICKS + GAP_TICKS;
+    private static final int TIMEOUT_TICKS = PARALLEL_START + RUN_TICKS + 20;
+
+    @GameTest(templateNamespace = "forge", template = "empty3x3x3", batch = "pump_parallel", timeoutTicks = TIMEOUT_TICKS)
+    public static void parallelMatchesSerial(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        MixedFarm farm = new MixedFarm(level, helper.absolutePos(BlockPos.ZERO).above(), AircraftModCommonConfigs.MAX_PUSH_LENGTH.get());
+        // Airships leave as entities, which this test does not compare
+        ConfigOverrides.set(AircraftModCommonConfigs.AIRSHIPS_ENABLED, false);
+        BlockState[][] outcomes = new BlockState[2][];
+        long[] parallelDrainsBefore = new long[1];
+
+        helper.onEachTick(() -> {
+            long tick = helper.getTick();
+            for (int start : new int[]{SERIAL_START, PARALLEL_START}) {
+                long elapsed = tick - start;
+                if (elapsed > 0 && elapsed < RUN_TICKS && elapsed % GameTestBenchmarks.CLOCK_HALF_PERIOD == 0) farm.togglePower();
+            }
+        });
+        helper.runAtTickTime(SERIAL_START, () -> {
+            ConfigOverrides.set(AircraftModCommonConfigs.PARALLEL_RESOLUTION, false);
+            farm.build();
+        });
+        helper.runAtTickTime(SERIAL_START + RUN_TICKS, () -> {
+            outcomes[0] = farm.capture();
+            farm.tearDown();
+        });
+        helper.runAtTickTime(PARALLEL_START, () -> {
+            ConfigOverrides.set(AircraftModCommonConfigs.PARALLEL_RESOLUTION, true);
+            parallelDrainsBefore[0] = AirPumpUpdateQueue.get(level).getParallelDrains();
+            farm.build();
+        });
+        helper.runAtTickTime(PARALLEL_START + RUN_TICKS, () -> {
+            outcomes[1] = farm.capture();
+            farm.tearDown();
+
+            AirPumpUpdateQueue queue = AirPumpUpdateQueue.get(level);
+            long parallelDrains = queue.getParallelDrains() - parallelDrainsBefore[0];
+            LOGGER.info("Parallel air pump run: {} parallel drains, {} stale resolutions so far", parallelDrains, queue.getStaleResolutions());
+            helper.assertTrue(parallelDrains > 0, "The parallel run never resolved on worker threads");
+
+            for (int i = 0; i < outcomes[0].length; i++) {
+                if (outcomes[0][i] != outcomes[1][i]) {
+                    helper.fail("Serial and parallel runs differ at " + farm.positionOf(i) + ": " + outcomes[0][i] + " vs " + outcomes[1][i]);
+                }
+            }
+            helper.succeed();
+        });
+    }
+
+    /**
+     * Puts back the config values the test changed, however it ended.
+     */
+    @AfterBatch(batch = "pump_parallel")
+    public static void afterParallel(ServerLevel level) {
+        ConfigOverrides.restore();
+    }
+
+    /**
+     * A square of upward-facing pumps, each with a column above it. Which kind of column a pump
+     * gets, and how long its line is, follows from its index alone, so every build is identical.
+     */
+    private static class MixedFarm {
+        private static final int LINE = 0;
+        private static final int BLOCKED = 1;
+        private static final int BREAKING = 2;
+        private static final int OPPOSED = 3;
+
+        private final ServerLevel level;
+        private final int maxPushLength;
+        /** blocks from a pump base to the top of its column, inclusive */
+        private final int height;
+        private final GameTestBenchmarks.PumpArray pumps;
+
+        MixedFarm(ServerLevel level, BlockPos origin, int maxPushLength) {
+            this.level = level;
+            this.maxPushLength = maxPushLength;
+            this.height = maxPushLength + 5;
+            this.pumps = new GameTestBenchmarks.PumpArray(level, origin, Direction.UP, SIDE * SIDE, height);
+        }
+
+        void build() {
+            pumps.placeOpponents(index -> index % 4 == OPPOSED);
+
+            BlockState stone = Blocks.STONE.defaultBlockState();
+            for (int index = 0; index < pumps.size(); index++) {
+                int kind = index % 4;
+                if (kind == OPPOSED) continue;
+
+                BlockPos basePos = pumps.basePos(index);
+                // one past the push limit, so some lines of plain stone are too long
+                int length = (index / 4) % (maxPushLength + 2);
+                for (int y = 1; y <= length; y++) level.setBlock(basePos.above(y), stone, Block.UPDATE_ALL);
+                if (kind == BLOCKED) level.setBlock(basePos.above(length + 1), Blocks.OBSIDIAN.defaultBlockState(), Block.UPDATE_ALL);
+                if (kind == BREAKING) level.setBlock(basePos.above(length + 1), Blocks.COBWEB.defaultBlockState(), Block.UPDATE_ALL);
+            }
+            pumps.placePumps();
+        }
+
+        /**
+         * Switches every opposing piston's power source on or off.
+         */
+        void togglePower() {
+            pumps.togglePower();
+        }
+
+        /**
+         * @return every BlockState of the farm, in the order given by {@link #positionOf}
+         */
+        BlockState[] capture() {
+            BlockState[] states = new BlockState[pumps.size() * (height + 1)];
+            for (int i = 0; i < states.length; i++) states[i] = level.getBlockState(positionOf(i));
+            return states;
+        }
+
+        BlockPos positionOf(int index) {
+            return pumps.basePos(index / (height + 1)).above(index % (height + 1));
+        }
+
+        void tearDown() {
+            pumps.tearDown();
+        }
+    }
+}
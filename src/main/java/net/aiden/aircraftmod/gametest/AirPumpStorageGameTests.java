@@ -0,0 +1,199 @@
+package net.aiden.aircraftmod.gametest;
+
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.block.pump.PumpChunkState;
+import net.aiden.aircraftmod.block.pump.PumpChunkStates;
+import net.aiden.aircraftmod.block.pump.PumpStateStorage;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.config.ConfigOverrides;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.storage.ChunkSerializer;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares the two {@link PumpStateStorage} modes on a farm of 100k idle pumps, run by the headless
+ * {@code gameTestServer} configuration. Every pump faces up into obsidian so that none of them
+ * extend and the farm holds nothing but pump bases.
+ * <p>
+ * Heap per pump is the growth of the used heap, after a full collection, between just before the
+ * pumps are placed and once they have settled. Saving is timed as {@link ChunkSerializer#write} plus
+ * encoding the tag to bytes, over every chunk of the farm. Loading is timed as decoding those bytes
+ * plus turning the pump part of each tag back into runtime state: block entities in one mode, chunk
+ * states in the other. The rest of a chunk's loading is the same in both modes and is left out.
+ * <p>
+ * Results are logged and appended to {@code gametest-results/air-pump-storage.csv} in the run directory.
+ *
+ * @author Aiden Black
+ */
+@GameTestHolder(AircraftMod.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class AirPumpStorageGameTests {
+    private static final String TEMPLATE_NAMESPACE = "forge";
+    private static final String TEMPLATE = "empty3x3x3";
+
+    private static final int PUMPS = 100_000;
+    /** tick the farm's obsidian is built at */
+    private static final int BUILD_TICK = 1;
+    /** tick the pumps are placed at */
+    private static final int PLACE_TICK = 2;
+    /** ticks given to the placed pumps to be evaluated before measuring */
+    private static final int SETTLE_TICKS = 20;
+    private static final int MEASURE_TICK = PLACE_TICK + SETTLE_TICKS;
+    private static final int TIMEOUT_TICKS = MEASURE_TICK + 20;
+
+    private static final Path RESULTS = Paths.get("gametest-results", "air-pump-storage.csv");
+
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_storage_block_entity", timeoutTicks = TIMEOUT_TICKS)
+    public static void blockEntity100k(GameTestHelper helper) {
+        run(helper, PumpStateStorage.BLOCK_ENTITY);
+    }
+
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_storage_chunk", timeoutTicks = TIMEOUT_TICKS)
+    public static void chunk100k(GameTestHelper helper) {
+        run(helper, PumpStateStorage.CHUNK);
+    }
+
+    /**
+     * Builds the farm with pumps stored the given way, measures it and tears it down again. The farm
+     * is torn down and the storage mode put back whether or not measuring succeeded.
+     *
+     * @param helper  gametest context
+     * @param storage storage mode the pumps are placed with
+     */
+    private static void run(GameTestHelper helper, PumpStateStorage storage) {
+        ServerLevel level = helper.getLevel();
+        // Every pump faces up into obsidian, so none of them extend
+        GameTestBenchmarks.PumpArray farm = new GameTestBenchmarks.PumpArray(level, helper.absolutePos(BlockPos.ZERO).above(2), Direction.UP, PUMPS, 1);
+        long[] heapBefore = new long[1];
+        int[] storedBefore = new int[1];
+
+        helper.runAtTickTime(BUILD_TICK, () -> {
+            ConfigOverrides.set(AircraftModCommonConfigs.PUMP_STATE_STORAGE, storage);
+            farm.placeAhead(1, Blocks.OBSIDIAN.defaultBlockState(), Block.UPDATE_CLIENTS);
+        });
+        helper.runAtTickTime(PLACE_TICK, () -> {
+            storedBefore[0] = PumpChunkStates.get(level).getPumpCount();
+            heapBefore[0] = usedHeap();
+            farm.placePumps();
+        });
+        helper.runAtTickTime(MEASURE_TICK, () -> {
+            double heapPerPump = (double) (usedHeap() - heapBefore[0]) / PUMPS;
+            int stored = PumpChunkStates.get(level).getPumpCount() - storedBefore[0];
+            int expectedStored = storage == PumpStateStorage.CHUNK ? PUMPS : 0;
+
+            List<LevelChunk> chunks = farm.chunks();
+            List<byte[]> saved = new ArrayList<>(chunks.size());
+            long saveNanos;
+            long loadNanos;
+            int loaded = 0;
+            try {
+                long saveStart = System.nanoTime();
+                for (LevelChunk chunk : chunks) saved.add(encode(ChunkSerializer.write(level, chunk)));
+                saveNanos = System.nanoTime() - saveStart;
+
+                long loadStart = System.nanoTime();
+                for (int i = 0; i < chunks.size(); i++) loaded += materialise(chunks.get(i), decode(saved.get(i)), storage);
+                loadNanos = System.nanoTime() - loadStart;
+            } finally {
+                farm.tearDown();
+                ConfigOverrides.restore();
+            }
+            long savedBytes = saved.stream().mapToLong(bytes -> bytes.length).sum();
+            new Result(storage, chunks.size(), heapPerPump, saveNanos / 1_000_000.0, loadNanos / 1_000_000.0, savedBytes).report();
+
+            helper.assertTrue(stored == expectedStored, "Expected " + expectedStored + " pumps stored in chunks, found " + stored);
+            helper.assertTrue(loaded == PUMPS, "Loaded the state of " + loaded + " pumps out of " + PUMPS);
+            helper.succeed();
+        });
+    }
+
+    /**
+     * Turns the pump part of a saved chunk back into what the pumps would run with.
+     *
+     * @return number of pumps whose state was loaded
+     */
+    private static int materialise(LevelChunk chunk, CompoundTag tag, PumpStateStorage storage) {
+        if (storage == PumpStateStorage.CHUNK) {
+            CompoundTag capabilities = tag.getCompound("ForgeCaps");
+            String key = AircraftMod.MOD_ID + ":pump_states";
+            if (!(capabilities.get(key) instanceof LongArrayTag states)) return 0;
+            PumpChunkState state = new PumpChunkState(chunk);
+            state.load(states);
+            return state.size();
+        }
+
+        int loaded = 0;
+        ListTag blockEntities = tag.getList("block_entities", Tag.TAG_COMPOUND);
+        for (int i = 0; i < blockEntities.size(); i++) {
+            CompoundTag blockEntityTag = blockEntities.getCompound(i);
+            BlockPos pos = BlockEntity.getPosFromTag(blockEntityTag);
+            if (BlockEntity.loadStatic(pos, chunk.getBlockState(pos), blockEntityTag) != null) loaded++;
+        }
+        return loaded;
+    }
+
+    private static byte[] encode(CompoundTag tag) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            NbtIo.write(tag, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static CompoundTag decode(byte[] bytes) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return NbtIo.read(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return bytes of heap in use after asking for a full collection
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Measurements of one storage mode.
+     */
+    private record Result(PumpStateStorage storage, int chunks, double heapBytesPerPump, double saveMs, double loadMs, long savedBytes) {
+        private static final String HEADER = "storage,pumps,chunks,heap_bytes_per_pump,save_ms,load_ms,saved_bytes";
+
+        void report() {
+            String row = String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%d", storage, PUMPS, chunks, heapBytesPerPump, saveMs, loadMs, savedBytes);
+            GameTestBenchmarks.report(RESULTS, "Air pump storage", HEADER, row);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package net.aiden.aircraftmod.gametest;
+
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.block.ModBlocks;
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+/**
+ * Checks that a pump blocked by the line in front of it wakes up and extends once the line clears,
+ * even when the change happens far from the opponent slot the wake tracker watches for every pump.
+ *
+ * @author Aiden Black
+ */
+@GameTestHolder(AircraftMod.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class AirPumpWakeGameTests {
+    private static final String TEMPLATE_NAMESPACE = "forge";
+    private static final String TEMPLATE = "empty3x3x3";
+
+    /** ticks given to the pump to try and fail to extend */
+    private static final int SETTLE_TICKS = 10;
+    /** ticks given to the pump to extend once its line clears */
+    private static final int EXTEND_TICKS = 10;
+    private static final int TIMEOUT_TICKS = SETTLE_TICKS + EXTEND_TICKS + 20;
+    /** longest line the too-long scenario builds, to stay well inside the build height */
+    private static final int MAX_TESTED_PUSH_LENGTH = 64;
+
+    /**
+     * A line of four blocks ends against obsidian; mining the obsidian must let the pump extend.
+     */
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_wake", timeoutTicks = TIMEOUT_TICKS)
+    public static void blockedLineExtendsWhenCleared(GameTestHelper helper) {
+        run(helper, 4, true);
+    }
+
+    /**
+     * A line one block longer than the pump may push loses its far block; the pump must then extend.
+     * Obsidian beside the far end keeps the line from being launched as an airship.
+     */
+    @GameTest(templateNamespace = TEMPLATE_NAMESPACE, template = TEMPLATE, batch = "pump_wake", timeoutTicks = TIMEOUT_TICKS)
+    public static void tooLongLineExtendsWhenShortened(GameTestHelper helper) {
+        int maxPushLength = AircraftModCommonConfigs.MAX_PUSH_LENGTH.get();
+        if (maxPushLength >= MAX_TESTED_PUSH_LENGTH) {
+            helper.succeed();
+            return;
+        }
+        run(helper, maxPushLength + 1, false);
+    }
+
+    /**
+     * Builds an upward-facing pump with a line of stone above it, then clears the line's far end.
+     *
+     * @param helper        gametest context
+     * @param length        number of stone blocks in the line
+     * @param endsInBlocker whether the line ends against obsidian, which is cleared, rather than the
+     *                      far stone block being cleared
+     */
+    private static void run(GameTestHelper helper, int length, boolean endsInBlocker) {
+        ServerLevel level = helper.getLevel();
+        BlockPos basePos = helper.absolutePos(BlockPos.ZERO).above();
+        BlockPos farEnd = basePos.above(endsInBlocker ? length + 1 : length);
+        BlockPos anchor = farEnd.east();
+        int height = length + 2;
+
+        for (int y = 1; y <= length; y++) level.setBlock(basePos.above(y), Blocks.STONE.defaultBlockState(), Block.UPDATE_ALL);
+        level.setBlock(endsInBlocker ? farEnd : anchor, Blocks.OBSIDIAN.defaultBlockState(), Block.UPDATE_ALL);
+        level.setBlock(basePos, ModBlocks.AIR_PUMP_BASE.get().defaultBlockState().setValue(AirPumpBaseBlock.FACING, Direction.UP), Block.UPDATE_ALL);
+
+        helper.runAtTickTime(SETTLE_TICKS, () -> {
+            if (level.getBlockState(basePos).getValue(AirPumpBaseBlock.EXTENDED)) {
+                clear(level, basePos, anchor, height);
+                helper.fail("The pump extended although its line was blocked");
+            }
+            level.setBlock(farEnd, Blocks.AIR.defaultBlockState(), Block.UPDATE_ALL);
+        });
+        helper.runAtTickTime(SETTLE_TICKS + EXTEND_TICKS, () -> {
+            BlockState baseState = level.getBlockState(basePos);
+            boolean extended = baseState.is(ModBlocks.AIR_PUMP_BASE.get()) && baseState.getValue(AirPumpBaseBlock.EXTENDED);
+            clear(level, basePos, anchor, height);
+            helper.assertTrue(extended, "The pump did not extend after its line cleared " + (farEnd.getY() - basePos.getY()) + " blocks away");
+            helper.succeed();
+        });
+    }
+
+    private static void clear(ServerLevel level, BlockPos basePos, BlockPos anchor, int height) {
+        BlockState air = Blocks.AIR.defaultBlockState();
+        level.setBlock(anchor, air, Block.UPDATE_CLIENTS);
+        for (int y = height; y >= 0; y--) level.setBlock(basePos.above(y), air, Block.UPDATE_CLIENTS);
+    }
+}
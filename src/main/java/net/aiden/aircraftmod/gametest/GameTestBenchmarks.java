@@ -0,0 +1,406 @@
+package net.aiden.aircraftmod.gametest;
+
+import com.mojang.logging.LogUtils;
+import net.aiden.aircraftmod.block.ModBlocks;
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.aiden.aircraftmod.config.ConfigOverrides;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.piston.PistonBaseBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Pieces shared by the measuring gametests and benchmarks: arrays of pumps to measure, a driver that
+ * settles, measures and tears down such an array, force-loading the chunks a farm covers, sampling
+ * server tick times, and writing result rows to a CSV file in the run directory.
+ *
+ * @author Aiden Black
+ */
+public final class GameTestBenchmarks {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    /** ticks given to a pump array to place, extend and settle before measuring */
+    public static final int SETTLE_TICKS = 40;
+    /** ticks measured per scenario */
+    public static final int MEASURE_TICKS = 200;
+    /** timeout of a gametest that runs {@link #measure} */
+    public static final int MEASURE_TIMEOUT_TICKS = SETTLE_TICKS + MEASURE_TICKS + 20;
+    /** ticks between toggles of a clocked array's opposing pistons' power */
+    public static final int CLOCK_HALF_PERIOD = 10;
+
+    private GameTestBenchmarks() {
+    }
+
+    /**
+     * Measures a built pump array: lets it settle for {@value #SETTLE_TICKS} ticks, samples it for
+     * {@value #MEASURE_TICKS} ticks, then has the recorder report and tears the array down. However
+     * the recorder finishes, the array is torn down and every {@link ConfigOverrides} value is put
+     * back; a test cut short before then leaves them to be put back as the server stops.
+     *
+     * @param helper   gametest context
+     * @param array    array to measure, already built
+     * @param clocked  whether the array's opposing pistons' power is switched on and off every
+     *                 {@value #CLOCK_HALF_PERIOD} ticks
+     * @param recorder what to measure and how to report it
+     */
+    public static void measure(GameTestHelper helper, PumpArray array, boolean clocked, Recorder recorder) {
+        helper.onEachTick(() -> {
+            long tick = helper.getTick();
+            if (clocked && tick % CLOCK_HALF_PERIOD == 0) array.togglePower();
+            if (tick == SETTLE_TICKS) recorder.start();
+            if (tick > SETTLE_TICKS && tick <= SETTLE_TICKS + MEASURE_TICKS && recorder.tickTimes.sample()) {
+                recorder.sample(recorder.tickTimes.count() - 1);
+            }
+        });
+        helper.runAtTickTime(SETTLE_TICKS + MEASURE_TICKS + 1, () -> {
+            try {
+                recorder.finish(recorder.tickTimes.toArray());
+            } finally {
+                recorder.stop();
+                array.tearDown();
+                ConfigOverrides.restore();
+            }
+            helper.succeed();
+        });
+    }
+
+    /**
+     * Logs a result row and appends it to a CSV file, writing the header first if the file is new.
+     * A file that cannot be written only costs a warning.
+     *
+     * @param results     CSV file to append to, relative to the run directory
+     * @param description what the results are, for the log
+     * @param header      comma-separated column names
+     * @param row         comma-separated values, in the header's order
+     */
+    public static void report(Path results, String description, String header, String row) {
+        LOGGER.info("{} {}: {}", description, header, row);
+
+        try {
+            if (results.getParent() != null) Files.createDirectories(results.getParent());
+            if (!Files.exists(results)) Files.writeString(results, header + System.lineSeparator());
+            Files.writeString(results, row + System.lineSeparator(), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write {} results to {}", description, results, e);
+        }
+    }
+
+    /**
+     * @param nanos durations in nanoseconds
+     * @return mean of the durations, in milliseconds
+     */
+    public static double meanMillis(long[] nanos) {
+        return nanos.length == 0 ? 0 : Arrays.stream(nanos).average().orElse(0) / 1_000_000.0;
+    }
+
+    /**
+     * @param nanos    durations in nanoseconds
+     * @param fraction percentile as a fraction between 0 and 1
+     * @return the percentile of the durations, in milliseconds
+     */
+    public static double percentileMillis(long[] nanos, double fraction) {
+        if (nanos.length == 0) return 0;
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)] / 1_000_000.0;
+    }
+
+    /**
+     * What a scenario run by {@link #measure} records. The duration of every measured server tick is
+     * recorded for it; subclasses add their own measurements.
+     */
+    public abstract static class Recorder {
+        private final TickTimes tickTimes;
+
+        /**
+         * @param server server whose ticks are timed
+         */
+        protected Recorder(MinecraftServer server) {
+            this.tickTimes = new TickTimes(server, MEASURE_TICKS);
+        }
+
+        /**
+         * Called once the array has settled, before the first measured tick.
+         */
+        protected void start() {
+        }
+
+        /**
+         * Called after each measured tick.
+         *
+         * @param sample index of the sample just taken
+         */
+        protected void sample(int sample) {
+        }
+
+        /**
+         * Called after the last measured tick, before the array is torn down, to report the results.
+         *
+         * @param tickNanos duration of every measured server tick, in nanoseconds
+         */
+        protected abstract void finish(long[] tickNanos);
+
+        /**
+         * Called once measuring is over, whether or not {@link #finish} succeeded, to undo whatever
+         * {@link #start} changed.
+         */
+        protected void stop() {
+        }
+    }
+
+    /**
+     * A square of pumps that all face the same way, laid out row by row across the two axes
+     * perpendicular to their facing. Pumps can be given an opposing piston two blocks in front,
+     * powered by a block of redstone behind it, and each pump may use a fixed number of blocks in
+     * front of it, which are cleared on tear down. The chunks under the array are force-loaded from
+     * the first block placed until it is torn down, so that block events keep running without a
+     * player nearby.
+     */
+    public static class PumpArray {
+        /** blocks from a pump to its opposing piston */
+        public static final int PISTON_DISTANCE = 2;
+        /** blocks from a pump to its opposing piston's power source */
+        public static final int SOURCE_DISTANCE = 3;
+
+        private final ServerLevel level;
+        private final BlockPos origin;
+        private final Direction facing;
+        /** direction rows of the array follow one another in */
+        private final Direction rows;
+        /** direction the pumps of a row follow one another in */
+        private final Direction columns;
+        private final int pumps;
+        private final int side;
+        private final int depth;
+        private final ForcedChunks chunks;
+        private IntPredicate opposed = index -> false;
+        private boolean powered;
+
+        /**
+         * @param level  level the array is built in
+         * @param origin location of the first pump
+         * @param facing direction every pump faces
+         * @param pumps  number of pumps, filling the smallest square that holds them row by row
+         * @param depth  blocks in front of each pump the array uses
+         */
+        public PumpArray(ServerLevel level, BlockPos origin, Direction facing, int pumps, int depth) {
+            this.level = level;
+            this.origin = origin;
+            this.facing = facing;
+            this.rows = facing.getAxis().isVertical() ? Direction.EAST : Direction.UP;
+            this.columns = facing.getAxis().isVertical() ? Direction.SOUTH : facing.getClockWise();
+            this.pumps = pumps;
+            this.side = (int) Math.ceil(Math.sqrt(pumps));
+            this.depth = depth;
+
+            BlockPos corner = origin.relative(rows, side - 1).relative(columns, side - 1).relative(facing, depth);
+            this.chunks = new ForcedChunks(level, Math.min(origin.getX(), corner.getX()), Math.min(origin.getZ(), corner.getZ()),
+                    Math.max(origin.getX(), corner.getX()), Math.max(origin.getZ(), corner.getZ()));
+        }
+
+        /**
+         * @return number of pumps in the array
+         */
+        public int size() {
+            return pumps;
+        }
+
+        /**
+         * @param index index of a pump, in the order the array is laid out
+         * @return location of the pump
+         */
+        public BlockPos basePos(int index) {
+            return origin.relative(rows, index / side).relative(columns, index % side);
+        }
+
+        /**
+         * Places a block the same distance in front of every pump.
+         *
+         * @param distance blocks in front of the pump, at most the array's depth
+         * @param state    block to place
+         * @param flags    block update flags to place it with
+         */
+        public void placeAhead(int distance, BlockState state, int flags) {
+            chunks.force();
+            for (int index = 0; index < pumps; index++) level.setBlock(basePos(index).relative(facing, distance), state, flags);
+        }
+
+        /**
+         * Gives some pumps a powered piston facing them from across their head.
+         *
+         * @param opposed which pumps, by index, get a piston
+         */
+        public void placeOpponents(IntPredicate opposed) {
+            chunks.force();
+            this.opposed = opposed;
+            this.powered = true;
+
+            BlockState piston = Blocks.PISTON.defaultBlockState().setValue(PistonBaseBlock.FACING, facing.getOpposite());
+            BlockState source = Blocks.REDSTONE_BLOCK.defaultBlockState();
+            for (int index = 0; index < pumps; index++) {
+                if (!opposed.test(index)) continue;
+                BlockPos basePos = basePos(index);
+                level.setBlock(basePos.relative(facing, SOURCE_DISTANCE), source, Block.UPDATE_ALL);
+                level.setBlock(basePos.relative(facing, PISTON_DISTANCE), piston, Block.UPDATE_ALL);
+            }
+        }
+
+        /**
+         * Places every pump, after whatever should already be in front of them.
+         */
+        public void placePumps() {
+            chunks.force();
+            BlockState base = ModBlocks.AIR_PUMP_BASE.get().defaultBlockState().setValue(AirPumpBaseBlock.FACING, facing);
+            for (int index = 0; index < pumps; index++) level.setBlock(basePos(index), base, Block.UPDATE_ALL);
+        }
+
+        /**
+         * Switches every opposing piston's power source on or off.
+         */
+        public void togglePower() {
+            powered = !powered;
+            BlockState source = powered ? Blocks.REDSTONE_BLOCK.defaultBlockState() : Blocks.AIR.defaultBlockState();
+            for (int index = 0; index < pumps; index++) {
+                if (opposed.test(index)) level.setBlock(basePos(index).relative(facing, SOURCE_DISTANCE), source, Block.UPDATE_ALL);
+            }
+        }
+
+        /**
+         * @return every chunk the array covers
+         */
+        public List<LevelChunk> chunks() {
+            return chunks.chunks();
+        }
+
+        /**
+         * Clears every pump and the blocks in front of it, and lets the chunks unload again.
+         */
+        public void tearDown() {
+            BlockState air = Blocks.AIR.defaultBlockState();
+            for (int index = 0; index < pumps; index++) {
+                BlockPos basePos = basePos(index);
+                for (int distance = depth; distance >= 0; distance--) level.setBlock(basePos.relative(facing, distance), air, Block.UPDATE_CLIENTS);
+            }
+            chunks.release();
+        }
+    }
+
+    /**
+     * The chunks under a rectangle of blocks, force-loaded while a farm stands on them so that its
+     * block events and block entities keep running without a player nearby.
+     */
+    public static class ForcedChunks {
+        private final ServerLevel level;
+        private final int minChunkX;
+        private final int minChunkZ;
+        private final int maxChunkX;
+        private final int maxChunkZ;
+
+        /**
+         * @param level level the chunks are in
+         * @param minX  smallest block x coordinate covered
+         * @param minZ  smallest block z coordinate covered
+         * @param maxX  largest block x coordinate covered
+         * @param maxZ  largest block z coordinate covered
+         */
+        public ForcedChunks(ServerLevel level, int minX, int minZ, int maxX, int maxZ) {
+            this.level = level;
+            this.minChunkX = SectionPos.blockToSectionCoord(minX);
+            this.minChunkZ = SectionPos.blockToSectionCoord(minZ);
+            this.maxChunkX = SectionPos.blockToSectionCoord(maxX);
+            this.maxChunkZ = SectionPos.blockToSectionCoord(maxZ);
+        }
+
+        /**
+         * Forces the chunks to stay loaded.
+         */
+        public void force() {
+            setForced(true);
+        }
+
+        /**
+         * Lets the chunks unload again.
+         */
+        public void release() {
+            setForced(false);
+        }
+
+        /**
+         * @return every chunk covered
+         */
+        public List<LevelChunk> chunks() {
+            List<LevelChunk> chunks = new ArrayList<>();
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) chunks.add(level.getChunk(chunkX, chunkZ));
+            }
+            return chunks;
+        }
+
+        private void setForced(boolean forced) {
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) level.setChunkForced(chunkX, chunkZ, forced);
+            }
+        }
+    }
+
+    /**
+     * Records, once per call to {@link #sample}, the duration of the last completed server tick.
+     */
+    public static class TickTimes {
+        private final MinecraftServer server;
+        private final long[] nanos;
+        private int samples;
+
+        /**
+         * @param server   server whose ticks are timed
+         * @param capacity most samples kept; later samples are ignored
+         */
+        public TickTimes(MinecraftServer server, int capacity) {
+            this.server = server;
+            this.nanos = new long[capacity];
+        }
+
+        /**
+         * Records the duration of the last completed server tick.
+         *
+         * @return false if the samples were full and nothing was recorded
+         */
+        public boolean sample() {
+            if (samples == nanos.length) return false;
+            // tickTimes is written after tickCount is incremented, so the last completed tick is one behind
+            nanos[samples++] = server.tickTimes[Math.floorMod(server.getTickCount() - 1, server.tickTimes.length)];
+            return true;
+        }
+
+        /**
+         * @return number of samples recorded
+         */
+        public int count() {
+            return samples;
+        }
+
+        /**
+         * @return the recorded durations, in nanoseconds
+         */
+        public long[] toArray() {
+            return Arrays.copyOf(nanos, samples);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package net.aiden.aircraftmod.item;
 
 import net.aiden.aircraftmod.AircraftMod;
 import net.aiden.aircraftmod.item.custom.EightBallItem;
+import net.aiden.aircraftmod.item.custom.ZirconScannerItem;
 import net.minecraft.world.item.Item;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.registries.DeferredRegister;
@@ -19,6 +20,8 @@ public class ModItems {
 
     public static final RegistryObject<Item> EIGHT_BALL = ITEMS.register("eight_ball",
             () -> new EightBallItem(new Item.Properties().tab(ModCreativeModeTab.AIRCRAFT_TAB).stacksTo(1)));
+    public static final RegistryObject<Item> ZIRCON_SCANNER = ITEMS.register("zircon_scanner",
+            () -> new ZirconScannerItem(new Item.Properties().tab(ModCreativeModeTab.AIRCRAFT_TAB).stacksTo(1)));
 
     public static void register(IEventBus eventBus)
     {
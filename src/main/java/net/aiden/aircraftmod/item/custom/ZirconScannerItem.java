@@ -0,0 +1,93 @@
+package net.aiden.aircraftmod.item.custom;
+
+import net.aiden.aircraftmod.item.scanner.ZirconScanIndex;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.InteractionResultHolder;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.Locale;
+
+/**
+ * Tells the player how many zircon ores lie within {@value #SCAN_RADIUS} blocks and where the nearest
+ * one is. Only loaded chunks are scanned, through {@link ZirconScanIndex}, so using the scanner never
+ * loads or generates chunks.
+ *
+ * @author Aiden Black
+ */
+public class ZirconScannerItem extends Item {
+    /**
+     * blocks from the player within which ores are counted
+     */
+    public static final int SCAN_RADIUS = 128;
+    private static final int COOLDOWN_TICKS = 20;
+
+    public ZirconScannerItem(Properties properties) {
+        super(properties);
+    }
+
+    @Override
+    public InteractionResultHolder<ItemStack> use(Level level, Player player, InteractionHand hand)
+    {
+        if (level instanceof ServerLevel serverLevel && hand == InteractionHand.MAIN_HAND)
+        {
+            scan(serverLevel, player);
+            player.getCooldowns().addCooldown(this, COOLDOWN_TICKS);
+        }
+
+        return super.use(level, player, hand);
+    }
+
+    private void scan(ServerLevel level, Player player) {
+        ZirconScanIndex index = ZirconScanIndex.get(level);
+        BlockPos origin = player.blockPosition();
+        long gameTime = level.getGameTime();
+        long radiusSquared = (long) SCAN_RADIUS * SCAN_RADIUS;
+        int minChunkX = SectionPos.blockToSectionCoord(origin.getX() - SCAN_RADIUS);
+        int maxChunkX = SectionPos.blockToSectionCoord(origin.getX() + SCAN_RADIUS);
+        int minChunkZ = SectionPos.blockToSectionCoord(origin.getZ() - SCAN_RADIUS);
+        int maxChunkZ = SectionPos.blockToSectionCoord(origin.getZ() + SCAN_RADIUS);
+
+        int found = 0;
+        int unloaded = 0;
+        long nearest = 0;
+        long nearestDistance = Long.MAX_VALUE;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+                if (chunk == null) {
+                    unloaded++;
+                    continue;
+                }
+                for (long ore : index.getOres(chunk, gameTime)) {
+                    long dx = BlockPos.getX(ore) - origin.getX();
+                    long dy = BlockPos.getY(ore) - origin.getY();
+                    long dz = BlockPos.getZ(ore) - origin.getZ();
+                    long distance = dx * dx + dy * dy + dz * dz;
+                    if (distance > radiusSquared) continue;
+                    found++;
+                    if (distance < nearestDistance) {
+                        nearestDistance = distance;
+                        nearest = ore;
+                    }
+                }
+            }
+        }
+
+        if (found == 0) {
+            player.sendSystemMessage(Component.literal("No zircon ore within " + SCAN_RADIUS + " blocks."));
+        } else {
+            BlockPos nearestPos = BlockPos.of(nearest);
+            player.sendSystemMessage(Component.literal(String.format(Locale.ROOT, "%d zircon ores within %d blocks, nearest at %d %d %d (%.0f blocks away)",
+                    found, SCAN_RADIUS, nearestPos.getX(), nearestPos.getY(), nearestPos.getZ(), Math.sqrt(nearestDistance))));
+        }
+        if (unloaded > 0) player.sendSystemMessage(Component.literal(unloaded + " chunks in range are not loaded and were not scanned."));
+    }
+}
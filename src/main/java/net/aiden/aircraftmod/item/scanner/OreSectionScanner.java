@@ -0,0 +1,81 @@
+package net.aiden.aircraftmod.item.scanner;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+import java.util.function.Predicate;
+
+/**
+ * Finds blocks in chunk sections by reading their block state containers directly instead of going
+ * through the level. A section is ruled out in three steps, each cheaper than the next:
+ * <ol>
+ *     <li>its palette holds no matching state at all, which costs a few palette entries;</li>
+ *     <li>its palette still lists a matching state that is no longer used, as palettes keep entries
+ *     after the blocks are gone, which one bulk count over the packed indices finds out;</li>
+ *     <li>otherwise its blocks are read one at a time with {@link PalettedContainer#get}, in the
+ *     container's storage order, stopping as soon as the counted matches are found.</li>
+ * </ol>
+ * Only reads, so it may run on any thread as long as nothing writes the section meanwhile.
+ *
+ * @author Aiden Black
+ */
+public class OreSectionScanner {
+    private static final int SECTION_SIZE = 16;
+
+    /**
+     * Finds every matching block of a chunk.
+     *
+     * @param sections       the chunk's sections, from the lowest up
+     * @param chunkX         chunk's x coordinate
+     * @param chunkZ         chunk's z coordinate
+     * @param minSectionY    section y of the lowest section
+     * @param target         states to find
+     * @return packed positions of the matching blocks
+     */
+    public static long[] scanChunk(LevelChunkSection[] sections, int chunkX, int chunkZ, int minSectionY, Predicate<BlockState> target) {
+        LongArrayList found = new LongArrayList(0);
+        for (int i = 0; i < sections.length; i++) {
+            scanSection(sections[i], SectionPos.sectionToBlockCoord(chunkX), SectionPos.sectionToBlockCoord(minSectionY + i), SectionPos.sectionToBlockCoord(chunkZ), target, found);
+        }
+        return found.toLongArray();
+    }
+
+    /**
+     * Finds every matching block of a section.
+     *
+     * @param section section to scan
+     * @param minX    x of the section's lowest corner
+     * @param minY    y of the section's lowest corner
+     * @param minZ    z of the section's lowest corner
+     * @param target  states to find
+     * @param found   receives the packed positions of the matching blocks
+     * @return number of matching blocks
+     */
+    public static int scanSection(LevelChunkSection section, int minX, int minY, int minZ, Predicate<BlockState> target, LongArrayList found) {
+        if (section.hasOnlyAir() || !section.maybeHas(target)) return 0;
+
+        PalettedContainer<BlockState> states = section.getStates();
+        int[] matches = new int[1];
+        states.count((state, count) -> {
+            if (target.test(state)) matches[0] += count;
+        });
+
+        int remaining = matches[0];
+        // Same order as the container's indices, so reads walk its storage front to back
+        for (int y = 0; y < SECTION_SIZE && remaining > 0; y++) {
+            for (int z = 0; z < SECTION_SIZE && remaining > 0; z++) {
+                for (int x = 0; x < SECTION_SIZE; x++) {
+                    if (target.test(states.get(x, y, z))) {
+                        found.add(BlockPos.asLong(minX + x, minY + y, minZ + z));
+                        if (--remaining == 0) break;
+                    }
+                }
+            }
+        }
+        return matches[0];
+    }
+}
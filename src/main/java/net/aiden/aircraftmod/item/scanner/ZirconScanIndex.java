@@ -0,0 +1,135 @@
+package net.aiden.aircraftmod.item.scanner;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.aiden.aircraftmod.block.ModBlocks;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The zircon ores of each loaded chunk a scanner has looked at, so scanning the same area again
+ * costs nothing until a block in it changes. A chunk's entry is dropped when a block in it notifies
+ * its neighbours of a change, when a pump changes a block in it, and when the chunk unloads.
+ * <p>
+ * Vanilla also changes blocks without telling anyone, as {@code /setblock}, {@code /fill} and
+ * structure placement do, and no event reports those. Each entry is therefore stamped with the game
+ * time of its scan and only trusted for {@value #MAX_AGE_TICKS} ticks, so such changes show up in
+ * scans at most that late.
+ *
+ * @author Aiden Black
+ */
+public class ZirconScanIndex {
+    private static final Map<ServerLevel, ZirconScanIndex> INDEXES = new HashMap<>();
+
+    /**
+     * ticks a chunk's scan is trusted for without any change being reported in the chunk
+     */
+    public static final int MAX_AGE_TICKS = 200;
+
+    /** packed positions of the zircon ores of each scanned chunk */
+    private final Long2ObjectOpenHashMap<long[]> ores = new Long2ObjectOpenHashMap<>();
+    /** game time each chunk was scanned at */
+    private final Long2LongOpenHashMap scannedAt = new Long2LongOpenHashMap();
+
+    private long chunkScans;
+    private long cacheHits;
+
+    private ZirconScanIndex() {
+    }
+
+    /**
+     * Returns the index of a level, creating it on first use.
+     *
+     * @param level server level to scan
+     * @return the level's index
+     */
+    public static ZirconScanIndex get(ServerLevel level) {
+        return INDEXES.computeIfAbsent(level, key -> new ZirconScanIndex());
+    }
+
+    /**
+     * Drops the index of a level that is being unloaded.
+     *
+     * @param level level being unloaded
+     */
+    public static void remove(ServerLevel level) {
+        INDEXES.remove(level);
+    }
+
+    /**
+     * @param state block state to test
+     * @return true if the state is one of the zircon ores
+     */
+    public static boolean isZirconOre(BlockState state) {
+        Block block = state.getBlock();
+        return block == ModBlocks.ZIRCON_ORE.get() || block == ModBlocks.DEEPSLATE_ZIRCON_ORE.get()
+                || block == ModBlocks.NETHERRACK_ZIRCON_ORE.get() || block == ModBlocks.ENDSTONE_ZIRCON_ORE.get();
+    }
+
+    /**
+     * Returns the zircon ores of a chunk, scanning it if it was not scanned since it last changed or
+     * its scan is older than {@value #MAX_AGE_TICKS} ticks.
+     *
+     * @param chunk    loaded chunk
+     * @param gameTime current game time of the chunk's level
+     * @return packed positions of the chunk's zircon ores
+     */
+    public long[] getOres(LevelChunk chunk, long gameTime) {
+        long key = chunk.getPos().toLong();
+        long[] chunkOres = ores.get(key);
+        if (chunkOres != null && gameTime - scannedAt.get(key) < MAX_AGE_TICKS) {
+            cacheHits++;
+            return chunkOres;
+        }
+
+        chunkOres = OreSectionScanner.scanChunk(chunk.getSections(), chunk.getPos().x, chunk.getPos().z, chunk.getMinSection(), ZirconScanIndex::isZirconOre);
+        ores.put(key, chunkOres);
+        scannedAt.put(key, gameTime);
+        chunkScans++;
+        return chunkOres;
+    }
+
+    /**
+     * Forgets the scan of the chunk containing a block that changed.
+     *
+     * @param pos location of the block that changed
+     */
+    public void invalidate(BlockPos pos) {
+        if (!ores.isEmpty()) forget(ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ())));
+    }
+
+    /**
+     * Forgets the scan of a chunk that is unloading.
+     *
+     * @param chunkPos position of the chunk
+     */
+    public void onChunkUnload(ChunkPos chunkPos) {
+        if (!ores.isEmpty()) forget(chunkPos.toLong());
+    }
+
+    private void forget(long chunk) {
+        if (ores.remove(chunk) != null) scannedAt.remove(chunk);
+    }
+
+    /**
+     * @return number of chunks scanned
+     */
+    public long getChunkScans() {
+        return chunkScans;
+    }
+
+    /**
+     * @return number of chunk scans answered from the index
+     */
+    public long getCacheHits() {
+        return cacheHits;
+    }
+}
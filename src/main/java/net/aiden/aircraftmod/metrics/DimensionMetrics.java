@@ -0,0 +1,99 @@
+package net.aiden.aircraftmod.metrics;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and hook timings for one dimension, with a per-chunk breakdown.
+ * <p>
+ * Dimension-wide counters and histograms are lock-free and may be updated from any thread. The
+ * per-chunk table is only ever touched on the server thread, which is where every hook runs, and
+ * stops growing at {@value #MAX_TRACKED_CHUNKS} chunks; later chunks still count towards the dimension.
+ *
+ * @author Aiden Black
+ */
+public class DimensionMetrics {
+    /**
+     * chunks with their own row in the per-chunk table before new chunks stop being added
+     */
+    public static final int MAX_TRACKED_CHUNKS = 4096;
+    /**
+     * index of the total hook time in a per-chunk row, after one slot per counter
+     */
+    public static final int CHUNK_HOOK_NANOS = PumpCounter.VALUES.length;
+
+    private final ResourceKey<Level> dimension;
+    private final LongAdder[] counters = new LongAdder[PumpCounter.VALUES.length];
+    private final NanoHistogram[] hooks = new NanoHistogram[PumpHook.VALUES.length];
+    private final Long2ObjectOpenHashMap<long[]> chunks = new Long2ObjectOpenHashMap<>();
+
+    DimensionMetrics(ResourceKey<Level> dimension) {
+        this.dimension = dimension;
+        for (int i = 0; i < counters.length; i++) counters[i] = new LongAdder();
+        for (int i = 0; i < hooks.length; i++) hooks[i] = new NanoHistogram();
+    }
+
+    void count(long chunk, PumpCounter counter, long amount) {
+        counters[counter.ordinal()].add(amount);
+        long[] row = chunkRow(chunk);
+        if (row != null) row[counter.ordinal()] += amount;
+    }
+
+    void time(long chunk, PumpHook hook, long nanos) {
+        hooks[hook.ordinal()].record(nanos);
+        long[] row = chunkRow(chunk);
+        if (row != null) row[CHUNK_HOOK_NANOS] += nanos;
+    }
+
+    private long[] chunkRow(long chunk) {
+        long[] row = chunks.get(chunk);
+        if (row == null && chunks.size() < MAX_TRACKED_CHUNKS) {
+            row = new long[CHUNK_HOOK_NANOS + 1];
+            chunks.put(chunk, row);
+        }
+        return row;
+    }
+
+    /**
+     * @return the dimension these metrics belong to
+     */
+    public ResourceKey<Level> getDimension() {
+        return dimension;
+    }
+
+    /**
+     * @param counter event to read
+     * @return number of times the event happened in this dimension
+     */
+    public long getCount(PumpCounter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * @param hook entry point to read
+     * @return timings of the entry point in this dimension
+     */
+    public NanoHistogram getHook(PumpHook hook) {
+        return hooks[hook.ordinal()];
+    }
+
+    /**
+     * Returns the per-chunk table. Each row holds one total per {@link PumpCounter}, by ordinal,
+     * followed by the total hook time at {@link #CHUNK_HOOK_NANOS}. Only read it on the server thread.
+     *
+     * @return rows keyed by packed chunk position
+     */
+    public Long2ObjectMap<long[]> getChunks() {
+        return chunks;
+    }
+
+    void reset() {
+        for (LongAdder counter : counters) counter.reset();
+        for (NanoHistogram hook : hooks) hook.reset();
+        chunks.clear();
+    }
+}
@@ -0,0 +1,24 @@
+package net.aiden.aircraftmod.metrics;
+
+/**
+ * File formats {@link PumpMetricsExporter} can write.
+ *
+ * @author Aiden Black
+ */
+public enum MetricsExportFormat {
+    CSV("csv"),
+    JSON("json");
+
+    private final String extension;
+
+    MetricsExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @return file extension for the format, without the dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,269 @@
+package net.aiden.aircraftmod.metrics;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds the chunks whose air pumps keep the server busiest. An operator starts a profiling window
+ * with {@code /aircraftmod profile <seconds>}; while it runs, every pump evaluation and every pump
+ * that moves is counted against its chunk, and when it ends the hottest chunks are reported back to
+ * whoever started it.
+ * <p>
+ * Counts live in primitive long-keyed maps that are kept between windows, so once they have grown
+ * to fit a world's pump builds, recording an event allocates nothing. The report picks the hottest
+ * chunks with a heap bounded to the number of chunks shown.
+ *
+ * @author Aiden Black
+ */
+public final class PumpChunkProfiler {
+    /**
+     * chunks listed in a report
+     */
+    public static final int TOP_CHUNKS = 10;
+    /**
+     * longest window an operator may ask for, in seconds
+     */
+    public static final int MAX_SECONDS = 600;
+    /**
+     * an evaluation that moves a pump costs far more than one that does not, so moves weigh more in the ranking
+     */
+    private static final int MOVE_WEIGHT = 8;
+    /**
+     * players farther than this from a reported chunk, in blocks, are not named as being nearby
+     */
+    private static final double NEARBY_PLAYER_DISTANCE = 128;
+
+    /**
+     * whether a profiling window is open, checked by the hooks before recording
+     */
+    public static volatile boolean active;
+
+    private static final Map<ResourceKey<Level>, DimensionCounts> COUNTS = new HashMap<>();
+    private static CommandSourceStack requester;
+    private static int endTick;
+
+    private PumpChunkProfiler() {
+    }
+
+    /**
+     * Opens a profiling window.
+     *
+     * @param source  command source to report to when the window closes
+     * @param seconds length of the window
+     * @return false if a window was already open, true otherwise
+     */
+    public static boolean start(CommandSourceStack source, int seconds) {
+        if (active) return false;
+
+        for (DimensionCounts counts : COUNTS.values()) counts.clear();
+        requester = source;
+        endTick = source.getServer().getTickCount() + seconds * 20;
+        active = true;
+        return true;
+    }
+
+    /**
+     * Counts a pump evaluation. Only call while {@link #active} is true.
+     *
+     * @param level   level the pump is in
+     * @param basePos pump base's location
+     */
+    public static void recordEvaluation(Level level, BlockPos basePos) {
+        if (level.isClientSide) return;
+        counts(level).evaluations.addTo(ChunkPos.asLong(basePos.getX() >> 4, basePos.getZ() >> 4), 1);
+    }
+
+    /**
+     * Counts a pump extending or contracting. Only call while {@link #active} is true.
+     *
+     * @param level   level the pump is in
+     * @param basePos pump base's location
+     */
+    public static void recordMove(Level level, BlockPos basePos) {
+        if (level.isClientSide) return;
+        counts(level).moves.addTo(ChunkPos.asLong(basePos.getX() >> 4, basePos.getZ() >> 4), 1);
+    }
+
+    /**
+     * Closes the window and sends the report once it has run its course.
+     *
+     * @param server server that just finished a tick
+     */
+    public static void onServerTick(MinecraftServer server) {
+        if (!active || server.getTickCount() < endTick) return;
+
+        active = false;
+        report(server, requester);
+        requester = null;
+    }
+
+    /**
+     * Closes the window without reporting, when the server it was opened on stops.
+     */
+    public static void cancel() {
+        active = false;
+        requester = null;
+        COUNTS.clear();
+    }
+
+    private static DimensionCounts counts(Level level) {
+        DimensionCounts counts = COUNTS.get(level.dimension());
+        if (counts == null) {
+            counts = new DimensionCounts();
+            COUNTS.put(level.dimension(), counts);
+        }
+        return counts;
+    }
+
+    private static void report(MinecraftServer server, CommandSourceStack source) {
+        ChunkHeap heap = new ChunkHeap(TOP_CHUNKS);
+        for (Map.Entry<ResourceKey<Level>, DimensionCounts> dimension : COUNTS.entrySet()) {
+            DimensionCounts counts = dimension.getValue();
+            for (Long2IntMap.Entry entry : counts.evaluations.long2IntEntrySet()) {
+                heap.offer(dimension.getKey(), entry.getLongKey(), entry.getIntValue(), counts.moves.get(entry.getLongKey()));
+            }
+            // A chunk can have moves without evaluations if a pump was evaluated before the window opened
+            for (Long2IntMap.Entry entry : counts.moves.long2IntEntrySet()) {
+                if (!counts.evaluations.containsKey(entry.getLongKey())) heap.offer(dimension.getKey(), entry.getLongKey(), 0, entry.getIntValue());
+            }
+        }
+
+        if (heap.size() == 0) {
+            source.sendSuccess(Component.literal("No air pump activity was recorded."), false);
+            return;
+        }
+
+        source.sendSuccess(Component.literal("Hottest air pump chunks:").withStyle(ChatFormatting.GOLD), false);
+        int rank = 1;
+        for (int i : heap.sortedIndices()) {
+            ChunkPos chunkPos = new ChunkPos(heap.chunks[i]);
+            ResourceKey<Level> dimension = heap.dimensions[i];
+            source.sendSuccess(Component.literal(String.format(Locale.ROOT, "%d. %s chunk %d %d (blocks %d..%d, %d..%d): %d evaluations, %d moves%s",
+                    rank++, dimension.location(), chunkPos.x, chunkPos.z, chunkPos.getMinBlockX(), chunkPos.getMaxBlockX(), chunkPos.getMinBlockZ(), chunkPos.getMaxBlockZ(),
+                    heap.evaluations[i], heap.moves[i], nearbyPlayer(server.getLevel(dimension), chunkPos))), false);
+        }
+    }
+
+    private static String nearbyPlayer(ServerLevel level, ChunkPos chunkPos) {
+        if (level == null) return "";
+        Player player = level.getNearestPlayer(chunkPos.getMiddleBlockX(), level.getSeaLevel(), chunkPos.getMiddleBlockZ(), NEARBY_PLAYER_DISTANCE, false);
+        return player == null ? "" : ", near " + player.getGameProfile().getName();
+    }
+
+    /**
+     * Event counts of one dimension, by packed chunk position.
+     */
+    private static class DimensionCounts {
+        final Long2IntOpenHashMap evaluations = new Long2IntOpenHashMap();
+        final Long2IntOpenHashMap moves = new Long2IntOpenHashMap();
+
+        void clear() {
+            evaluations.clear();
+            moves.clear();
+        }
+    }
+
+    /**
+     * A min-heap of the hottest chunks offered to it, holding at most a fixed number of them. The
+     * coolest chunk kept sits at the root and is the one replaced when a hotter chunk arrives.
+     */
+    private static class ChunkHeap {
+        final ResourceKey<Level>[] dimensions;
+        final long[] chunks;
+        final long[] scores;
+        final int[] evaluations;
+        final int[] moves;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        ChunkHeap(int capacity) {
+            dimensions = new ResourceKey[capacity];
+            chunks = new long[capacity];
+            scores = new long[capacity];
+            evaluations = new int[capacity];
+            moves = new int[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void offer(ResourceKey<Level> dimension, long chunk, int evaluationCount, int moveCount) {
+            long score = evaluationCount + (long) moveCount * MOVE_WEIGHT;
+            if (size < chunks.length) {
+                set(size, dimension, chunk, score, evaluationCount, moveCount);
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                set(0, dimension, chunk, score, evaluationCount, moveCount);
+                siftDown(0);
+            }
+        }
+
+        /**
+         * @return indices of the kept chunks, hottest first
+         */
+        int[] sortedIndices() {
+            int[] sorted = new int[size];
+            for (int i = 0; i < size; i++) {
+                int j = i;
+                for (; j > 0 && scores[sorted[j - 1]] < scores[i]; j--) sorted[j] = sorted[j - 1];
+                sorted[j] = i;
+            }
+            return sorted;
+        }
+
+        private void set(int i, ResourceKey<Level> dimension, long chunk, long score, int evaluationCount, int moveCount) {
+            dimensions[i] = dimension;
+            chunks[i] = chunk;
+            scores[i] = score;
+            evaluations[i] = evaluationCount;
+            moves[i] = moveCount;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (scores[parent] <= scores[i]) return;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && scores[left] < scores[smallest]) smallest = left;
+                if (right < size && scores[right] < scores[smallest]) smallest = right;
+                if (smallest == i) return;
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            ResourceKey<Level> dimension = dimensions[a];
+            long chunk = chunks[a];
+            long score = scores[a];
+            int evaluationCount = evaluations[a];
+            int moveCount = moves[a];
+            set(a, dimensions[b], chunks[b], scores[b], evaluations[b], moves[b]);
+            set(b, dimension, chunk, score, evaluationCount, moveCount);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package net.aiden.aircraftmod.metrics;
+
+import java.util.Locale;
+
+/**
+ * Events counted by {@link PumpMetrics}.
+ *
+ * @author Aiden Black
+ */
+public enum PumpCounter {
+    /** pumps checked for whether they should extend or contract */
+    EVALUATIONS,
+    /** pumps that extended */
+    EXTENDS,
+    /** pumps that contracted */
+    CONTRACTS,
+    /** structures resolved in front of a pump */
+    RESOLVER_CALLS,
+    /** blocks destroyed by an extending pump */
+    DESTROYED_BLOCKS,
+    /** neighbour notifications sent by pump strokes, including changes pump heads pass on to their base */
+    NEIGHBOR_NOTIFICATIONS;
+
+    static final PumpCounter[] VALUES = values();
+
+    /**
+     * @return name used in the stats command and exported files
+     */
+    public String getSerializedName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,33 @@
+package net.aiden.aircraftmod.metrics;
+
+import java.util.Locale;
+
+/**
+ * Entry points into the mod whose running time is recorded by {@link PumpMetrics}. Hooks can be
+ * nested, so their times overlap: a block entity tick includes the evaluation it triggers.
+ *
+ * @author Aiden Black
+ */
+public enum PumpHook {
+    /** AirPumpBaseBlockEntity.tick, only used when event-driven pumps are disabled */
+    BLOCK_ENTITY_TICK,
+    /** AirPumpBaseBlock.checkIfExtend, run once per queued or ticking pump */
+    CHECK_IF_EXTEND,
+    /** AirPumpBaseBlock.triggerEvent, run when a queued block event extends or contracts a pump */
+    TRIGGER_EVENT,
+    /** AirPumpBaseBlock.moveBlock, the part of an extension that moves and destroys blocks */
+    MOVE_BLOCK,
+    /** AirPumpHeadBlock.neighborChanged, which forwards updates to the base */
+    HEAD_NEIGHBOR_CHANGED,
+    /** AirPumpMovingBlockEntity.tick, which animates a lightweight moving head and places it when done */
+    MOVING_HEAD_TICK;
+
+    static final PumpHook[] VALUES = values();
+
+    /**
+     * @return name used in the stats command and exported files
+     */
+    public String getSerializedName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
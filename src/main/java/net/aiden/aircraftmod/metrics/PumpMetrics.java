@@ -0,0 +1,95 @@
+package net.aiden.aircraftmod.metrics;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in instrumentation of the air pump entry points, enabled by the {@code metrics.enabled}
+ * config option.
+ * <p>
+ * Instrumented code checks {@link #enabled} once and only then reads the clock or calls into this
+ * class, so metrics cost a single branch per hook when they are off:
+ * <pre>{@code
+ * if (PumpMetrics.enabled) {
+ *     long start = System.nanoTime();
+ *     doWork();
+ *     PumpMetrics.time(level, pos, PumpHook.MOVE_BLOCK, start);
+ * } else {
+ *     doWork();
+ * }
+ * }</pre>
+ * Client-side levels are ignored so that integrated servers do not count everything twice.
+ *
+ * @author Aiden Black
+ */
+public final class PumpMetrics {
+    /**
+     * whether hooks should record anything, kept in sync with the config
+     */
+    public static volatile boolean enabled;
+
+    private static final Map<ResourceKey<Level>, DimensionMetrics> DIMENSIONS = new ConcurrentHashMap<>();
+
+    private PumpMetrics() {
+    }
+
+    /**
+     * Turns recording on or off. Turning it off keeps what was recorded so far.
+     *
+     * @param enabled whether hooks should record
+     */
+    public static void setEnabled(boolean enabled) {
+        PumpMetrics.enabled = enabled;
+    }
+
+    /**
+     * Counts an event at a position.
+     *
+     * @param level   level the event happened in
+     * @param pos     location of the pump involved
+     * @param counter event to count
+     * @param amount  number of events
+     */
+    public static void count(Level level, BlockPos pos, PumpCounter counter, long amount) {
+        if (level.isClientSide || amount == 0) return;
+        get(level).count(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), counter, amount);
+    }
+
+    /**
+     * Records the running time of a hook, measured from the given start to now.
+     *
+     * @param level      level the hook ran in
+     * @param pos        location of the pump involved
+     * @param hook       entry point being timed
+     * @param startNanos value of {@link System#nanoTime()} when the hook started
+     */
+    public static void time(Level level, BlockPos pos, PumpHook hook, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        if (level.isClientSide) return;
+        get(level).time(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), hook, nanos);
+    }
+
+    /**
+     * @return metrics of every dimension anything was recorded in
+     */
+    public static Collection<DimensionMetrics> getDimensions() {
+        return DIMENSIONS.values();
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public static void reset() {
+        for (DimensionMetrics metrics : DIMENSIONS.values()) metrics.reset();
+    }
+
+    private static DimensionMetrics get(Level level) {
+        return DIMENSIONS.computeIfAbsent(level.dimension(), DimensionMetrics::new);
+    }
+}
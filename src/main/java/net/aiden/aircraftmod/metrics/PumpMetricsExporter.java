@@ -0,0 +1,162 @@
+package net.aiden.aircraftmod.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.aiden.aircraftmod.block.pump.AirPumpUpdateQueue;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.minecraft.Util;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Periodically writes the recorded metrics to {@code aircraftmod-metrics.csv} or
+ * {@code aircraftmod-metrics.json} in the server directory, so they can be scraped without a
+ * console. The snapshot is taken on the server thread and written on the IO pool, replacing the
+ * previous file atomically.
+ *
+ * @author Aiden Black
+ */
+public final class PumpMetricsExporter {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String FILE_NAME = "aircraftmod-metrics";
+
+    private PumpMetricsExporter() {
+    }
+
+    /**
+     * Writes the metrics file if metrics are enabled and an export is due.
+     *
+     * @param server server that just finished a tick
+     */
+    public static void onServerTick(MinecraftServer server) {
+        if (!PumpMetrics.enabled) return;
+
+        int intervalTicks = AircraftModCommonConfigs.METRICS_EXPORT_INTERVAL.get() * 20;
+        if (intervalTicks <= 0 || server.getTickCount() % intervalTicks != 0) return;
+
+        MetricsExportFormat format = AircraftModCommonConfigs.METRICS_EXPORT_FORMAT.get();
+        String contents = format == MetricsExportFormat.JSON ? toJson(server) : toCsv(server);
+        Path target = server.getFile(FILE_NAME + "." + format.getExtension()).toPath();
+        Util.ioPool().execute(() -> write(target, contents));
+    }
+
+    /**
+     * Formats the metrics as CSV, one row per queue statistic, counter, hook and tracked chunk.
+     *
+     * @param server server whose pump queues are reported
+     * @return CSV text with a header row
+     */
+    public static String toCsv(MinecraftServer server) {
+        StringBuilder csv = new StringBuilder("dimension,scope,name,count,total_ns,mean_ns,p50_ns,p99_ns,max_ns\n");
+        for (ServerLevel level : server.getAllLevels()) {
+            AirPumpUpdateQueue queue = AirPumpUpdateQueue.get(level);
+            String dimension = level.dimension().location().toString();
+            csv.append(dimension).append(",queue,waiting,").append(queue.size()).append(",,,,,\n");
+            csv.append(dimension).append(",queue,max_wait_ticks,").append(queue.getLastMaxWaitTicks()).append(",,,,,\n");
+            csv.append(dimension).append(",queue,spilled_drains,").append(queue.getSpilledDrains()).append(",,,,,\n");
+        }
+        for (DimensionMetrics metrics : PumpMetrics.getDimensions()) {
+            String dimension = metrics.getDimension().location().toString();
+            for (PumpCounter counter : PumpCounter.VALUES) {
+                csv.append(dimension).append(",counter,").append(counter.getSerializedName()).append(',').append(metrics.getCount(counter)).append(",,,,,\n");
+            }
+            for (PumpHook hook : PumpHook.VALUES) {
+                NanoHistogram histogram = metrics.getHook(hook);
+                csv.append(dimension).append(",hook,").append(hook.getSerializedName()).append(',').append(histogram.getCount())
+                        .append(',').append(histogram.getTotalNanos()).append(',').append(histogram.getMeanNanos())
+                        .append(',').append(histogram.getPercentileNanos(0.5)).append(',').append(histogram.getPercentileNanos(0.99))
+                        .append(',').append(histogram.getMaxNanos()).append('\n');
+            }
+            for (Long2ObjectMap.Entry<long[]> chunk : metrics.getChunks().long2ObjectEntrySet()) {
+                long[] row = chunk.getValue();
+                csv.append(dimension).append(",chunk,").append(ChunkPos.getX(chunk.getLongKey())).append(' ').append(ChunkPos.getZ(chunk.getLongKey()))
+                        .append(',').append(row[PumpCounter.EVALUATIONS.ordinal()]).append(',').append(row[DimensionMetrics.CHUNK_HOOK_NANOS]).append(",,,,\n");
+            }
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Formats the metrics as a JSON document with one object per dimension, plus the state of each
+     * pump queue.
+     *
+     * @param server server whose pump queues are reported
+     * @return pretty-printed JSON text
+     */
+    public static String toJson(MinecraftServer server) {
+        JsonObject root = new JsonObject();
+        root.addProperty("tick", server.getTickCount());
+        JsonArray queues = new JsonArray();
+        for (ServerLevel level : server.getAllLevels()) {
+            AirPumpUpdateQueue queue = AirPumpUpdateQueue.get(level);
+            JsonObject entry = new JsonObject();
+            entry.addProperty("dimension", level.dimension().location().toString());
+            entry.addProperty("waiting", queue.size());
+            entry.addProperty("max_wait_ticks", queue.getLastMaxWaitTicks());
+            entry.addProperty("spilled_drains", queue.getSpilledDrains());
+            queues.add(entry);
+        }
+        root.add("queues", queues);
+        JsonArray dimensions = new JsonArray();
+        for (DimensionMetrics metrics : PumpMetrics.getDimensions()) {
+            JsonObject dimension = new JsonObject();
+            dimension.addProperty("dimension", metrics.getDimension().location().toString());
+
+            JsonObject counters = new JsonObject();
+            for (PumpCounter counter : PumpCounter.VALUES) counters.addProperty(counter.getSerializedName(), metrics.getCount(counter));
+            dimension.add("counters", counters);
+
+            JsonObject hooks = new JsonObject();
+            for (PumpHook hook : PumpHook.VALUES) {
+                NanoHistogram histogram = metrics.getHook(hook);
+                JsonObject timings = new JsonObject();
+                timings.addProperty("count", histogram.getCount());
+                timings.addProperty("total_ns", histogram.getTotalNanos());
+                timings.addProperty("mean_ns", histogram.getMeanNanos());
+                timings.addProperty("p50_ns", histogram.getPercentileNanos(0.5));
+                timings.addProperty("p99_ns", histogram.getPercentileNanos(0.99));
+                timings.addProperty("max_ns", histogram.getMaxNanos());
+                hooks.add(hook.getSerializedName(), timings);
+            }
+            dimension.add("hooks", hooks);
+
+            JsonArray chunks = new JsonArray();
+            for (Long2ObjectMap.Entry<long[]> chunk : metrics.getChunks().long2ObjectEntrySet()) {
+                long[] row = chunk.getValue();
+                JsonObject entry = new JsonObject();
+                entry.addProperty("x", ChunkPos.getX(chunk.getLongKey()));
+                entry.addProperty("z", ChunkPos.getZ(chunk.getLongKey()));
+                for (PumpCounter counter : PumpCounter.VALUES) entry.addProperty(counter.getSerializedName(), row[counter.ordinal()]);
+                entry.addProperty("hook_ns", row[DimensionMetrics.CHUNK_HOOK_NANOS]);
+                chunks.add(entry);
+            }
+            dimension.add("chunks", chunks);
+            dimensions.add(dimension);
+        }
+        root.add("dimensions", dimensions);
+        return GSON.toJson(root);
+    }
+
+    private static void write(Path target, String contents) {
+        try {
+            Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.writeString(temporary, contents, StandardCharsets.UTF_8);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write air pump metrics to {}", target, e);
+        }
+    }
+}
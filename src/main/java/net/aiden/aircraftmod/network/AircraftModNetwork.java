@@ -0,0 +1,36 @@
+package net.aiden.aircraftmod.network;
+
+import net.aiden.aircraftmod.AircraftMod;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkRegistry;
+import net.minecraftforge.network.simple.SimpleChannel;
+
+import java.util.Optional;
+
+/**
+ * The mod's network channel and the packets sent over it.
+ *
+ * @author Aiden Black
+ */
+public class AircraftModNetwork {
+    private static final String PROTOCOL_VERSION = "1";
+
+    /** name the channel's packets are sent under */
+    public static final ResourceLocation CHANNEL_NAME = new ResourceLocation(AircraftMod.MOD_ID, "main");
+
+    public static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(
+            CHANNEL_NAME,
+            () -> PROTOCOL_VERSION,
+            PROTOCOL_VERSION::equals,
+            PROTOCOL_VERSION::equals);
+
+    /**
+     * Registers every packet. Call once during common setup.
+     */
+    public static void register() {
+        int id = 0;
+        CHANNEL.registerMessage(id++, PumpTriggerBatchPacket.class, PumpTriggerBatchPacket::encode, PumpTriggerBatchPacket::decode,
+                PumpTriggerBatchPacket::handle, Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+    }
+}
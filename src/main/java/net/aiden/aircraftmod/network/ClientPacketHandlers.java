@@ -0,0 +1,30 @@
+package net.aiden.aircraftmod.network;
+
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Client-side handling of the mod's packets. Only loaded on the physical client.
+ *
+ * @author Aiden Black
+ */
+public class ClientPacketHandlers {
+    /**
+     * Replays a batch of pump block events, the same way the client handles a vanilla block event packet.
+     *
+     * @param packet batch received from the server
+     */
+    public static void handlePumpTriggers(PumpTriggerBatchPacket packet) {
+        ClientLevel level = Minecraft.getInstance().level;
+        if (level == null) return;
+
+        packet.forEach((basePos, extensionFlag, direction) -> {
+            BlockState baseState = level.getBlockState(basePos);
+            if (baseState.getBlock() instanceof AirPumpBaseBlock) {
+                baseState.triggerEvent(level, basePos.immutable(), extensionFlag, direction);
+            }
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package net.aiden.aircraftmod.network;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Every air pump that extended or contracted in one chunk during one tick, sent in place of one
+ * vanilla block event packet per pump. The client replays them as block events in a single pass.
+ * <p>
+ * Each pump is packed into an int key: its height, its x and z inside the chunk, whether it
+ * extended or contracted, and its facing. Keys are sorted and sent as varint deltas, so a bank of
+ * pumps side by side costs a byte or two each.
+ *
+ * @author Aiden Black
+ */
+public class PumpTriggerBatchPacket {
+    private static final int Y_OFFSET = 2048;
+
+    private final int chunkX;
+    private final int chunkZ;
+    /** packed pumps, sorted ascending */
+    private final int[] keys;
+
+    /**
+     * @param chunkX x coordinate of the chunk the pumps are in
+     * @param chunkZ z coordinate of the chunk the pumps are in
+     * @param keys   pumps packed with {@link #pack}, sorted ascending
+     */
+    public PumpTriggerBatchPacket(int chunkX, int chunkZ, int[] keys) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.keys = keys;
+    }
+
+    /**
+     * Packs one pump's block event.
+     *
+     * @param basePos       pump base's location
+     * @param extensionFlag TRIGGER_EXTEND (0) or TRIGGER_CONTRACT (1)
+     * @param direction     3D data value of the direction the pump faces
+     * @return the packed key
+     */
+    public static int pack(BlockPos basePos, int extensionFlag, int direction) {
+        return (basePos.getY() + Y_OFFSET) << 12 | (basePos.getX() & 15) << 8 | (basePos.getZ() & 15) << 4 | (extensionFlag & 1) << 3 | (direction & 7);
+    }
+
+    /**
+     * @return number of bytes {@link #encode} writes for this packet
+     */
+    public int getEncodedSize() {
+        int size = FriendlyByteBuf.getVarIntSize(chunkX) + FriendlyByteBuf.getVarIntSize(chunkZ) + FriendlyByteBuf.getVarIntSize(keys.length);
+        int previous = 0;
+        for (int key : keys) {
+            size += FriendlyByteBuf.getVarIntSize(key - previous);
+            previous = key;
+        }
+        return size;
+    }
+
+    /**
+     * @return number of pumps in the batch
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    public static void encode(PumpTriggerBatchPacket packet, FriendlyByteBuf buf) {
+        buf.writeVarInt(packet.chunkX);
+        buf.writeVarInt(packet.chunkZ);
+        buf.writeVarInt(packet.keys.length);
+        int previous = 0;
+        for (int key : packet.keys) {
+            buf.writeVarInt(key - previous);
+            previous = key;
+        }
+    }
+
+    public static PumpTriggerBatchPacket decode(FriendlyByteBuf buf) {
+        int chunkX = buf.readVarInt();
+        int chunkZ = buf.readVarInt();
+        int[] keys = new int[buf.readVarInt()];
+        int previous = 0;
+        for (int i = 0; i < keys.length; i++) {
+            previous += buf.readVarInt();
+            keys[i] = previous;
+        }
+        return new PumpTriggerBatchPacket(chunkX, chunkZ, keys);
+    }
+
+    public static void handle(PumpTriggerBatchPacket packet, Supplier<NetworkEvent.Context> context) {
+        context.get().enqueueWork(() -> DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientPacketHandlers.handlePumpTriggers(packet)));
+        context.get().setPacketHandled(true);
+    }
+
+    /**
+     * Unpacks every pump in the batch.
+     *
+     * @param consumer receives each pump's location, extension flag and direction, in key order
+     */
+    public void forEach(TriggerConsumer consumer) {
+        BlockPos.MutableBlockPos basePos = new BlockPos.MutableBlockPos();
+        for (int key : keys) {
+            basePos.set((chunkX << 4) + (key >> 8 & 15), (key >>> 12) - Y_OFFSET, (chunkZ << 4) + (key >> 4 & 15));
+            consumer.accept(basePos, key >> 3 & 1, key & 7);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PumpTriggerBatchPacket[" + chunkX + ", " + chunkZ + ", " + Arrays.toString(keys) + "]";
+    }
+
+    @FunctionalInterface
+    public interface TriggerConsumer {
+        /**
+         * @param basePos       pump base's location, only valid during the call
+         * @param extensionFlag TRIGGER_EXTEND or TRIGGER_CONTRACT
+         * @param direction     3D data value of the direction the pump faces
+         */
+        void accept(BlockPos basePos, int extensionFlag, int direction);
+    }
+}
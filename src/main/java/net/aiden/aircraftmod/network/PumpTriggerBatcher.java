@@ -0,0 +1,169 @@
+package net.aiden.aircraftmod.network;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.aiden.aircraftmod.block.custom.AirPumpBaseBlock;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.piston.PistonBaseBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.network.PacketDistributor;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stands in for the level's block event queue for air pumps. Pump block events are scheduled here
+ * instead of with {@code Level.blockEvent}, run at the start of the next level tick, and the ones
+ * that fired are sent to clients as one {@link PumpTriggerBatchPacket} per chunk rather than one
+ * vanilla packet per pump.
+ * <p>
+ * The batch goes out straight after the events run, before the level tick broadcasts block
+ * changes, so clients see each pump start moving before they see its new state, as they do with
+ * vanilla block events.
+ *
+ * @author Aiden Black
+ */
+public class PumpTriggerBatcher {
+    private static final Map<ServerLevel, PumpTriggerBatcher> BATCHERS = new HashMap<>();
+
+    private final ServerLevel level;
+    /** block event parameters of each scheduled pump, in the order they were scheduled */
+    private Long2IntLinkedOpenHashMap scheduled = new Long2IntLinkedOpenHashMap();
+    private Long2IntLinkedOpenHashMap running = new Long2IntLinkedOpenHashMap();
+    /** packed pumps that fired, by chunk */
+    private final Long2ObjectOpenHashMap<IntArrayList> firedByChunk = new Long2ObjectOpenHashMap<>();
+    private final ArrayDeque<IntArrayList> spareLists = new ArrayDeque<>();
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+    private long packetsSent;
+    private long pumpsSent;
+    private long bytesSent;
+
+    private PumpTriggerBatcher(ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Returns the batcher for a level, creating it on first use.
+     *
+     * @param level server level the pumps live in
+     * @return the level's batcher
+     */
+    public static PumpTriggerBatcher get(ServerLevel level) {
+        return BATCHERS.computeIfAbsent(level, PumpTriggerBatcher::new);
+    }
+
+    /**
+     * Drops the batcher of a level that is being unloaded.
+     *
+     * @param level level being unloaded
+     */
+    public static void remove(ServerLevel level) {
+        BATCHERS.remove(level);
+    }
+
+    /**
+     * Schedules a pump block event for the start of the next tick. A pump scheduled twice before
+     * then only runs its latest event.
+     *
+     * @param basePos       pump base's location
+     * @param extensionFlag TRIGGER_EXTEND, TRIGGER_CONTRACT or {@link AirPumpBaseBlock#TRIGGER_ASSEMBLE}
+     * @param direction     3D data value of the direction the pump faces
+     */
+    public void schedule(BlockPos basePos, int extensionFlag, int direction) {
+        scheduled.put(basePos.asLong(), extensionFlag << 8 | direction);
+    }
+
+    /**
+     * Runs the scheduled block events and sends the ones that fired to the clients tracking their
+     * chunks. Events in chunks that do not tick blocks are kept for a later tick.
+     */
+    public void tick() {
+        if (scheduled.isEmpty()) return;
+
+        Long2IntLinkedOpenHashMap toRun = scheduled;
+        scheduled = running;
+        running = toRun;
+
+        for (Long2IntLinkedOpenHashMap.Entry event : toRun.long2IntEntrySet()) {
+            long base = event.getLongKey();
+            int extensionFlag = event.getIntValue() >> 8;
+            int direction = event.getIntValue() & 0xFF;
+            cursor.set(base);
+            // Like vanilla block events, an event in a chunk that is not ticking waits until it is,
+            // unless the pump was scheduled again since
+            if (!level.shouldTickBlocksAt(cursor)) {
+                scheduled.putIfAbsent(base, event.getIntValue());
+                continue;
+            }
+
+            BlockState baseState = level.getBlockState(cursor);
+            if (baseState.getBlock() instanceof AirPumpBaseBlock) {
+                BlockPos basePos = cursor.immutable();
+                if (baseState.triggerEvent(level, basePos, extensionFlag, direction)) fired(basePos, extensionFlag, direction);
+            }
+        }
+        toRun.clear();
+        send();
+    }
+
+    /**
+     * @return number of batch packets built since the level loaded
+     */
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    /**
+     * @return number of pump events sent in batches since the level loaded
+     */
+    public long getPumpsSent() {
+        return pumpsSent;
+    }
+
+    /**
+     * @return encoded size of every batch built since the level loaded, in bytes, before compression
+     * and not multiplied by the number of players receiving it
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    private void fired(BlockPos basePos, int extensionFlag, int direction) {
+        // Clients only see the pump extend; the launched airship reaches them as an entity
+        if (extensionFlag == AirPumpBaseBlock.TRIGGER_ASSEMBLE) extensionFlag = PistonBaseBlock.TRIGGER_EXTEND;
+        long chunk = ChunkPos.asLong(basePos.getX() >> 4, basePos.getZ() >> 4);
+        IntArrayList pumps = firedByChunk.get(chunk);
+        if (pumps == null) {
+            pumps = spareLists.isEmpty() ? new IntArrayList() : spareLists.pop();
+            firedByChunk.put(chunk, pumps);
+        }
+        pumps.add(PumpTriggerBatchPacket.pack(basePos, extensionFlag, direction));
+    }
+
+    private void send() {
+        for (Long2ObjectMap.Entry<IntArrayList> entry : firedByChunk.long2ObjectEntrySet()) {
+            IntArrayList pumps = entry.getValue();
+            int[] keys = pumps.toIntArray();
+            Arrays.sort(keys);
+            int chunkX = ChunkPos.getX(entry.getLongKey());
+            int chunkZ = ChunkPos.getZ(entry.getLongKey());
+            PumpTriggerBatchPacket packet = new PumpTriggerBatchPacket(chunkX, chunkZ, keys);
+
+            AircraftModNetwork.CHANNEL.send(PacketDistributor.TRACKING_CHUNK.with(() -> level.getChunk(chunkX, chunkZ)), packet);
+            packetsSent++;
+            pumpsSent += keys.length;
+            bytesSent += packet.getEncodedSize();
+
+            pumps.clear();
+            spareLists.push(pumps);
+        }
+        firedByChunk.clear();
+    }
+}
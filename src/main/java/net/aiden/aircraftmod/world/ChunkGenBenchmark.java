@@ -0,0 +1,135 @@
+package net.aiden.aircraftmod.world;
+
+import com.mojang.datafixers.util.Either;
+import com.mojang.logging.LogUtils;
+import net.aiden.aircraftmod.config.AircraftModCommonConfigs;
+import net.aiden.aircraftmod.config.ConfigOverrides;
+import net.aiden.aircraftmod.gametest.GameTestBenchmarks;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import org.slf4j.Logger;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless chunk generation benchmark, run by the {@code chunkgenBenchmark} run configuration. Once
+ * the server has started, it generates a square of chunks in the overworld, the nether and the end,
+ * far from spawn, reports how many chunks per second each dimension generated, and stops the server.
+ * The whole square of a dimension is requested from the chunk source at once, the way tickets load
+ * chunks in play, so generation runs on the worldgen threads as it normally would, and the server
+ * thread only runs the chunk source's main-thread tasks until every chunk is full.
+ * <p>
+ * It only runs when the system property {@value #RADIUS_PROPERTY} is set. {@value #FEATURES_PROPERTY}
+ * turns the mod's ore features on or off for the run, so the two can be compared. Chunks that already
+ * exist are loaded rather than generated, so every run needs a fresh world, and runs are only
+ * comparable when they share a seed: set {@code level-seed} in the run directory's
+ * {@code server.properties} to {@value #DEFAULT_SEED}, or to the seed given in {@value #SEED_PROPERTY}.
+ * A world with any other seed stops the server without running.
+ * <p>
+ * Results are logged and appended to {@code benchmark-results/chunkgen.csv} in the run directory.
+ *
+ * @author Aiden Black
+ */
+public class ChunkGenBenchmark {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    public static final String RADIUS_PROPERTY = "aircraftmod.benchmark.chunkgen.radius";
+    public static final String FEATURES_PROPERTY = "aircraftmod.benchmark.chunkgen.features";
+    public static final String SEED_PROPERTY = "aircraftmod.benchmark.chunkgen.seed";
+
+    /** seed the benchmark expects the world to have been created with */
+    public static final long DEFAULT_SEED = 8_675_309L;
+    /** chunk coordinates of the centre of the generated square, well away from the spawn chunks */
+    private static final int CENTRE_CHUNK = 4096;
+    /** nanoseconds the server thread sleeps when the chunk source has no task for it */
+    private static final long WAIT_NANOS = 100_000L;
+
+    private static final List<ResourceKey<Level>> DIMENSIONS = List.of(Level.OVERWORLD, Level.NETHER, Level.END);
+    private static final Path RESULTS = Paths.get("benchmark-results", "chunkgen.csv");
+
+    /**
+     * Runs the benchmark if it was asked for, then stops the server.
+     *
+     * @param server server that has just started
+     */
+    public static void onServerStarted(MinecraftServer server) {
+        String radiusProperty = System.getProperty(RADIUS_PROPERTY);
+        if (radiusProperty == null) return;
+
+        int radius = Integer.parseInt(radiusProperty);
+        boolean features = Boolean.parseBoolean(System.getProperty(FEATURES_PROPERTY, "true"));
+        long expectedSeed = Long.getLong(SEED_PROPERTY, DEFAULT_SEED);
+        long seed = server.getWorldData().worldGenSettings().seed();
+        if (seed != expectedSeed) {
+            LOGGER.error("Chunk generation benchmark expected seed {} but the world has seed {}; not running, since results are only comparable between runs with the same seed",
+                    expectedSeed, seed);
+            server.halt(false);
+            return;
+        }
+
+        ConfigOverrides.set(AircraftModCommonConfigs.ZIRCON_ORE_ENABLED, features);
+        try {
+            for (ResourceKey<Level> dimension : DIMENSIONS) {
+                ServerLevel level = server.getLevel(dimension);
+                if (level != null) generate(level, radius, features, seed).report();
+            }
+        } finally {
+            ConfigOverrides.restore();
+        }
+        server.halt(false);
+    }
+
+    /**
+     * Generates every chunk of the square up to full status. Every chunk is requested before any is
+     * waited for, which adds a ticket for each to the chunk source, and the server thread then runs
+     * the chunk source's tasks until all of them are done.
+     */
+    private static Result generate(ServerLevel level, int radius, boolean features, long seed) {
+        ServerChunkCache chunkSource = level.getChunkSource();
+        List<CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int chunkX = CENTRE_CHUNK - radius; chunkX <= CENTRE_CHUNK + radius; chunkX++) {
+            for (int chunkZ = CENTRE_CHUNK - radius; chunkZ <= CENTRE_CHUNK + radius; chunkZ++) {
+                futures.add(chunkSource.getChunkFuture(chunkX, chunkZ, ChunkStatus.FULL, true));
+            }
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+        while (!all.isDone()) {
+            // Generation runs on the worldgen threads; results are handed back through these tasks
+            if (!chunkSource.pollTask()) LockSupport.parkNanos(WAIT_NANOS);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int failed = 0;
+        for (CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> future : futures) {
+            if (future.join().right().isPresent()) failed++;
+        }
+        if (failed > 0) LOGGER.error("Chunk generation benchmark could not generate {} chunks in {}", failed, level.dimension().location());
+        return new Result(level.dimension().location().toString(), features, seed, futures.size() - failed, seconds);
+    }
+
+    /**
+     * Measurements of one dimension.
+     */
+    private record Result(String dimension, boolean features, long seed, int chunks, double seconds) {
+        private static final String HEADER = "dimension,features,seed,chunks,seconds,chunks_per_second";
+
+        void report() {
+            String row = String.format(Locale.ROOT, "%s,%b,%d,%d,%.3f,%.1f", dimension, features, seed, chunks, seconds, chunks / seconds);
+            GameTestBenchmarks.report(RESULTS, "Chunk generation benchmark", HEADER, row);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package net.aiden.aircraftmod.world.feature;
+
+import com.google.common.base.Suppliers;
+import net.aiden.aircraftmod.AircraftMod;
+import net.aiden.aircraftmod.block.ModBlocks;
+import net.minecraft.core.Registry;
+import net.minecraft.data.worldgen.features.OreFeatures;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.levelgen.feature.ConfiguredFeature;
+import net.minecraft.world.level.levelgen.feature.configurations.OreConfiguration;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockMatchTest;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.RegistryObject;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public class ModConfiguredFeatures {
+    public static final DeferredRegister<ConfiguredFeature<?, ?>> CONFIGURED_FEATURES =
+            DeferredRegister.create(Registry.CONFIGURED_FEATURE_REGISTRY, AircraftMod.MOD_ID);
+
+    /** blocks per vein, the same as vanilla iron */
+    private static final int VEIN_SIZE = 9;
+
+    public static final Supplier<List<OreConfiguration.TargetBlockState>> OVERWORLD_ZIRCON_ORES = Suppliers.memoize(() -> List.of(
+            OreConfiguration.target(OreFeatures.STONE_ORE_REPLACEABLES, ModBlocks.ZIRCON_ORE.get().defaultBlockState()),
+            OreConfiguration.target(OreFeatures.DEEPSLATE_ORE_REPLACEABLES, ModBlocks.DEEPSLATE_ZIRCON_ORE.get().defaultBlockState())));
+    public static final Supplier<List<OreConfiguration.TargetBlockState>> NETHER_ZIRCON_ORES = Suppliers.memoize(() -> List.of(
+            OreConfiguration.target(OreFeatures.NETHERRACK, ModBlocks.NETHERRACK_ZIRCON_ORE.get().defaultBlockState())));
+    public static final Supplier<List<OreConfiguration.TargetBlockState>> END_ZIRCON_ORES = Suppliers.memoize(() -> List.of(
+            OreConfiguration.target(new BlockMatchTest(Blocks.END_STONE), ModBlocks.ENDSTONE_ZIRCON_ORE.get().defaultBlockState())));
+
+    public static final RegistryObject<ConfiguredFeature<?, ?>> ZIRCON_ORE = CONFIGURED_FEATURES.register("zircon_ore",
+            () -> new ConfiguredFeature<>(ModFeatures.SECTION_BATCHED_ORE.get(), new OreConfiguration(OVERWORLD_ZIRCON_ORES.get(), VEIN_SIZE)));
+    public static final RegistryObject<ConfiguredFeature<?, ?>> NETHER_ZIRCON_ORE = CONFIGURED_FEATURES.register("nether_zircon_ore",
+            () -> new ConfiguredFeature<>(ModFeatures.SECTION_BATCHED_ORE.get(), new OreConfiguration(NETHER_ZIRCON_ORES.get(), VEIN_SIZE)));
+    public static final RegistryObject<ConfiguredFeature<?, ?>> END_ZIRCON_ORE = CONFIGURED_FEATURES.register("end_zircon_ore",
+            () -> new ConfiguredFeature<>(ModFeatures.SECTION_BATCHED_ORE.get(), new OreConfiguration(END_ZIRCON_ORES.get(), VEIN_SIZE)));
+
+
+    public static void register(IEventBus eventBus) {
+        CONFIGURED_FEATURES.register(eventBus);
+    }
+}
@@ -0,0 +1,22 @@
+package net.aiden.aircraftmod.world.feature;
+
+import net.aiden.aircraftmod.AircraftMod;
+import net.minecraft.world.level.levelgen.feature.Feature;
+import net.minecraft.world.level.levelgen.feature.configurations.OreConfiguration;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.RegistryObject;
+
+public class ModFeatures {
+    public static final DeferredRegister<Feature<?>> FEATURES =
+            DeferredRegister.create(ForgeRegistries.FEATURES, AircraftMod.MOD_ID);
+
+    public static final RegistryObject<SectionBatchedOreFeature> SECTION_BATCHED_ORE =
+            FEATURES.register("section_batched_ore", () -> new SectionBatchedOreFeature(OreConfiguration.CODEC));
+
+
+    public static void register(IEventBus eventBus) {
+        FEATURES.register(eventBus);
+    }
+}
@@ -0,0 +1,48 @@
+package net.aiden.aircraftmod.world.feature;
+
+import net.aiden.aircraftmod.AircraftMod;
+import net.minecraft.core.Registry;
+import net.minecraft.world.level.levelgen.VerticalAnchor;
+import net.minecraft.world.level.levelgen.placement.BiomeFilter;
+import net.minecraft.world.level.levelgen.placement.CountPlacement;
+import net.minecraft.world.level.levelgen.placement.HeightRangePlacement;
+import net.minecraft.world.level.levelgen.placement.InSquarePlacement;
+import net.minecraft.world.level.levelgen.placement.PlacedFeature;
+import net.minecraft.world.level.levelgen.placement.PlacementModifier;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.RegistryObject;
+
+import java.util.List;
+
+/**
+ * Where zircon veins are placed. The biome modifiers in {@code data/aircraftmod/forge/biome_modifier}
+ * add each placed feature to the biomes of its dimension.
+ */
+public class ModPlacedFeatures {
+    public static final DeferredRegister<PlacedFeature> PLACED_FEATURES =
+            DeferredRegister.create(Registry.PLACED_FEATURE_REGISTRY, AircraftMod.MOD_ID);
+
+    public static final RegistryObject<PlacedFeature> ZIRCON_ORE_PLACED = PLACED_FEATURES.register("zircon_ore_placed",
+            () -> new PlacedFeature(ModConfiguredFeatures.ZIRCON_ORE.getHolder().get(),
+                    commonOrePlacement(7, HeightRangePlacement.triangle(VerticalAnchor.aboveBottom(-80), VerticalAnchor.aboveBottom(80)))));
+    public static final RegistryObject<PlacedFeature> NETHER_ZIRCON_ORE_PLACED = PLACED_FEATURES.register("nether_zircon_ore_placed",
+            () -> new PlacedFeature(ModConfiguredFeatures.NETHER_ZIRCON_ORE.getHolder().get(),
+                    commonOrePlacement(8, HeightRangePlacement.uniform(VerticalAnchor.aboveBottom(10), VerticalAnchor.belowTop(10)))));
+    public static final RegistryObject<PlacedFeature> END_ZIRCON_ORE_PLACED = PLACED_FEATURES.register("end_zircon_ore_placed",
+            () -> new PlacedFeature(ModConfiguredFeatures.END_ZIRCON_ORE.getHolder().get(),
+                    commonOrePlacement(6, HeightRangePlacement.uniform(VerticalAnchor.absolute(0), VerticalAnchor.absolute(80)))));
+
+    private static List<PlacementModifier> orePlacement(PlacementModifier count, PlacementModifier height) {
+        return List.of(count, InSquarePlacement.spread(), height, BiomeFilter.biome());
+    }
+
+    private static List<PlacementModifier> commonOrePlacement(int veinsPerChunk, PlacementModifier height) {
+        return orePlacement(CountPlacement.of(veinsPerChunk), height);
+    }
+
+
+    public static void register(IEventBus eventBus) {
+        PLACED_FEATURES.register(eventBus);
+    }
+}